@@ -143,27 +143,30 @@ public class Camera {
      * @return A {@link Ray} that goes through given pixel in the view plane
      */
     public Ray constructRayThroughPixel(int nX, int nY, int j, int i) {
-        Point3D pIJ = location.add(vTO.scale(distance)); // initialize pixel at center of view plane
-
-        if (nX % 2 == 0) {
-            pIJ = pIJ.add(vRight.scale((width / nX) * (j - nX / 2 + .5))); // number of pixels to move horizontally *
-                                                                           // height of pixel
-        } else {
-            double xJ = (width / nX) * (j - (nX - 1) / 2);
-            if (!isZero(xJ))
-                pIJ = pIJ.add(vRight.scale(xJ));
-        }
-
-        if (nY % 2 == 0) {
-            pIJ = pIJ.add(vUP.scale(-(height / nY) * (i - nY / 2 + .5))); // number of pixels to move vertically *
-                                                                          // height of pixel
-        } else {
-            double yI = (height / nY) * (i - (nY - 1) / 2);
-            if (!isZero(yI))
-                pIJ = pIJ.add(vUP.scale(-yI)); // when i is above center of view plane, yI will be negative
-        }
+        return constructRayThroughPoint(nX, nY, j + .5, i + .5); // center of the pixel
+    }
 
-        return new Ray(location, pIJ.subtract(location)); // Ray's constructor will normalize the direction vector
+    /**
+     * Constructs a {@link Ray} that goes from the {@link Camera} through any point
+     * on its view plane, e.g. a random point within a pixel
+     * 
+     * @param nX Number of columns in view plane
+     * @param nY Number of rows in the view plane
+     * @param x  Column coordinate of the point, in pixels from the left edge (the
+     *           center of column j is at j + 0.5)
+     * @param y  Row coordinate of the point, in pixels from the top edge
+     * @return A {@link Ray} that goes through given point in the view plane
+     */
+    public Ray constructRayThroughPoint(int nX, int nY, double x, double y) {
+        Vec3 dir = new Vec3(vTO).scale(distance); // initialize point at center of view plane
+        Vec3 axis = new Vec3();
+        double xJ = (width / nX) * (x - nX / 2.0);
+        if (!isZero(xJ))
+            dir.add(axis.set(vRight), xJ);
+        double yI = (height / nY) * (y - nY / 2.0);
+        if (!isZero(yI))
+            dir.add(axis.set(vUP), -yI); // when y is above center of view plane, yI will be negative
+        return new Ray(location, dir.toVector());
     }
 
     /**
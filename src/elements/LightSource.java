@@ -16,6 +16,18 @@ public interface LightSource {
      */
     public Color getIntensity(Point3D p);
 
+    /**
+     * Getter to retrieve light source's affect on a given {@link Point3D}, when the vector from the light
+     * and the distance to it were already calculated for the point
+     * @param p {@link Point3D}
+     * @param l {@link Vector} from light source to p
+     * @param distance distance from p to the light source
+     * @return {@link Color}
+     */
+    default Color getIntensity(Point3D p, Vector l, double distance) {
+        return getIntensity(p);
+    }
+
     /**
      * Calculates vector from the light source to a given {@link Point3D}
      * @param p {@link Point3D}
@@ -41,7 +41,12 @@ public class PointLight extends Light implements LightSource {
 
     @Override
     public Color getIntensity(Point3D p) {
-        return super.getIntensity().reduce(kC + kL*getDistance(p) + kQ*getDistance(p)*getDistance(p));
+        return getIntensity(p, getL(p), getDistance(p));
+    }
+
+    @Override
+    public Color getIntensity(Point3D p, Vector l, double distance) {
+        return super.getIntensity().reduce(kC + kL*distance + kQ*distance*distance);
     }
 
     @Override
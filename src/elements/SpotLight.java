@@ -32,8 +32,9 @@ public class SpotLight extends PointLight {
     }
 
     @Override
-    public Color getIntensity(Point3D p) {
-        if (direction.dotProduct(getL(p)) <= 0) return Color.BLACK;
-        return super.getIntensity(p).scale(Math.pow(direction.dotProduct(getL(p)), beam));
+    public Color getIntensity(Point3D p, Vector l, double distance) {
+        double dl = direction.dotProduct(l);
+        if (dl <= 0) return Color.BLACK;
+        return super.getIntensity(p, l, distance).scale(Math.pow(dl, beam));
     }
 }
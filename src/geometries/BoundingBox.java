@@ -3,8 +3,7 @@ package geometries;
 import primitives.Point3D;
 import primitives.Ray;
 
-import static primitives.Util.alignZero;
-
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -22,6 +21,11 @@ public class BoundingBox extends Geometries {
      */
     private Point3D min, max;
 
+    /**
+     * The extreme points as an array (min x, y, z, max x, y, z) for the slab test
+     */
+    private double[] bounds = new double[6];
+
     /**
      * Constructor for Bounding Box
      * 
@@ -61,10 +65,53 @@ public class BoundingBox extends Geometries {
     @Override
     public void add(Intersectable... geometries) {
         for (Intersectable g : geometries) {
-            min = min != null ? Point3D.min(g.getMinPoint(), min) : g.getMinPoint();
-            max = max != null ? Point3D.max(g.getMaxPoint(), max) : g.getMaxPoint();
+            grow(g);
             this.geometries.add(g);
         }
+        copyBounds();
+    }
+
+    /**
+     * Recalculates the bounds of the whole hierarchy from the bottom up, after
+     * geometries inside of it have moved or changed
+     */
+    public void refit() {
+        for (Intersectable g : geometries)
+            if (g instanceof BoundingBox)
+                ((BoundingBox) g).refit();
+        updateBounds();
+    }
+
+    /**
+     * Recalculates the min and max points from the direct children only, assuming
+     * the bounds of child boxes are already up to date
+     */
+    void updateBounds() {
+        min = max = null;
+        for (Intersectable g : geometries)
+            grow(g);
+        copyBounds();
+    }
+
+    /**
+     * Calculates the surface area of the bounding box
+     *
+     * @return surface area, 0 for an empty box
+     */
+    double area() {
+        return min == null ? 0 : SAHBuilder.area(bounds);
+    }
+
+    private void grow(Intersectable g) {
+        min = min != null ? Point3D.min(g.getMinPoint(), min) : g.getMinPoint();
+        max = max != null ? Point3D.max(g.getMaxPoint(), max) : g.getMaxPoint();
+    }
+
+    private void copyBounds() {
+        for (int axis = 0; axis < 3 && min != null; ++axis) {
+            bounds[axis] = min.getCoord(axis);
+            bounds[axis + 3] = max.getCoord(axis);
+        }
     }
 
     /**
@@ -79,6 +126,104 @@ public class BoundingBox extends Geometries {
         return super.findGeoIntersections(r, limit);
     }
 
+    /**
+     * Scratch arrays used to order the children of the boxes being visited by a
+     * thread, one pair per level of nesting so a child box doesn't overwrite the
+     * order of its parent
+     */
+    private static final class Scratch {
+        Intersectable[][] children = new Intersectable[8][];
+        double[][] distances = new double[8][];
+        int level = 0;
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Overridden method which skips the bounding box if it isn't entered before the
+     * closest hit so far, and visits the closer children first so farther ones
+     * can be skipped once a hit is found
+     */
+    @Override
+    public boolean findClosestHit(Ray r, HitRecord hit) {
+        if (entryDistance(r, hit.t) == Double.POSITIVE_INFINITY)
+            return false;
+
+        int n = geometries.size();
+        if (n == 2) {
+            // boxes of a binary hierarchy are compared directly
+            Intersectable near = geometries.get(0), far = geometries.get(1);
+            double dNear = distance(near, r, hit.t), dFar = distance(far, r, hit.t);
+            if (dFar < dNear) {
+                Intersectable temp = near;
+                near = far;
+                far = temp;
+                double tempD = dNear;
+                dNear = dFar;
+                dFar = tempD;
+            }
+            boolean found = dNear < Double.POSITIVE_INFINITY && dNear <= hit.t && near.findClosestHit(r, hit);
+            if (dFar < Double.POSITIVE_INFINITY && dFar <= hit.t)
+                found |= far.findClosestHit(r, hit);
+            return found;
+        }
+
+        // order the children front to back by the distance to their boxes
+        Scratch scratch = SCRATCH.get();
+        int level = scratch.level++;
+        try {
+            if (level == scratch.children.length) {
+                scratch.children = Arrays.copyOf(scratch.children, 2 * level);
+                scratch.distances = Arrays.copyOf(scratch.distances, 2 * level);
+            }
+            if (scratch.children[level] == null || scratch.children[level].length < n) {
+                scratch.children[level] = new Intersectable[Math.max(n, 8)];
+                scratch.distances[level] = new double[Math.max(n, 8)];
+            }
+            Intersectable[] children = scratch.children[level];
+            double[] distances = scratch.distances[level];
+            int i = 0;
+            for (Intersectable g : geometries) {
+                double d = distance(g, r, hit.t);
+                int j = i++;
+                for (; j > 0 && distances[j - 1] > d; --j) {
+                    children[j] = children[j - 1];
+                    distances[j] = distances[j - 1];
+                }
+                children[j] = g;
+                distances[j] = d;
+            }
+
+            boolean found = false;
+            for (i = 0; i < n && distances[i] < Double.POSITIVE_INFINITY && distances[i] <= hit.t; ++i)
+                found |= children[i].findClosestHit(r, hit);
+            // don't keep the geometries of the last ray reachable
+            Arrays.fill(children, 0, n, null);
+            return found;
+        } finally {
+            scratch.level--;
+        }
+    }
+
+    /**
+     * Helper function that finds the distance at which a ray enters a child: the
+     * distance to its box, or 0 if it isn't a box
+     */
+    private static double distance(Intersectable child, Ray r, double limit) {
+        return child instanceof BoundingBox ? ((BoundingBox) child).entryDistance(r, limit) : 0;
+    }
+
+    /**
+     * Overridden method to avoid checking the objects inside the bounding box for
+     * shadows if the box isn't entered before the light
+     */
+    @Override
+    public double findTransparency(Ray r, double limit, double minK) {
+        if (entryDistance(r, limit) == Double.POSITIVE_INFINITY)
+            return 1;
+        return super.findTransparency(r, limit, minK);
+    }
+
     /**
      * Method that checks if the bounding box gets intersected at all
      * 
@@ -87,31 +232,78 @@ public class BoundingBox extends Geometries {
      * @return false if it isn't intersected
      */
     public boolean getsIntersected(Ray r) {
+        return entryDistance(r, Double.POSITIVE_INFINITY) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calculates the distance at which a {@link Ray} enters the bounding box
+     * 
+     * @param r     intersecting {@link Ray}
+     * @param limit upper boundary on the distance
+     * @return distance to the box, 0 if the ray starts inside it, or infinity if
+     *         the box isn't entered within the limit
+     */
+    public double entryDistance(Ray r, double limit) {
+        if (min == null)
+            return Double.POSITIVE_INFINITY;
+        Point3D start = r.getStartPoint();
+        Point3D dir = r.getDir().getHead();
+        return entry(bounds, 0, start.getX(), start.getY(), start.getZ(), 1 / dir.getX(), 1 / dir.getY(),
+                1 / dir.getZ(), limit);
+    }
+
+    /**
+     * Slab test which calculates the distance at which a ray enters a box. Axes
+     * the ray is parallel to (infinite inverse direction) only check that the
+     * origin is between the slabs
+     *
+     * @param b      array of bounds
+     * @param offset offset of the box in b (min x, y, z, max x, y, z)
+     * @param ox     ray origin x
+     * @param oy     ray origin y
+     * @param oz     ray origin z
+     * @param ix     1 / ray direction x
+     * @param iy     1 / ray direction y
+     * @param iz     1 / ray direction z
+     * @param limit  upper boundary on the distance
+     * @return distance to the box, 0 if the ray starts inside it, or infinity if
+     *         the box isn't entered within the limit
+     */
+    static double entry(double[] b, int offset, double ox, double oy, double oz, double ix, double iy, double iz,
+            double limit) {
         double tmin = 0;
-        double tmax = Double.POSITIVE_INFINITY;
-        Point3D rDir = r.getDir().getHead();
-        Point3D rStart = r.getStartPoint();
-        for (int i = 0; i < 3; ++i) {
-            double coord = rDir.getCoord(i);
-            if (coord == 0)
+        double tmax = limit;
+        double o = ox, inv = ix;
+        for (int axis = 0; axis < 3; ++axis) {
+            if (axis == 1) {
+                o = oy;
+                inv = iy;
+            } else if (axis == 2) {
+                o = oz;
+                inv = iz;
+            }
+            double min = b[offset + axis];
+            double max = b[offset + axis + 3];
+            if (Double.isInfinite(inv)) {
+                if (o < min || o > max)
+                    return Double.POSITIVE_INFINITY;
                 continue;
-            double invD = alignZero(1 / coord);
-            double t0 = alignZero((min.getCoord(i) - rStart.getCoord(i)) * invD);
-            double t1 = alignZero((max.getCoord(i) - rStart.getCoord(i)) * invD);
-            if (invD < 0) {
-                //double temp = t1;
-                //t1 = t0;
-                //t0 = temp;
-                tmin = t1 > tmin ? t1 : tmin;
-                tmax = t0 < tmax ? t0 : tmax;
-            } else {
-                tmin = t0 > tmin ? t0 : tmin;
-                tmax = t1 < tmax ? t1 : tmax;
             }
+            double t0 = (min - o) * inv;
+            double t1 = (max - o) * inv;
+            if (inv < 0) {
+                double temp = t0;
+                t0 = t1;
+                t1 = temp;
+            }
+            if (t0 > tmin)
+                tmin = t0;
+            if (t1 < tmax)
+                tmax = t1;
             if (tmax < tmin)
-                return false;
+                return Double.POSITIVE_INFINITY;
         }
-        return true;
+        return tmin;
     }
 
     @Override
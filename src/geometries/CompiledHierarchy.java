@@ -0,0 +1,295 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import primitives.Point3D;
+import primitives.Ray;
+
+/**
+ * CompiledHierarchy is the common part of the hierarchies compiled into
+ * primitive arrays ({@link FlatHierarchy}, {@link QuantizedHierarchy} and
+ * {@link WideHierarchy}). It holds the geometries in the order of the leaves
+ * and runs the stack loop and the leaf tests of every query, while each form
+ * only fetches its own boxes: a {@link Traversal} pushes the children of a node
+ * which a ray enters and tells the leaves apart
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+abstract class CompiledHierarchy extends Geometries {
+
+    /**
+     * Amount of nodes of the hierarchy
+     */
+    int nodeCount = 0;
+
+    /**
+     * Amount of levels in the hierarchy, used to size the traversal stack
+     */
+    int depth = 0;
+
+    /**
+     * Finite geometries ordered by the leaves holding them
+     */
+    Intersectable[] primitives;
+
+    /**
+     * Geometries without bounds (planes, tubes) which are checked for every ray
+     */
+    Intersectable[] unbounded;
+
+    /**
+     * The triangles of {@link #primitives}, which are tested together in the leaves
+     */
+    TriangleBatch triangles;
+
+    /**
+     * Traversal of the hierarchy by a single ray. The loop pops the items of the
+     * stack until it reaches a leaf, and the forms push the children of the
+     * inner nodes, far to near, with the distance the ray enters them at
+     */
+    abstract static class Traversal {
+        final int[] items;
+        final double[] distances;
+        int top = 0;
+
+        /**
+         * Index of the first geometry and amount of geometries of the leaf the
+         * traversal stopped at
+         */
+        int first, count;
+
+        /**
+         * Constructor for a traversal
+         *
+         * @param size largest amount of items on the stack
+         */
+        Traversal(int size) {
+            items = new int[size];
+            distances = new double[size];
+        }
+
+        /**
+         * Pushes an item onto the stack
+         *
+         * @param item     the item
+         * @param distance distance the ray enters the item at
+         */
+        final void push(int item, double distance) {
+            items[top] = item;
+            distances[top++] = distance;
+        }
+
+        /**
+         * Continues the traversal to the next leaf which the ray enters within a
+         * distance. Items pushed beyond the distance are skipped, so it may shrink
+         * as hits are found
+         *
+         * @param limit upper boundary on the distance to the leaves
+         * @return true if a leaf was found, false once the traversal is done
+         */
+        final boolean next(double limit) {
+            while (top > 0) {
+                int item = items[--top];
+                if (distances[top] > limit)
+                    continue; // a closer hit was found after the item was pushed
+                if (leaf(item))
+                    return true;
+                expand(item, limit);
+            }
+            return false;
+        }
+
+        /**
+         * Checks whether an item is a leaf, and stores its geometries in
+         * {@link #first} and {@link #count} if it is
+         *
+         * @param item the item
+         * @return true if the item is a leaf
+         */
+        abstract boolean leaf(int item);
+
+        /**
+         * Pushes the children of an inner node which the ray enters within a
+         * distance. The node was popped from the top of the stack
+         *
+         * @param item  the node
+         * @param limit upper boundary on the distance to the children
+         */
+        abstract void expand(int item, double limit);
+    }
+
+    /**
+     * Starts a traversal of a ray
+     *
+     * @param r       the ray
+     * @param limit   upper boundary on the distance to the root
+     * @param ordered whether the children of every node are visited front to
+     *                back
+     * @return the traversal, with the root on its stack if the ray enters it
+     */
+    abstract Traversal traverse(Ray r, double limit, boolean ordered);
+
+    /**
+     * @return array whose first six values are the bounds of the root (min x, y,
+     *         z and max x, y, z)
+     */
+    abstract double[] rootBounds();
+
+    /**
+     * Getter for the amount of nodes of the hierarchy
+     *
+     * @return amount of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Getter for the amount of levels of the hierarchy
+     *
+     * @return amount of levels, 0 if it has no nodes
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Geometries can't be added to a compiled hierarchy
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(Intersectable... geometries) {
+        throw new UnsupportedOperationException(
+                "A " + getClass().getSimpleName() + " can't be modified, compile a new one instead");
+    }
+
+    @Override
+    public List<Point3D> findIntersections(Ray r, double limit) {
+        List<GeoPoint> list = findGeoIntersections(r, limit);
+        if (list == null)
+            return null;
+        List<Point3D> points = new ArrayList<>(list.size());
+        for (GeoPoint gp : list)
+            points.add(gp.point);
+        return points;
+    }
+
+    /**
+     * Finds all intersection {@link GeoPoint}s of a {@link Ray} within a given
+     * distance
+     *
+     * @param r     the intersecting {@link Ray}
+     * @param limit upper boundary on distance to intersection points
+     * @return {@link List} of {@link GeoPoint}s or null if there are none
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
+        List<GeoPoint> list = null;
+        for (Intersectable i : unbounded)
+            list = addAll(list, i.findGeoIntersections(r, limit));
+        if (nodeCount == 0)
+            return list;
+
+        Traversal t = traverse(r, limit, false);
+        while (t.next(limit))
+            for (int i = t.first; i < t.first + t.count; ++i)
+                list = addAll(list, primitives[i].findGeoIntersections(r, limit));
+        return list;
+    }
+
+    /**
+     * Finds the closest hit of a {@link Ray}. Nodes are visited front to back and
+     * nodes entered beyond the closest hit found so far are skipped
+     *
+     * @param r   the intersecting {@link Ray}
+     * @param hit closest hit found so far
+     * @return true if a closer hit was recorded
+     */
+    @Override
+    public boolean findClosestHit(Ray r, HitRecord hit) {
+        boolean found = false;
+        for (Intersectable i : unbounded)
+            found |= i.findClosestHit(r, hit);
+        if (nodeCount != 0)
+            found |= findClosest(traverse(r, hit.t, true), r, hit);
+        return found;
+    }
+
+    /**
+     * Runs an ordered traversal to find the closest hit of a {@link Ray}
+     *
+     * @param t   the traversal of the ray
+     * @param r   the intersecting {@link Ray}
+     * @param hit closest hit found so far
+     * @return true if a closer hit was recorded
+     */
+    boolean findClosest(Traversal t, Ray r, HitRecord hit) {
+        boolean found = false;
+        while (t.next(hit.t))
+            found |= triangles.findClosest(t.first, t.count, r, hit);
+        return found;
+    }
+
+    /**
+     * Calculates how much light passes through the geometries along a
+     * {@link Ray}. Traversal stops at the first geometry that blocks the remaining
+     * light
+     *
+     * @param r     the {@link Ray} towards the light
+     * @param limit distance to the light
+     * @param minK  transparency under which the light is considered fully blocked
+     * @return product of the kT of every intersected geometry, or 0 if it's lower
+     *         than minK
+     */
+    @Override
+    public double findTransparency(Ray r, double limit, double minK) {
+        double ktr = 1;
+        for (Intersectable i : unbounded) {
+            ktr *= i.findTransparency(r, limit, minK / ktr);
+            if (ktr < minK)
+                return 0;
+        }
+        if (nodeCount == 0)
+            return ktr;
+
+        Traversal t = traverse(r, limit, false);
+        while (t.next(limit))
+            for (int i = t.first; i < t.first + t.count; ++i) {
+                ktr *= primitives[i].findTransparency(r, limit, minK / ktr);
+                if (ktr < minK)
+                    return 0;
+            }
+        return ktr;
+    }
+
+    /**
+     * Helper function that merges intersections into a lazily created list
+     */
+    static List<GeoPoint> addAll(List<GeoPoint> list, List<GeoPoint> found) {
+        if (found == null || found.isEmpty())
+            return list;
+        if (list == null)
+            list = new ArrayList<>();
+        list.addAll(found);
+        return list;
+    }
+
+    @Override
+    public Point3D getMinPoint() {
+        if (unbounded.length > 0 || nodeCount == 0)
+            throw new IllegalArgumentException(getClass().getSimpleName() + " has no minimum point");
+        double[] root = rootBounds();
+        return new Point3D(root[0], root[1], root[2]);
+    }
+
+    @Override
+    public Point3D getMaxPoint() {
+        if (unbounded.length > 0 || nodeCount == 0)
+            throw new IllegalArgumentException(getClass().getSimpleName() + " has no maximum point");
+        double[] root = rootBounds();
+        return new Point3D(root[3], root[4], root[5]);
+    }
+}
@@ -19,7 +19,22 @@ public class Cylinder extends Tube {
     /**
      * height paramter for the {@link Cylinder}
      */
-    private double height;
+    private final double height;
+
+    /**
+     * Center of the top cap
+     */
+    private final Point3D end;
+
+    /**
+     * Planes of the bottom and top caps
+     */
+    private final Plane bottom, top;
+
+    /**
+     * Bounds of the cylinder
+     */
+    private final Point3D min, max;
 
     /**
      * Uses Tube constructor to initialize inherited radius and dir fields
@@ -30,6 +45,17 @@ public class Cylinder extends Tube {
     public Cylinder(double radius, Ray dir, double height) {
         super(radius, dir);
         this.height = height;
+        Point3D start = dir.getStartPoint();
+        end = dir.getPoint(height);
+        bottom = new Plane(dir.getDir(), start);
+        top = new Plane(dir.getDir(), end);
+        //the caps reach radius * sin(angle between the axis and the coordinate axis) along each coordinate
+        double ox = radius * Math.sqrt(Math.max(0, 1 - ax * ax)), oy = radius * Math.sqrt(Math.max(0, 1 - ay * ay)),
+                oz = radius * Math.sqrt(Math.max(0, 1 - az * az));
+        min = Point3D.min(new Point3D(start.getX() - ox, start.getY() - oy, start.getZ() - oz),
+                new Point3D(end.getX() - ox, end.getY() - oy, end.getZ() - oz));
+        max = Point3D.max(new Point3D(start.getX() + ox, start.getY() + oy, start.getZ() + oz),
+                new Point3D(end.getX() + ox, end.getY() + oy, end.getZ() + oz));
     }
 
     /**
@@ -48,19 +74,38 @@ public class Cylinder extends Tube {
      * @return dir.getDir() the direction vector of the cylinder
      */
     public Vector getNormal(Point3D p0) {
-        if (p0.equals(dir.getStartPoint())) return dir.getDir();
-        double t = alignZero(dir.getDir().dotProduct(p0.subtract(dir.getStartPoint())));
+        double t = alignZero(axisDistance(p0));
         if (t == 0 || alignZero(t - height) >= 0) return dir.getDir();
         return super.getNormal(p0);
     }
 
+    /**
+     * private helper function to calculate the distance along the axis from its start to the projection of a point
+     * @return {@link double}
+     */
+    private double axisDistance(Point3D p) {
+        return ax * (p.getX() - sx) + ay * (p.getY() - sy) + az * (p.getZ() - sz);
+    }
+
     /**
      * private helper function to determine if a {@link Point3D} is inside the cylinder
      * @return {@link boolean}
      */
     private boolean isInside(Point3D p) {
-        //checks that angle between center ray and vector from start to p is acute and that angle between center ray and vector from end to p is obtuse
-        return (dir.getDir().dotProduct(p.subtract(dir.getStartPoint())) > 0 && dir.getDir().dotProduct(p.subtract(dir.getPoint(height))) < 0);
+        //checks that the projection of p on the axis is between the start and the end
+        double t = axisDistance(p);
+        return t > 0 && t < height;
+    }
+
+    /**
+     * private helper function to determine if the intersection of a {@link Ray} with a cap is within the radius
+     * @return {@link Point3D} of the intersection, or null if there is none
+     */
+    private Point3D capIntersection(Ray r, double limit, Plane cap, Point3D center) {
+        double t = cap.intersect(r, limit);
+        if (Double.isNaN(t)) return null;
+        Point3D p = r.getPoint(t);
+        return p.distanceSquared(center) <= radiusSquared ? p : null;
     }
 
     /**
@@ -79,43 +124,21 @@ public class Cylinder extends Tube {
             if (list.size() == 2) return list;
         }
         if (list == null) list = new ArrayList<>();
-        List<Point3D> cap1 = new Plane(dir.getDir(), dir.getStartPoint()).findIntersections(r, limit);
-        List<Point3D> cap2 = new Plane(dir.getDir(), dir.getPoint(height)).findIntersections(r, limit);
-        if (cap1 != null && cap1.get(0).distance(dir.getStartPoint()) <= radius) list.add(new GeoPoint(this, cap1.get(0)));
-        if (cap2 != null && cap2.get(0).distance(dir.getPoint(height)) <= radius) list.add(new GeoPoint(this, cap2.get(0)));
+        Point3D cap1 = capIntersection(r, limit, bottom, dir.getStartPoint());
+        Point3D cap2 = capIntersection(r, limit, top, end);
+        if (cap1 != null) list.add(new GeoPoint(this, cap1));
+        if (cap2 != null) list.add(new GeoPoint(this, cap2));
         return list;
     }
 
     @Override
     public Point3D getMinPoint() {
-
-        Point3D start = dir.getStartPoint();
-        Point3D end = dir.getPoint(height);
-        Point3D normal = dir.getDir().getHead();
-        double ax = Math.acos(normal.getX());
-        double ay = Math.acos(normal.getY());
-        double az = Math.acos(normal.getZ());
-
-        Vector offset = new Vector(Math.sin(ax), Math.sin(ay), Math.sin(az));
-        offset = offset.scale(-radius);
-
-        return Point3D.min(start.add(offset), end.add(offset));
+        return min;
     }
 
     @Override
     public Point3D getMaxPoint() {
-
-        Point3D start = dir.getStartPoint();
-        Point3D end = dir.getPoint(height);
-        Point3D normal = dir.getDir().getHead();
-        double ax = Math.acos(normal.getX());
-        double ay = Math.acos(normal.getY());
-        double az = Math.acos(normal.getZ());
-
-        Vector offset = new Vector(Math.sin(ax), Math.sin(ay), Math.sin(az));
-        offset = offset.scale(radius);
-        
-        return Point3D.max(start.add(offset), end.add(offset));
+        return max;
     }
 
 }
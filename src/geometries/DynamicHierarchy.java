@@ -0,0 +1,358 @@
+package geometries;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import primitives.Point3D;
+
+/**
+ * DynamicHierarchy is a {@link BoundingBox} hierarchy which can be changed
+ * after it was built. Geometries can be inserted and removed one at a time,
+ * and the bounds can be refit after geometries moved. Every change makes the
+ * tree a little worse than a fresh build, so the expected cost of tracing a
+ * ray through the tree is tracked, and {@link #update()} rebuilds the whole
+ * hierarchy once it degrades past a threshold.<br>
+ * Geometries added after construction are kept whole (a {@link Geometries} is
+ * not flattened) so a moving object can be removed or refit as one unit
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class DynamicHierarchy extends Geometries {
+
+    /**
+     * Builder used for the first build and for every rebuild
+     */
+    private final HierarchyBuilder builder;
+
+    /**
+     * Root of the finite geometries, null if there are none
+     */
+    private BoundingBox root;
+
+    /**
+     * Geometries without bounds (planes, tubes) which are checked for every ray
+     */
+    private final List<Intersectable> unbounded = new LinkedList<>();
+
+    /**
+     * The box directly holding every geometry and box of the hierarchy
+     */
+    private final Map<Intersectable, BoundingBox> parents = new IdentityHashMap<>();
+
+    /**
+     * Cost of traversing a box relative to the cost of intersecting a geometry,
+     * the same as the builder's if it's a {@link SAHBuilder}
+     */
+    private final double costRatio;
+
+    /**
+     * How many times worse than the built tree the cost may get before
+     * {@link #update()} rebuilds it
+     */
+    private double rebuildThreshold = 1.5;
+
+    /**
+     * Cost of the hierarchy right after it was last built
+     */
+    private double builtCost;
+
+    /**
+     * Constructor which organizes the geometries with the given
+     * {@link HierarchyBuilder}
+     *
+     * @param geometries geometries to organize
+     * @param builder    {@link HierarchyBuilder} used to organize the finite
+     *                   geometries
+     */
+    public DynamicHierarchy(Geometries geometries, HierarchyBuilder builder) {
+        this.builder = builder;
+        costRatio = builder instanceof SAHBuilder ? ((SAHBuilder) builder).getCostRatio() : 1;
+        Geometries hierarchy = geometries.createHierarchy(builder);
+        if (hierarchy instanceof BoundingBox)
+            root = (BoundingBox) hierarchy;
+        else
+            for (Intersectable i : hierarchy.geometries) {
+                if (i instanceof BoundingBox)
+                    root = (BoundingBox) i;
+                else
+                    unbounded.add(i);
+            }
+        if (root != null && root.geometries.isEmpty())
+            root = null;
+        if (root != null)
+            register(root);
+        builtCost = getCost();
+        updateGeometries();
+    }
+
+    /**
+     * Sets how many times worse than the built tree the cost may get before
+     * {@link #update()} rebuilds it
+     *
+     * @param rebuildThreshold allowed ratio between the current and built cost
+     * @return the hierarchy itself
+     */
+    public DynamicHierarchy setRebuildThreshold(double rebuildThreshold) {
+        if (rebuildThreshold < 1)
+            throw new IllegalArgumentException("Rebuild threshold must be at least 1");
+        this.rebuildThreshold = rebuildThreshold;
+        return this;
+    }
+
+    /**
+     * Inserts geometries into the hierarchy without rebuilding it
+     *
+     * @param geometries to be inserted
+     */
+    @Override
+    public void add(Intersectable... geometries) {
+        for (Intersectable g : geometries)
+            insert(g);
+    }
+
+    /**
+     * Inserts a single geometry by descending into the child box whose surface
+     * area grows the least, and pairing it with the leaf found at the bottom
+     *
+     * @param g geometry to insert
+     */
+    private void insert(Intersectable g) {
+        try {
+            g.getMinPoint();
+        } catch (IllegalArgumentException e) {
+            unbounded.add(g);
+            updateGeometries();
+            return;
+        }
+
+        if (root == null) {
+            root = new BoundingBox(g);
+            parents.put(g, root);
+            builtCost = getCost();
+            updateGeometries();
+            return;
+        }
+
+        BoundingBox node = root;
+        while (true) {
+            BoundingBox best = null;
+            double bestGrowth = Double.POSITIVE_INFINITY;
+            for (Intersectable child : node.geometries) {
+                if (!(child instanceof BoundingBox)) {
+                    best = null;
+                    break;
+                }
+                BoundingBox box = (BoundingBox) child;
+                double growth = unionArea(box, g) - box.area();
+                if (growth < bestGrowth) {
+                    bestGrowth = growth;
+                    best = box;
+                }
+            }
+            if (best == null)
+                break;
+            node = best;
+        }
+
+        // the leaf becomes an inner box holding its old geometries and the new one
+        BoundingBox old = new BoundingBox(node.geometries.toArray(new Intersectable[0]));
+        BoundingBox added = new BoundingBox(g);
+        for (Intersectable i : old.geometries)
+            parents.put(i, old);
+        parents.put(g, added);
+        parents.put(old, node);
+        parents.put(added, node);
+        node.geometries.clear();
+        node.add(old, added);
+        refitAncestors(node);
+    }
+
+    /**
+     * Removes a geometry from the hierarchy without rebuilding it. Boxes left
+     * empty are removed as well
+     *
+     * @param g geometry to remove
+     * @return true if the geometry was in the hierarchy
+     */
+    public boolean remove(Intersectable g) {
+        if (removeIdentical(unbounded, g)) {
+            updateGeometries();
+            return true;
+        }
+        BoundingBox node = parents.remove(g);
+        if (node == null)
+            return false;
+        removeIdentical(node.geometries, g);
+        while (node.geometries.isEmpty() && node != root) {
+            BoundingBox parent = parents.remove(node);
+            removeIdentical(parent.geometries, node);
+            node = parent;
+        }
+        if (root.geometries.isEmpty()) {
+            root = null;
+            updateGeometries();
+        } else
+            refitAncestors(node);
+        return true;
+    }
+
+    /**
+     * Recalculates the bounds of every box from the bottom up. Should be called
+     * after geometries in the hierarchy have moved or changed
+     */
+    public void refit() {
+        if (root != null)
+            root.refit();
+    }
+
+    /**
+     * Refits the hierarchy, and rebuilds it if its cost degraded past the rebuild
+     * threshold
+     *
+     * @return true if the hierarchy was rebuilt
+     */
+    public boolean update() {
+        refit();
+        if (getCost() <= rebuildThreshold * builtCost)
+            return false;
+        rebuild();
+        return true;
+    }
+
+    /**
+     * Organizes all of the finite geometries from scratch with the builder
+     */
+    public void rebuild() {
+        if (root == null)
+            return;
+        List<Intersectable> finite = new LinkedList<>();
+        collect(root, finite);
+        parents.clear();
+        root = builder.build(new BoundingBox(finite.toArray(new Intersectable[0])));
+        register(root);
+        builtCost = getCost();
+        updateGeometries();
+    }
+
+    /**
+     * Calculates the Surface Area Heuristic cost of the hierarchy: the expected
+     * amount of boxes and geometries a random ray that enters the root box is
+     * tested against
+     *
+     * @return cost of the hierarchy, 0 if it's empty
+     */
+    public double getCost() {
+        if (root == null)
+            return 0;
+        double area = root.area();
+        if (area == 0)
+            return count(root);
+        return cost(root) / area;
+    }
+
+    /**
+     * Getter method for the degradation of the hierarchy since it was built
+     *
+     * @return ratio between the current cost and the cost right after building
+     */
+    public double getDegradation() {
+        return builtCost == 0 ? 1 : getCost() / builtCost;
+    }
+
+    /**
+     * Helper function that sums the cost of a box and everything under it, each
+     * weighted by its surface area
+     */
+    private double cost(BoundingBox box) {
+        double cost = 0;
+        int primitives = 0;
+        for (Intersectable i : box.geometries) {
+            if (i instanceof BoundingBox)
+                cost += cost((BoundingBox) i);
+            else
+                ++primitives;
+        }
+        return cost + box.area() * (costRatio + primitives);
+    }
+
+    /**
+     * Helper function that counts the geometries under a box
+     */
+    private static int count(BoundingBox box) {
+        int count = 0;
+        for (Intersectable i : box.geometries)
+            count += i instanceof BoundingBox ? count((BoundingBox) i) : 1;
+        return count;
+    }
+
+    /**
+     * Helper function that gathers the geometries under a box
+     */
+    private static void collect(BoundingBox box, List<Intersectable> list) {
+        for (Intersectable i : box.geometries) {
+            if (i instanceof BoundingBox)
+                collect((BoundingBox) i, list);
+            else
+                list.add(i);
+        }
+    }
+
+    /**
+     * Helper function that stores the parent of everything under a box
+     */
+    private void register(BoundingBox box) {
+        for (Intersectable i : box.geometries) {
+            parents.put(i, box);
+            if (i instanceof BoundingBox)
+                register((BoundingBox) i);
+        }
+    }
+
+    /**
+     * Helper function that updates the bounds of a box and all the boxes above it
+     */
+    private void refitAncestors(BoundingBox box) {
+        for (; box != null; box = parents.get(box))
+            box.updateBounds();
+    }
+
+    /**
+     * Helper function that keeps the list of geometries (the root and the
+     * unbounded geometries) in sync
+     */
+    private void updateGeometries() {
+        geometries = new LinkedList<>();
+        if (root != null)
+            geometries.add(root);
+        geometries.addAll(unbounded);
+    }
+
+    /**
+     * Helper function that removes an object from a list by identity
+     */
+    private static boolean removeIdentical(List<Intersectable> list, Intersectable g) {
+        for (Iterator<Intersectable> it = list.iterator(); it.hasNext();)
+            if (it.next() == g) {
+                it.remove();
+                return true;
+            }
+        return false;
+    }
+
+    /**
+     * Helper function that calculates the surface area of a box grown to contain a
+     * geometry
+     */
+    private static double unionArea(BoundingBox box, Intersectable g) {
+        Point3D min = Point3D.min(box.getMinPoint(), g.getMinPoint());
+        Point3D max = Point3D.max(box.getMaxPoint(), g.getMaxPoint());
+        double dx = max.getX() - min.getX();
+        double dy = max.getY() - min.getY();
+        double dz = max.getZ() - min.getZ();
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
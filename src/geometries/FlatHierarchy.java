@@ -0,0 +1,452 @@
+package geometries;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import primitives.Point3D;
+import primitives.Ray;
+
+/**
+ * FlatHierarchy is a compiled form of a {@link BoundingBox} hierarchy. The
+ * boxes are stored depth first in primitive arrays and traversed with an
+ * explicit stack instead of recursive calls, which avoids chasing pointers
+ * through {@link BoundingBox}s and merging lists on every level
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class FlatHierarchy extends CompiledHierarchy {
+
+    /**
+     * min x, y, z and max x, y, z of every node
+     */
+    double[] bounds;
+
+    /**
+     * Two values per node. For a leaf: index of its first geometry in
+     * {@link #primitives} and the amount of geometries. For an inner node: index
+     * of its second child (the first child directly follows it) and 0
+     */
+    int[] nodes;
+
+    /**
+     * Constructor which organizes the geometries with the given
+     * {@link HierarchyBuilder} and compiles the result
+     *
+     * @param geometries geometries to compile
+     * @param builder    {@link HierarchyBuilder} used to organize the finite
+     *                   geometries
+     */
+    public FlatHierarchy(Geometries geometries, HierarchyBuilder builder) {
+        Geometries hierarchy = geometries.createHierarchy(builder);
+        List<Intersectable> unbounded = new ArrayList<>();
+        BoundingBox root = null;
+        if (hierarchy instanceof BoundingBox)
+            root = (BoundingBox) hierarchy;
+        else
+            for (Intersectable i : hierarchy.geometries) {
+                if (i instanceof BoundingBox)
+                    root = (BoundingBox) i;
+                else
+                    unbounded.add(i);
+            }
+
+        int count = root == null ? 0 : countPrimitives(root);
+        this.geometries = new ArrayList<>(count + unbounded.size());
+        this.unbounded = unbounded.toArray(new Intersectable[0]);
+        primitives = new Intersectable[count];
+        // a binary tree with n leaves has 2n - 1 nodes, and every leaf holds a geometry
+        bounds = new double[6 * Math.max(2 * count - 1, 0)];
+        nodes = new int[2 * Math.max(2 * count - 1, 0)];
+        if (count > 0)
+            compile(root.geometries, 0, 1);
+        this.geometries.addAll(unbounded);
+        triangles = new TriangleBatch(primitives);
+    }
+
+    /**
+     * Constructor for a hierarchy which was already compiled (e.g. read from a
+     * file)
+     *
+     * @param bounds     bounds of every node
+     * @param nodes      the two values of every node
+     * @param depth      amount of levels in the hierarchy
+     * @param primitives finite geometries ordered by the leaves holding them
+     * @param unbounded  geometries without bounds
+     */
+    private FlatHierarchy(double[] bounds, int[] nodes, int depth, Intersectable[] primitives,
+            Intersectable[] unbounded) {
+        this.bounds = bounds;
+        this.nodes = nodes;
+        this.nodeCount = nodes.length / 2;
+        this.depth = depth;
+        this.primitives = primitives;
+        this.unbounded = unbounded;
+        this.geometries = new ArrayList<>(primitives.length + unbounded.length);
+        this.geometries.addAll(Arrays.asList(primitives));
+        this.geometries.addAll(Arrays.asList(unbounded));
+        triangles = new TriangleBatch(primitives);
+    }
+
+    /**
+     * Getter for the minimum point of the box of a node
+     *
+     * @param node index of the node, in depth first order
+     * @return the minimum point
+     * @throws IllegalArgumentException if the hierarchy has no such node
+     */
+    public Point3D getMinPoint(int node) {
+        if (node < 0 || node >= nodeCount)
+            throw new IllegalArgumentException("FlatHierarchy has no node " + node);
+        return new Point3D(bounds[6 * node], bounds[6 * node + 1], bounds[6 * node + 2]);
+    }
+
+    /**
+     * Getter for the maximum point of the box of a node
+     *
+     * @param node index of the node, in depth first order
+     * @return the maximum point
+     * @throws IllegalArgumentException if the hierarchy has no such node
+     */
+    public Point3D getMaxPoint(int node) {
+        if (node < 0 || node >= nodeCount)
+            throw new IllegalArgumentException("FlatHierarchy has no node " + node);
+        return new Point3D(bounds[6 * node + 3], bounds[6 * node + 4], bounds[6 * node + 5]);
+    }
+
+    /**
+     * Calculates the amount of bytes {@link #write(ByteBuffer, Map)} takes
+     *
+     * @return size in bytes
+     */
+    int byteSize() {
+        return 2 * Integer.BYTES + nodeCount * (6 * Double.BYTES + 2 * Integer.BYTES)
+                + primitives.length * Integer.BYTES;
+    }
+
+    /**
+     * Writes the compiled hierarchy: the amount of nodes and the depth, the
+     * bounds and values of every node, and the order of the primitives given as
+     * indices into the list they were compiled from
+     *
+     * @param buffer  buffer to write to
+     * @param indices index of every primitive in the list it was compiled from
+     */
+    void write(ByteBuffer buffer, Map<Intersectable, Integer> indices) {
+        buffer.putInt(nodeCount).putInt(depth);
+        buffer.asDoubleBuffer().put(bounds, 0, 6 * nodeCount);
+        buffer.position(buffer.position() + 6 * nodeCount * Double.BYTES);
+        buffer.asIntBuffer().put(nodes, 0, 2 * nodeCount);
+        buffer.position(buffer.position() + 2 * nodeCount * Integer.BYTES);
+        for (Intersectable i : primitives)
+            buffer.putInt(indices.get(i));
+    }
+
+    /**
+     * Reads a hierarchy written by {@link #write(ByteBuffer, Map)}
+     *
+     * @param buffer    buffer to read from
+     * @param finite    the finite geometries the hierarchy was compiled from, in
+     *                  the same order
+     * @param unbounded geometries without bounds
+     * @return the compiled hierarchy
+     * @throws IllegalArgumentException if the data doesn't match the geometries
+     */
+    static FlatHierarchy read(ByteBuffer buffer, Intersectable[] finite, Intersectable[] unbounded) {
+        int nodeCount = buffer.getInt();
+        int depth = buffer.getInt();
+        if (nodeCount < 0 || nodeCount > Math.max(2 * finite.length - 1, 0) || depth < 0 || depth > nodeCount)
+            throw new IllegalArgumentException("Hierarchy data doesn't match the geometries");
+        double[] bounds = new double[6 * nodeCount];
+        buffer.asDoubleBuffer().get(bounds);
+        buffer.position(buffer.position() + bounds.length * Double.BYTES);
+        int[] nodes = new int[2 * nodeCount];
+        buffer.asIntBuffer().get(nodes);
+        buffer.position(buffer.position() + nodes.length * Integer.BYTES);
+        Intersectable[] primitives = new Intersectable[nodeCount == 0 ? 0 : finite.length];
+        // the children of a node come after it, so the levels are found in order of the nodes
+        int[] levels = new int[nodeCount];
+        int maxLevel = 0;
+        for (int node = 0; node < nodeCount; ++node) {
+            int first = nodes[2 * node], count = nodes[2 * node + 1];
+            if (count == 0 ? first <= node + 1 || first >= nodeCount
+                    : count < 0 || first < 0 || first + count > primitives.length)
+                throw new IllegalArgumentException("Hierarchy data doesn't match the geometries");
+            maxLevel = Math.max(maxLevel, levels[node]);
+            if (count == 0)
+                levels[node + 1] = levels[first] = levels[node] + 1;
+        }
+        // the traversals keep up to depth + 1 nodes on their stacks
+        if (depth < maxLevel)
+            throw new IllegalArgumentException("Hierarchy depth doesn't match the nodes");
+        for (int i = 0; i < primitives.length; ++i) {
+            int index = buffer.getInt();
+            if (index < 0 || index >= finite.length)
+                throw new IllegalArgumentException("Hierarchy data doesn't match the geometries");
+            primitives[i] = finite[index];
+        }
+        return new FlatHierarchy(bounds, nodes, depth, primitives, unbounded);
+    }
+
+    /**
+     * Helper function that counts the geometries in the leaves of a hierarchy
+     */
+    private static int countPrimitives(BoundingBox box) {
+        int count = 0;
+        for (Intersectable i : box.geometries)
+            count += i instanceof BoundingBox ? countPrimitives((BoundingBox) i) : 1;
+        return count;
+    }
+
+    /**
+     * Recursively writes a group of geometries into the node arrays
+     *
+     * @param children geometries of the group
+     * @param from     index of the first geometry of the group in children
+     * @param level    depth of the node being written
+     * @return index of the node written for the group
+     */
+    private int compile(List<Intersectable> children, int from, int level) {
+        depth = Math.max(depth, level);
+        List<Intersectable> group = children.subList(from, children.size());
+        if (group.size() == 1 && group.get(0) instanceof BoundingBox)
+            return compile(((BoundingBox) group.get(0)).geometries, 0, level);
+
+        int node = nodeCount++;
+        boolean leaf = true;
+        for (Intersectable i : group)
+            leaf &= !(i instanceof BoundingBox);
+
+        if (leaf) {
+            int first = geometries.size();
+            nodes[2 * node] = first;
+            nodes[2 * node + 1] = group.size();
+            resetBounds(node);
+            for (Intersectable i : group) {
+                primitives[geometries.size()] = i;
+                geometries.add(i);
+                Point3D min = i.getMinPoint();
+                Point3D max = i.getMaxPoint();
+                for (int axis = 0; axis < 3; ++axis) {
+                    bounds[6 * node + axis] = Math.min(bounds[6 * node + axis], min.getCoord(axis));
+                    bounds[6 * node + axis + 3] = Math.max(bounds[6 * node + axis + 3], max.getCoord(axis));
+                }
+            }
+            return node;
+        }
+
+        // mixed or multiple children are written as a chain of binary nodes
+        Intersectable first = group.get(0);
+        int left = first instanceof BoundingBox ? compile(((BoundingBox) first).geometries, 0, level + 1)
+                : compile(List.of(first), 0, level + 1);
+        int right = compile(children, from + 1, level + 1);
+        nodes[2 * node] = right;
+        nodes[2 * node + 1] = 0;
+        resetBounds(node);
+        for (int child : new int[] { left, right })
+            for (int axis = 0; axis < 3; ++axis) {
+                bounds[6 * node + axis] = Math.min(bounds[6 * node + axis], bounds[6 * child + axis]);
+                bounds[6 * node + axis + 3] = Math.max(bounds[6 * node + axis + 3], bounds[6 * child + axis + 3]);
+            }
+        return node;
+    }
+
+    private void resetBounds(int node) {
+        for (int axis = 0; axis < 3; ++axis) {
+            bounds[6 * node + axis] = Double.POSITIVE_INFINITY;
+            bounds[6 * node + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Finds the closest intersections of a packet of coherent rays (e.g. the
+     * primary rays of neighbouring pixels). The rays go down the hierarchy
+     * together, with a mask of the rays that are still active in each node, so
+     * every node is fetched and ordered once for the whole packet. Once a single
+     * ray is left in a node it continues on its own
+     *
+     * @param rays the intersecting {@link Ray}s
+     * @return closest {@link GeoPoint} of every ray, null for rays that don't
+     *         intersect anything
+     */
+    @Override
+    public GeoPoint[] findClosestGeoIntersections(Ray[] rays) {
+        HitRecord[] hits = new HitRecord[rays.length];
+        for (int from = 0; from < rays.length; from += Long.SIZE)
+            findClosest(rays, from, Math.min(rays.length, from + Long.SIZE), hits);
+        GeoPoint[] closest = new GeoPoint[rays.length];
+        for (int k = 0; k < rays.length; ++k)
+            closest[k] = hits[k].toGeoPoint(rays[k]);
+        return closest;
+    }
+
+    /**
+     * Traverses the hierarchy with a packet of at most 64 rays
+     *
+     * @param rays    the intersecting {@link Ray}s
+     * @param from    index of the first ray of the packet (inclusive)
+     * @param to      index of the last ray of the packet (exclusive)
+     * @param hits    array to store the closest hit of every ray in
+     */
+    private void findClosest(Ray[] rays, int from, int to, HitRecord[] hits) {
+        int n = to - from;
+        double[] origins = new double[3 * n];
+        double[] inverses = new double[3 * n];
+        for (int k = 0; k < n; ++k) {
+            Ray r = rays[from + k];
+            Point3D start = r.getStartPoint();
+            HitRecord hit = hits[from + k] = new HitRecord();
+            for (Intersectable i : unbounded)
+                i.findClosestHit(r, hit);
+            Point3D dir = r.getDir().getHead();
+            for (int axis = 0; axis < 3; ++axis) {
+                origins[3 * k + axis] = start.getCoord(axis);
+                inverses[3 * k + axis] = 1 / dir.getCoord(axis);
+            }
+        }
+        if (nodeCount == 0)
+            return;
+
+        int[] stack = new int[depth + 1];
+        long[] masks = new long[depth + 1];
+        int top = 0;
+        stack[top] = 0;
+        masks[top++] = n == Long.SIZE ? -1L : (1L << n) - 1;
+        while (top > 0) {
+            int node = stack[--top];
+            long mask = 0;
+            // keep the rays that enter the node before their closest hit so far
+            for (long m = masks[top]; m != 0; m &= m - 1) {
+                int k = Long.numberOfTrailingZeros(m);
+                if (BoundingBox.entry(bounds, 6 * node, origins[3 * k], origins[3 * k + 1], origins[3 * k + 2],
+                        inverses[3 * k], inverses[3 * k + 1], inverses[3 * k + 2], hits[from + k].t) < Double.POSITIVE_INFINITY)
+                    mask |= 1L << k;
+            }
+            if (mask == 0)
+                continue;
+
+            if (Long.bitCount(mask) == 1) {
+                // the packet diverged, the last ray continues alone
+                int k = Long.numberOfTrailingZeros(mask);
+                findClosest(new NodeTraversal(rays[from + k], node, hits[from + k].t, true), rays[from + k],
+                        hits[from + k]);
+                continue;
+            }
+
+            int count = nodes[2 * node + 1];
+            if (count == 0) {
+                // order the children by the direction of the first active ray
+                int near = node + 1;
+                int far = nodes[2 * node];
+                int k = Long.numberOfTrailingZeros(mask);
+                double dNear = 0, dFar = 0;
+                for (int axis = 0; axis < 3; ++axis) {
+                    double o = origins[3 * k + axis];
+                    double dir = 1 / inverses[3 * k + axis];
+                    dNear += (bounds[6 * near + axis] + bounds[6 * near + axis + 3] - 2 * o) * dir;
+                    dFar += (bounds[6 * far + axis] + bounds[6 * far + axis + 3] - 2 * o) * dir;
+                }
+                if (dFar < dNear) {
+                    int temp = near;
+                    near = far;
+                    far = temp;
+                }
+                stack[top] = far;
+                masks[top++] = mask;
+                stack[top] = near;
+                masks[top++] = mask;
+            } else {
+                int first = nodes[2 * node];
+                for (long m = mask; m != 0; m &= m - 1) {
+                    int k = Long.numberOfTrailingZeros(m);
+                    triangles.findClosest(first, count, rays[from + k], hits[from + k]);
+                }
+            }
+        }
+    }
+
+    @Override
+    Traversal traverse(Ray r, double limit, boolean ordered) {
+        return new NodeTraversal(r, 0, limit, ordered);
+    }
+
+    @Override
+    double[] rootBounds() {
+        return bounds;
+    }
+
+    /**
+     * Traversal which tests the full precision boxes of the nodes
+     */
+    private class NodeTraversal extends Traversal {
+        private final double ox, oy, oz, ix, iy, iz;
+        private final boolean ordered;
+
+        /**
+         * Constructor which starts a traversal from a node
+         *
+         * @param r       the ray
+         * @param root    node to start from
+         * @param limit   upper boundary on the distance to the node
+         * @param ordered whether the children are visited front to back
+         */
+        NodeTraversal(Ray r, int root, double limit, boolean ordered) {
+            super(depth + 1);
+            Point3D start = r.getStartPoint();
+            Point3D dir = r.getDir().getHead();
+            ox = start.getX();
+            oy = start.getY();
+            oz = start.getZ();
+            ix = 1 / dir.getX();
+            iy = 1 / dir.getY();
+            iz = 1 / dir.getZ();
+            this.ordered = ordered;
+            double d = entry(root, limit);
+            if (d < Double.POSITIVE_INFINITY)
+                push(root, d);
+        }
+
+        @Override
+        boolean leaf(int node) {
+            count = nodes[2 * node + 1];
+            first = nodes[2 * node];
+            return count != 0;
+        }
+
+        @Override
+        void expand(int node, double limit) {
+            int near = node + 1;
+            int far = nodes[2 * node];
+            double dNear = entry(near, limit);
+            double dFar = entry(far, limit);
+            if (ordered && dFar < dNear) {
+                int temp = near;
+                near = far;
+                far = temp;
+                double tempD = dNear;
+                dNear = dFar;
+                dFar = tempD;
+            }
+            // push the far child first so the near one is visited first
+            if (dFar < Double.POSITIVE_INFINITY)
+                push(far, dFar);
+            if (dNear < Double.POSITIVE_INFINITY)
+                push(near, dNear);
+        }
+
+        /**
+         * Slab test of the ray against the box of a node
+         *
+         * @param node  index of the node
+         * @param limit upper boundary on distance
+         * @return distance to the box, or infinity if the ray doesn't enter it
+         *         within the limit
+         */
+        private double entry(int node, double limit) {
+            return BoundingBox.entry(bounds, 6 * node, ox, oy, oz, ix, iy, iz, limit);
+        }
+    }
+}
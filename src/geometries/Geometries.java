@@ -74,6 +74,52 @@ public class Geometries implements Intersectable {
         return list;
     }
 
+    /**
+     * Finds the closest intersection {@link GeoPoint} of a {@link Ray} and the list of {@link Geometries}.
+     * The search is done with a {@link HitRecord}, so only the closest hit becomes a {@link GeoPoint}
+     * @param r the intersecting {@link Ray}
+     * @param limit
+     * @return closest {@link GeoPoint} or null if there is none
+     */
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray r, double limit) {
+        HitRecord hit = new HitRecord(limit);
+        return findClosestHit(r, hit) ? hit.toGeoPoint(r) : null;
+    }
+
+    /**
+     * Finds the closest hit of a {@link Ray} and the list of {@link Geometries}.
+     * Every hit shrinks the distance searched in the remaining Geometry's
+     * @param r the intersecting {@link Ray}
+     * @param hit closest hit found so far
+     * @return true if a closer hit was recorded
+     */
+    @Override
+    public boolean findClosestHit(Ray r, HitRecord hit) {
+        boolean found = false;
+        for (Intersectable geom : geometries)
+            found |= geom.findClosestHit(r, hit);
+        return found;
+    }
+
+    /**
+     * Calculates how much light passes through the list of {@link Geometries} along a {@link Ray}.
+     * Stops at the first Geometry that blocks the remaining light
+     * @param r the {@link Ray} towards the light
+     * @param limit distance to the light
+     * @param minK transparency under which the light is considered fully blocked
+     * @return product of the kT of every intersected Geometry, or 0 if it's lower than minK
+     */
+    @Override
+    public double findTransparency(Ray r, double limit, double minK) {
+        double ktr = 1;
+        for (Intersectable geom : geometries) {
+            ktr *= geom.findTransparency(r, limit, minK / ktr);
+            if (ktr < minK) return 0;
+        }
+        return ktr;
+    }
+
     @Override
     public Point3D getMinPoint() {
         List<Point3D> points = new LinkedList<>();
@@ -124,7 +170,21 @@ public class Geometries implements Intersectable {
         return g;
     }*/
 
+    /**
+     * Method that returns a Geometries object with all finite Geometry's organized in {@link BoundingBox}s
+     * by splitting every box at its middle
+     * @return
+     */
     public Geometries createHierarchy() {
+        return createHierarchy(HierarchyBuilder.MIDPOINT);
+    }
+
+    /**
+     * Method that returns a Geometries object with all finite Geometry's organized in {@link BoundingBox}s
+     * @param builder {@link HierarchyBuilder} used to organize the finite Geometry's
+     * @return
+     */
+    public Geometries createHierarchy(HierarchyBuilder builder) {
         Geometries g = new Geometries();
         BoundingBox f = new BoundingBox();
 
@@ -138,17 +198,92 @@ public class Geometries implements Intersectable {
             }
         }
 
-        if (!f.geometries.isEmpty()) f = f.createHierarchy();
+        if (!f.geometries.isEmpty()) f = builder.build(f);
         if (g.geometries.isEmpty()) return f;
         if (!f.geometries.isEmpty()) g.add(f);
         return g;
     }
 
+    /**
+     * Method that organizes the Geometry's with a {@link SAHBuilder} and compiles the result into a
+     * {@link FlatHierarchy}
+     * @return
+     */
+    public FlatHierarchy createFlatHierarchy() {
+        return createFlatHierarchy(new SAHBuilder());
+    }
+
+    /**
+     * Method that organizes the Geometry's with the given builder and compiles the result into a
+     * {@link FlatHierarchy}
+     * @param builder {@link HierarchyBuilder} used to organize the finite Geometry's
+     * @return
+     */
+    public FlatHierarchy createFlatHierarchy(HierarchyBuilder builder) {
+        return new FlatHierarchy(this, builder);
+    }
+
+    /**
+     * Method that organizes the Geometry's with a {@link SAHBuilder} and compiles the result into a
+     * compressed {@link QuantizedHierarchy}
+     * @return
+     */
+    public QuantizedHierarchy createQuantizedHierarchy() {
+        return createQuantizedHierarchy(new SAHBuilder());
+    }
+
+    /**
+     * Method that organizes the Geometry's with the given builder and compiles the result into a
+     * compressed {@link QuantizedHierarchy}
+     * @param builder {@link HierarchyBuilder} used to organize the finite Geometry's
+     * @return
+     */
+    public QuantizedHierarchy createQuantizedHierarchy(HierarchyBuilder builder) {
+        return new QuantizedHierarchy(this, builder);
+    }
+
+    /**
+     * Method that organizes the Geometry's with a {@link SAHBuilder} and compiles the result into a
+     * 4-wide {@link WideHierarchy}
+     * @return
+     */
+    public WideHierarchy createWideHierarchy() {
+        return createWideHierarchy(new SAHBuilder());
+    }
+
+    /**
+     * Method that organizes the Geometry's with the given builder and compiles the result into a
+     * 4-wide {@link WideHierarchy}
+     * @param builder {@link HierarchyBuilder} used to organize the finite Geometry's
+     * @return
+     */
+    public WideHierarchy createWideHierarchy(HierarchyBuilder builder) {
+        return new WideHierarchy(this, builder);
+    }
+
+    /**
+     * Method that organizes the Geometry's with a {@link SAHBuilder} into a {@link DynamicHierarchy},
+     * which can be refit and changed without rebuilding
+     * @return
+     */
+    public DynamicHierarchy createDynamicHierarchy() {
+        return createDynamicHierarchy(new SAHBuilder());
+    }
+
+    /**
+     * Method that organizes the Geometry's with the given builder into a {@link DynamicHierarchy}
+     * @param builder {@link HierarchyBuilder} used to organize the finite Geometry's when (re)building
+     * @return
+     */
+    public DynamicHierarchy createDynamicHierarchy(HierarchyBuilder builder) {
+        return new DynamicHierarchy(this, builder);
+    }
+
     /**
      * Helper function that creates a new Geometries instance without any sub-Geometries (flattens the list)
      * @return
      */
-    private Geometries flatten() {
+    Geometries flatten() {
         Geometries g = new Geometries();
         for (Intersectable i : geometries) {
             if (i instanceof Geometries) {
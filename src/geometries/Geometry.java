@@ -13,7 +13,23 @@ import primitives.Vector;
 public abstract class Geometry implements Intersectable {
 
     protected Color emission = Color.BLACK;
-    private Material material = new Material();
+    private Material material;
+
+    /**
+     * Default constructor, the geometry starts with black emission and a new default {@link Material}
+     */
+    protected Geometry() {
+        material = new Material();
+    }
+
+    /**
+     * Constructor for geometries which share their {@link Material} (or take it from elsewhere), so small
+     * geometries like the triangles of a {@link TriangleMesh} don't each hold a {@link Material} of their own
+     * @param material the material, may be null if {@link #getMaterial()} is overridden
+     */
+    Geometry(Material material) {
+        this.material = material;
+    }
 
     /**
      * Getter method for {@link Geometry}'s {@link Color}
@@ -0,0 +1,38 @@
+package geometries;
+
+/**
+ * Strategy interface for organizing the finite {@link Intersectable}s of a
+ * scene into a {@link BoundingBox} hierarchy
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+@FunctionalInterface
+public interface HierarchyBuilder {
+
+    /**
+     * The original builder which splits every box at the spatial middle of its
+     * longest axis
+     */
+    public static final HierarchyBuilder MIDPOINT = BoundingBox::createHierarchy;
+
+    /**
+     * Builds a hierarchy out of the geometries held by a flat {@link BoundingBox}
+     *
+     * @param box {@link BoundingBox} holding all of the finite geometries
+     * @return root {@link BoundingBox} of the hierarchy
+     */
+    BoundingBox build(BoundingBox box);
+
+    /**
+     * Describes the builder and its configuration, so hierarchies built by
+     * different builders (or differently configured ones) are told apart, e.g.
+     * by the {@link HierarchyCache}
+     *
+     * @return key of the builder, the same for builders which build the same
+     *         hierarchies
+     */
+    default String key() {
+        return getClass().getName();
+    }
+}
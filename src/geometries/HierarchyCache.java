@@ -0,0 +1,189 @@
+package geometries;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import primitives.Point3D;
+
+/**
+ * HierarchyCache stores compiled {@link FlatHierarchy}s in a directory, so a
+ * scene which is loaded again doesn't have to be organized from scratch. A
+ * hierarchy only depends on the bounds of the geometries, so every file is
+ * named after a hash of the bounds of all the geometries (in the order they
+ * appear in the scene) and of the {@link HierarchyBuilder#key() key} of the
+ * builder that organized them, which includes its configuration.
+ * Files are read through a memory mapped {@link FileChannel}
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class HierarchyCache {
+
+    /**
+     * "BVH1", the first bytes of every cache file
+     */
+    private static final int MAGIC = 0x42564831;
+
+    private static final String EXTENSION = ".bvh";
+
+    private final Path directory;
+
+    private Logger logger = Logger.getLogger("HierarchyCache");
+
+    /**
+     * Constructor for HierarchyCache
+     *
+     * @param directory path of the directory to store the hierarchies in, created
+     *                  when the first hierarchy is stored
+     */
+    public HierarchyCache(String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Loads the hierarchy of the geometries from the cache, or compiles it with
+     * the builder and stores it if it isn't cached yet (or the cached file can't
+     * be read)
+     *
+     * @param geometries geometries to organize
+     * @param builder    {@link HierarchyBuilder} used to organize the finite
+     *                   geometries
+     * @return the compiled hierarchy
+     */
+    public FlatHierarchy getFlatHierarchy(Geometries geometries, HierarchyBuilder builder) {
+        List<Intersectable> finite = new ArrayList<>();
+        List<Intersectable> unbounded = new ArrayList<>();
+        separate(geometries, finite, unbounded);
+        Intersectable[] finiteArray = finite.toArray(new Intersectable[0]);
+        Intersectable[] unboundedArray = unbounded.toArray(new Intersectable[0]);
+
+        Path file = getFile(finiteArray, unboundedArray.length, builder);
+        if (Files.isRegularFile(file)) {
+            try {
+                return load(file, finiteArray, unboundedArray);
+            } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+                logger.log(Level.WARNING, "Can't read cached hierarchy " + file + ", rebuilding it", e);
+            }
+        }
+
+        FlatHierarchy hierarchy = new FlatHierarchy(geometries, builder);
+        try {
+            store(file, hierarchy, finiteArray, unboundedArray.length);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Checks if the hierarchy of the geometries is already stored in the cache
+     *
+     * @param geometries geometries to organize
+     * @param builder    {@link HierarchyBuilder} used to organize the finite
+     *                   geometries
+     * @return true if there is a cached file for the geometries
+     */
+    public boolean contains(Geometries geometries, HierarchyBuilder builder) {
+        List<Intersectable> finite = new ArrayList<>();
+        List<Intersectable> unbounded = new ArrayList<>();
+        separate(geometries, finite, unbounded);
+        return Files.isRegularFile(getFile(finite.toArray(new Intersectable[0]), unbounded.size(), builder));
+    }
+
+    /**
+     * Helper function that flattens geometries and separates the finite ones from
+     * the unbounded ones, keeping their order
+     */
+    private static void separate(Geometries geometries, List<Intersectable> finite, List<Intersectable> unbounded) {
+        for (Intersectable i : geometries.flatten().geometries) {
+            try {
+                i.getMinPoint();
+                finite.add(i);
+            } catch (IllegalArgumentException e) {
+                unbounded.add(i);
+            }
+        }
+    }
+
+    private FlatHierarchy load(Path file, Intersectable[] finite, Intersectable[] unbounded) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != finite.length || buffer.getInt() != unbounded.length)
+                throw new IllegalArgumentException("Cached hierarchy doesn't match the geometries");
+            return FlatHierarchy.read(buffer, finite, unbounded);
+        }
+    }
+
+    private void store(Path file, FlatHierarchy hierarchy, Intersectable[] finite, int unbounded)
+            throws IOException {
+        Map<Intersectable, Integer> indices = new IdentityHashMap<>();
+        for (int i = 0; i < finite.length; ++i)
+            indices.put(finite[i], i);
+        ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES + hierarchy.byteSize());
+        buffer.putInt(MAGIC).putInt(finite.length).putInt(unbounded);
+        hierarchy.write(buffer, indices);
+        buffer.flip();
+
+        // write to a temporary file first so a half written file is never read
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "hierarchy", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Helper function that finds the file of a group of geometries by hashing
+     * their bounds and the key of the builder
+     *
+     * @param finite    the finite geometries
+     * @param unbounded amount of geometries without bounds
+     * @param builder   {@link HierarchyBuilder} used to organize the geometries
+     * @return path of the file
+     */
+    private Path getFile(Intersectable[] finite, int unbounded, HierarchyBuilder builder) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 isn't available", e); // every JVM has to support it
+        }
+        // lambda class names change between runs, so the predefined builder is named explicitly
+        String name = builder == HierarchyBuilder.MIDPOINT ? "MIDPOINT" : builder.key();
+        digest.update(name.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.allocate(6 * Double.BYTES);
+        buffer.putInt(finite.length).putInt(unbounded).flip();
+        digest.update(buffer);
+        for (Intersectable i : finite) {
+            buffer.clear();
+            Point3D min = i.getMinPoint();
+            Point3D max = i.getMaxPoint();
+            buffer.putDouble(min.getX()).putDouble(min.getY()).putDouble(min.getZ());
+            buffer.putDouble(max.getX()).putDouble(max.getY()).putDouble(max.getZ()).flip();
+            digest.update(buffer);
+        }
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest())
+            hash.append(String.format("%02x", b));
+        return directory.resolve(hash + EXTENSION);
+    }
+}
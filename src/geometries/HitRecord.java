@@ -0,0 +1,143 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * HitRecord holds the closest hit of a {@link Ray} found so far: its distance
+ * along the ray, which also bounds the rest of the search, and the
+ * {@link Geometry} that was hit. The geometry kernels only write these few
+ * fields, so hits that are replaced by closer ones cost no objects, and the hit
+ * point and normal are calculated once the search is done, for the final hit
+ * alone.<br>
+ * A record is reset and reused for every ray, e.g. one per rendering thread
+ *
+ * @see Intersectable#findClosestHit(Ray, HitRecord)
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public final class HitRecord {
+
+    /**
+     * Distance along the ray of the closest hit, or the limit of the search if
+     * nothing was hit yet
+     */
+    public double t;
+
+    /**
+     * The geometry that was hit, or null
+     */
+    public Geometry geometry;
+
+    /**
+     * Index of the hit primitive in the arrays of the hierarchy (or mesh) that
+     * found it, or -1 if it's unknown
+     */
+    public int index;
+
+    /**
+     * Barycentric coordinates of the hit on a triangle, relative to its second and
+     * third vertices, if the kernel that found it calculated them (NaN otherwise)
+     */
+    public double u, v;
+
+    /**
+     * The hit point, calculated on demand
+     */
+    private Point3D point;
+
+    /**
+     * Default constructor for a record without a limit
+     */
+    public HitRecord() {
+        reset(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Constructor for a record which searches up to a given distance
+     *
+     * @param limit upper boundary on distance to the hit
+     */
+    public HitRecord(double limit) {
+        reset(limit);
+    }
+
+    /**
+     * Clears the record for a new search
+     *
+     * @param limit upper boundary on distance to the hit
+     * @return this HitRecord
+     */
+    public HitRecord reset(double limit) {
+        t = limit;
+        geometry = null;
+        index = -1;
+        u = v = Double.NaN;
+        point = null;
+        return this;
+    }
+
+    /**
+     * Records a closer hit
+     *
+     * @param t        distance along the ray
+     * @param geometry the geometry that was hit
+     * @param index    index of the hit primitive, or -1
+     */
+    public void set(double t, Geometry geometry, int index) {
+        this.t = t;
+        this.geometry = geometry;
+        this.index = index;
+        u = v = Double.NaN;
+        point = null;
+    }
+
+    /**
+     * Records a closer hit which was already found as a {@link GeoPoint}, keeping
+     * its point
+     *
+     * @param t  distance along the ray
+     * @param gp the hit
+     */
+    void set(double t, GeoPoint gp) {
+        set(t, gp.geometry, -1);
+        point = gp.point;
+    }
+
+    /**
+     * @return whether anything was hit
+     */
+    public boolean found() {
+        return geometry != null;
+    }
+
+    /**
+     * Calculates the hit point (once)
+     *
+     * @param r the ray that was traced
+     * @return the hit point
+     */
+    public Point3D getPoint(Ray r) {
+        if (point == null)
+            point = r.getPoint(t);
+        return point;
+    }
+
+    /**
+     * @param r the ray that was traced
+     * @return normal of the geometry at the hit point
+     */
+    public Vector getNormal(Ray r) {
+        return geometry.getNormal(getPoint(r));
+    }
+
+    /**
+     * @param r the ray that was traced
+     * @return the hit as a {@link GeoPoint}, or null if nothing was hit
+     */
+    public GeoPoint toGeoPoint(Ray r) {
+        return geometry == null ? null : new GeoPoint(geometry, getPoint(r));
+    }
+}
@@ -0,0 +1,259 @@
+package geometries;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+/**
+ * Instance places a shared object (usually a pre-built {@link FlatHierarchy})
+ * in the scene with an affine {@link Transform}. Rays are transformed into the
+ * space of the object instead of transforming the object, so the same object
+ * and its hierarchy can be placed many times without copying it.<br>
+ * Instances are bounded, so a hierarchy built over them (e.g.
+ * {@link Geometries#createFlatHierarchy()}) forms the top level of a two level
+ * hierarchy
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class Instance implements Intersectable {
+
+    /**
+     * The shared object in its own space
+     */
+    private final Intersectable object;
+
+    /**
+     * Transform from the space of the object to the scene
+     */
+    private final Transform transform;
+
+    /**
+     * Bounds of the transformed object, null if the object is unbounded
+     */
+    private final Point3D min, max;
+
+    /**
+     * Constructor for Instance
+     *
+     * @param object    the shared object
+     * @param transform transform from the space of the object to the scene
+     */
+    public Instance(Intersectable object, Transform transform) {
+        this.object = object;
+        this.transform = transform;
+        Point3D[] bounds = bounds(object, transform);
+        min = bounds == null ? null : bounds[0];
+        max = bounds == null ? null : bounds[1];
+    }
+
+    /**
+     * Helper function that calculates the bounds of a transformed object
+     *
+     * @param object    the object
+     * @param transform the transform
+     * @return the minimum and maximum points of the transformed object, null if
+     *         the object is unbounded
+     */
+    private static Point3D[] bounds(Intersectable object, Transform transform) {
+        Point3D objectMin, objectMax;
+        try {
+            objectMin = object.getMinPoint();
+            objectMax = object.getMaxPoint();
+        } catch (IllegalArgumentException e) {
+            return null; // unbounded object
+        }
+        // the transformed bounds contain all 8 transformed corners of the object's bounds
+        Point3D min = null, max = null;
+        for (int corner = 0; corner < 8; ++corner) {
+            Point3D p = transform.apply(new Point3D((corner & 1) == 0 ? objectMin.getX() : objectMax.getX(),
+                    (corner & 2) == 0 ? objectMin.getY() : objectMax.getY(),
+                    (corner & 4) == 0 ? objectMin.getZ() : objectMax.getZ()));
+            min = min == null ? p : Point3D.min(min, p);
+            max = max == null ? p : Point3D.max(max, p);
+        }
+        return new Point3D[] { min, max };
+    }
+
+    /**
+     * Getter method for the shared object
+     *
+     * @return the object in its own space
+     */
+    public Intersectable getObject() {
+        return object;
+    }
+
+    /**
+     * Getter method for the transform
+     *
+     * @return transform from the space of the object to the scene
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
+        Ray local = transform.applyInverse(r);
+        double scale = transform.applyInverse(r.getDir()).length();
+        List<GeoPoint> found = object.findGeoIntersections(local, limit * scale);
+        if (found == null)
+            return null;
+        List<GeoPoint> list = new LinkedList<>();
+        InstancedGeometry geometry = null;
+        for (GeoPoint gp : found) {
+            // consecutive hits of a geometry (e.g. both hits of a sphere) share a proxy
+            if (geometry == null || geometry.geometry != gp.geometry)
+                geometry = new InstancedGeometry(gp.geometry);
+            list.add(new GeoPoint(geometry, transform.apply(gp.point)));
+        }
+        return list;
+    }
+
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray r, double limit) {
+        Ray local = transform.applyInverse(r);
+        double scale = transform.applyInverse(r.getDir()).length();
+        GeoPoint gp = object.findClosestGeoIntersection(local, limit * scale);
+        return gp == null ? null : toScene(gp);
+    }
+
+    @Override
+    public double findTransparency(Ray r, double limit, double minK) {
+        Ray local = transform.applyInverse(r);
+        double scale = transform.applyInverse(r.getDir()).length();
+        return object.findTransparency(local, limit * scale, minK);
+    }
+
+    /**
+     * Helper function that moves an intersection from the space of the object to
+     * the scene
+     */
+    private GeoPoint toScene(GeoPoint gp) {
+        return new GeoPoint(new InstancedGeometry(gp.geometry), transform.apply(gp.point));
+    }
+
+    @Override
+    public Point3D getMinPoint() {
+        if (min == null)
+            throw new IllegalArgumentException("Instance of an unbounded geometry has no minimum point");
+        return min;
+    }
+
+    @Override
+    public Point3D getMaxPoint() {
+        if (max == null)
+            throw new IllegalArgumentException("Instance of an unbounded geometry has no maximum point");
+        return max;
+    }
+
+    /**
+     * A {@link Geometry} of the shared object as it's placed by the instance. It
+     * shares the emission and material of the original, and transforms its
+     * normals to the scene. It's created only for the hits which are returned,
+     * and two of them are equal if they place the same geometry by the same
+     * instance
+     */
+    private class InstancedGeometry extends Geometry {
+        private final Geometry geometry;
+
+        InstancedGeometry(Geometry geometry) {
+            super(null); // the material of the original geometry is used
+            this.geometry = geometry;
+        }
+
+        /**
+         * An instanced geometry shares the emission of the original
+         *
+         * @throws UnsupportedOperationException always, set the emission of the
+         *                                       original geometry instead
+         */
+        @Override
+        public Geometry setEmission(Color c) {
+            throw new UnsupportedOperationException("An instanced geometry has the emission of the original");
+        }
+
+        /**
+         * An instanced geometry shares the material of the original
+         *
+         * @throws UnsupportedOperationException always, set the material of the
+         *                                       original geometry instead
+         */
+        @Override
+        public Geometry setMaterial(Material m) {
+            throw new UnsupportedOperationException("An instanced geometry has the material of the original");
+        }
+
+        @Override
+        public Color getEmission() {
+            return geometry.getEmission();
+        }
+
+        @Override
+        public Material getMaterial() {
+            return geometry.getMaterial();
+        }
+
+        @Override
+        public Vector getNormal(Point3D p) {
+            return transform.applyNormal(geometry.getNormal(transform.applyInverse(p)));
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
+            List<GeoPoint> found = geometry.findGeoIntersections(transform.applyInverse(r),
+                    limit * transform.applyInverse(r.getDir()).length());
+            if (found == null)
+                return null;
+            List<GeoPoint> list = new LinkedList<>();
+            for (GeoPoint gp : found)
+                list.add(new GeoPoint(this, transform.apply(gp.point)));
+            return list;
+        }
+
+        @Override
+        public Point3D getMinPoint() {
+            Point3D[] bounds = bounds(geometry, transform);
+            if (bounds == null)
+                throw new IllegalArgumentException("Instance of an unbounded geometry has no minimum point");
+            return bounds[0];
+        }
+
+        @Override
+        public Point3D getMaxPoint() {
+            Point3D[] bounds = bounds(geometry, transform);
+            if (bounds == null)
+                throw new IllegalArgumentException("Instance of an unbounded geometry has no maximum point");
+            return bounds[1];
+        }
+
+        /**
+         * Hits of the same geometry in the same instance are equal
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof InstancedGeometry))
+                return false;
+            InstancedGeometry other = (InstancedGeometry) obj;
+            return geometry == other.geometry && instance() == other.instance();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(geometry) + System.identityHashCode(instance());
+        }
+
+        private Instance instance() {
+            return Instance.this;
+        }
+    }
+}
@@ -71,6 +71,72 @@ public interface Intersectable {
      */
     List<GeoPoint> findGeoIntersections(Ray r, double limit);
 
+    /**
+     * Returns the closest {@link GeoPoint} that {@Ray} r intersects
+     * @param r
+     * @return closest {@link GeoPoint} or null if there is none
+     */
+    default GeoPoint findClosestGeoIntersection(Ray r) {
+        return findClosestGeoIntersection(r, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns the closest {@link GeoPoint} that {@Ray} r intersects within a given distance
+     * @param r
+     * @param limit Upper boundary on distance to intersection point
+     * @return closest {@link GeoPoint} or null if there is none
+     */
+    default GeoPoint findClosestGeoIntersection(Ray r, double limit) {
+        List<GeoPoint> list = findGeoIntersections(r, limit);
+        return list == null ? null : r.findClosestGeoPoint(list);
+    }
+
+    /**
+     * Looks for an intersection of {@Ray} r closer than the hit in a {@link HitRecord}, and records it
+     * instead. Geometries with kernels of their own only record the distance and the {@link Geometry},
+     * so no {@link GeoPoint} is created until the closest hit is known
+     * @param r
+     * @param hit closest hit found so far, its distance bounds the search
+     * @return true if a closer hit was recorded
+     */
+    default boolean findClosestHit(Ray r, HitRecord hit) {
+        GeoPoint gp = findClosestGeoIntersection(r, hit.t);
+        if (gp == null) return false;
+        hit.set(gp.point.distance(r.getStartPoint()), gp);
+        return true;
+    }
+
+    /**
+     * Finds the closest intersection of every {@link Ray} in a packet
+     * @param rays the intersecting {@link Ray}s
+     * @return array with the closest {@link GeoPoint} of every ray, or null for rays without intersections
+     */
+    default GeoPoint[] findClosestGeoIntersections(Ray[] rays) {
+        GeoPoint[] closest = new GeoPoint[rays.length];
+        for (int i = 0; i < rays.length; ++i)
+            closest[i] = findClosestGeoIntersection(rays[i]);
+        return closest;
+    }
+
+    /**
+     * Calculates how much light passes through the {@link Geometry}s that {@Ray} r intersects within a
+     * given distance, by multiplying their transparency (kT). Stops as soon as an opaque
+     * {@link Geometry} is hit or the transparency drops under minK
+     * @param r
+     * @param limit Upper boundary on distance to intersection point
+     * @param minK Transparency under which the light is considered fully blocked
+     * @return product of the kT of every intersected {@link Geometry}, or 0 if it's lower than minK
+     */
+    default double findTransparency(Ray r, double limit, double minK) {
+        List<GeoPoint> list = findGeoIntersections(r, limit);
+        double ktr = 1;
+        if (list == null) return ktr;
+        for (GeoPoint gp : list) {
+            ktr *= gp.geometry.getMaterial().kT;
+            if (ktr < minK) return 0;
+        }
+        return ktr;
+    }
     
     /**
      * Abstract method to calculate Geometry's min point
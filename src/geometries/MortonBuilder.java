@@ -0,0 +1,312 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import primitives.Point3D;
+
+/**
+ * {@link HierarchyBuilder} which builds a Linear Bounding Volume Hierarchy
+ * (LBVH). The geometries are sorted along a Morton (Z-order) curve by the
+ * centroids of their bounds, and every box is split where the highest bit of
+ * the Morton codes changes. The build takes near linear time, but the boxes
+ * are not as tight as the ones of a {@link SAHBuilder}, so it suits previews
+ * and interactive renders better than final frames
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class MortonBuilder implements HierarchyBuilder {
+
+    /**
+     * Ranges with less geometries than this are sorted and built on a single
+     * thread, since forking them costs more than it saves
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Bits of a Morton code sorted in every pass of the radix sort
+     */
+    private static final int RADIX_BITS = 10;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * Boxes with this many geometries or less are leaves
+     */
+    private int leafSize = 1;
+
+    /**
+     * Pool running the build, null to build on the calling thread
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Time the last build took in seconds
+     */
+    private double buildTime = 0;
+
+    /**
+     * Sets the amount of geometries under which a box is a leaf
+     *
+     * @param leafSize maximal amount of geometries in a leaf
+     * @return the builder itself
+     */
+    public MortonBuilder setLeafSize(int leafSize) {
+        if (leafSize < 1)
+            throw new IllegalArgumentException("Leaf size must be at least 1");
+        this.leafSize = leafSize;
+        return this;
+    }
+
+    /**
+     * Sets the pool the hierarchy is built on
+     *
+     * @param pool {@link ForkJoinPool} to build on, or null to build on the
+     *             calling thread only
+     * @return the builder itself
+     */
+    public MortonBuilder setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    @Override
+    public String key() {
+        return getClass().getName() + ":leafSize=" + leafSize;
+    }
+
+    /**
+     * Getter method for the time the last build took
+     *
+     * @return build time in seconds, 0 if nothing was built yet
+     */
+    public double getBuildTime() {
+        return buildTime;
+    }
+
+    @Override
+    public BoundingBox build(BoundingBox box) {
+        if (box.geometries.isEmpty())
+            return box;
+        long start = System.nanoTime();
+        Intersectable[] geometries = box.geometries.toArray(new Intersectable[0]);
+        int n = geometries.length;
+        ForkJoinPool pool = n < PARALLEL_THRESHOLD ? null : this.pool;
+
+        // centroids of the geometries and their bounds
+        double[] centroids = new double[3 * n];
+        forEach(pool, n, i -> {
+            Point3D min = geometries[i].getMinPoint();
+            Point3D max = geometries[i].getMaxPoint();
+            for (int axis = 0; axis < 3; ++axis)
+                centroids[3 * i + axis] = (min.getCoord(axis) + max.getCoord(axis)) / 2;
+        });
+        double[] bounds = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (int i = 0; i < n; ++i)
+            for (int axis = 0; axis < 3; ++axis) {
+                bounds[axis] = Math.min(bounds[axis], centroids[3 * i + axis]);
+                bounds[axis + 3] = Math.max(bounds[axis + 3], centroids[3 * i + axis]);
+            }
+
+        int[] codes = new int[n];
+        int[] order = new int[n];
+        forEach(pool, n, i -> {
+            codes[i] = mortonCode(centroids, 3 * i, bounds);
+            order[i] = i;
+        });
+        sort(pool, codes, order);
+
+        Intersectable[] sorted = new Intersectable[n];
+        for (int i = 0; i < n; ++i)
+            sorted[i] = geometries[order[i]];
+        BoundingBox root = pool == null ? build(sorted, codes, 0, n)
+                : pool.invoke(new BuildTask(sorted, codes, 0, n));
+        buildTime = (System.nanoTime() - start) / 1e9;
+        return root;
+    }
+
+    /**
+     * Recursively builds the hierarchy of a range of sorted geometries on the
+     * calling thread
+     *
+     * @param geometries geometries sorted by their Morton codes
+     * @param codes      sorted Morton codes
+     * @param start      first index of the range (inclusive)
+     * @param end        last index of the range (exclusive)
+     * @return {@link BoundingBox} containing the range
+     */
+    private BoundingBox build(Intersectable[] geometries, int[] codes, int start, int end) {
+        if (end - start <= leafSize)
+            return leaf(geometries, start, end);
+        int middle = split(codes, start, end);
+        return new BoundingBox(build(geometries, codes, start, middle), build(geometries, codes, middle, end));
+    }
+
+    /**
+     * Task which builds the hierarchy of a range of sorted geometries, forking
+     * the left side of every split while building the right side itself
+     */
+    private class BuildTask extends RecursiveTask<BoundingBox> {
+        private static final long serialVersionUID = 1L;
+        private final transient Intersectable[] geometries;
+        private final int[] codes;
+        private final int start;
+        private final int end;
+
+        BuildTask(Intersectable[] geometries, int[] codes, int start, int end) {
+            this.geometries = geometries;
+            this.codes = codes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected BoundingBox compute() {
+            if (end - start < PARALLEL_THRESHOLD)
+                return build(geometries, codes, start, end);
+            int middle = split(codes, start, end);
+            BuildTask left = new BuildTask(geometries, codes, start, middle);
+            left.fork();
+            BoundingBox right = new BuildTask(geometries, codes, middle, end).compute();
+            return new BoundingBox(left.join(), right);
+        }
+    }
+
+    private static BoundingBox leaf(Intersectable[] geometries, int start, int end) {
+        Intersectable[] leaf = new Intersectable[end - start];
+        System.arraycopy(geometries, start, leaf, 0, end - start);
+        return new BoundingBox(leaf);
+    }
+
+    /**
+     * Finds the first code of a sorted range in which the highest bit that
+     * differs across the range is set. Ranges of identical codes are split in
+     * half
+     *
+     * @param codes sorted Morton codes
+     * @param start first index of the range (inclusive)
+     * @param end   last index of the range (exclusive)
+     * @return index of the first geometry on the right side of the split
+     */
+    static int split(int[] codes, int start, int end) {
+        int first = codes[start];
+        int last = codes[end - 1];
+        if (first == last)
+            return start + (end - start) / 2;
+        int bit = 1 << (31 - Integer.numberOfLeadingZeros(first ^ last));
+        // every code in the range shares the bits above, so the ones with the bit set come last
+        int low = start;
+        int high = end - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if ((codes[middle] & bit) != 0)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return low;
+    }
+
+    /**
+     * Calculates the 30 bit Morton code of a point by quantizing every coordinate
+     * to 10 bits inside the given bounds and interleaving the bits
+     *
+     * @param c      array of coordinates
+     * @param offset offset of the point (x, y, z) in c
+     * @param bounds min x, y, z and max x, y, z of all the points
+     * @return Morton code of the point
+     */
+    static int mortonCode(double[] c, int offset, double[] bounds) {
+        int code = 0;
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = bounds[axis + 3] - bounds[axis];
+            int q = extent <= 0 ? 0 : (int) ((c[offset + axis] - bounds[axis]) / extent * 1023);
+            code |= expandBits(Math.min(Math.max(q, 0), 1023)) << (2 - axis);
+        }
+        return code;
+    }
+
+    /**
+     * Spreads the lower 10 bits of a value so there are two zero bits between
+     * every two bits
+     */
+    private static int expandBits(int v) {
+        v = (v * 0x00010001) & 0xFF0000FF;
+        v = (v * 0x00000101) & 0x0F00F00F;
+        v = (v * 0x00000011) & 0xC30C30C3;
+        v = (v * 0x00000005) & 0x49249249;
+        return v;
+    }
+
+    /**
+     * Sorts Morton codes along with the indices of their geometries using a
+     * least significant digit radix sort. Every pass counts the digits of
+     * separate chunks of the arrays in parallel, and then moves every chunk to
+     * its place in parallel, keeping the sort stable
+     *
+     * @param pool  pool to sort on, null for the calling thread
+     * @param codes Morton codes to sort
+     * @param order indices to reorder along with the codes
+     */
+    static void sort(ForkJoinPool pool, int[] codes, int[] order) {
+        int n = codes.length;
+        int chunks = pool == null ? 1
+                : Math.min(4 * pool.getParallelism(), (n + PARALLEL_THRESHOLD - 1) / PARALLEL_THRESHOLD);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] offsets = new int[chunks][RADIX];
+        int[] codesIn = codes, orderIn = order;
+        int[] codesOut = new int[n], orderOut = new int[n];
+
+        for (int shift = 0; shift < 30; shift += RADIX_BITS) {
+            int s = shift;
+            int[] cIn = codesIn, oIn = orderIn, cOut = codesOut, oOut = orderOut;
+            forEach(pool, chunks, chunk -> {
+                int[] count = offsets[chunk];
+                Arrays.fill(count, 0);
+                for (int i = chunk * chunkSize, end = Math.min(n, i + chunkSize); i < end; ++i)
+                    ++count[(cIn[i] >>> s) & (RADIX - 1)];
+            });
+            // turn the counts into the first position of every digit in every chunk
+            int position = 0;
+            for (int digit = 0; digit < RADIX; ++digit)
+                for (int chunk = 0; chunk < chunks; ++chunk) {
+                    int count = offsets[chunk][digit];
+                    offsets[chunk][digit] = position;
+                    position += count;
+                }
+            forEach(pool, chunks, chunk -> {
+                int[] next = offsets[chunk];
+                for (int i = chunk * chunkSize, end = Math.min(n, i + chunkSize); i < end; ++i) {
+                    int to = next[(cIn[i] >>> s) & (RADIX - 1)]++;
+                    cOut[to] = cIn[i];
+                    oOut[to] = oIn[i];
+                }
+            });
+            codesIn = cOut;
+            orderIn = oOut;
+            codesOut = cIn;
+            orderOut = oIn;
+        }
+        // an odd amount of passes leaves the result in the temporary arrays
+        if (codesIn != codes) {
+            System.arraycopy(codesIn, 0, codes, 0, n);
+            System.arraycopy(orderIn, 0, order, 0, n);
+        }
+    }
+
+    /**
+     * Helper function that runs an action for every index in [0, n), in parallel
+     * when a pool is given
+     */
+    private static void forEach(ForkJoinPool pool, int n, IntConsumer action) {
+        if (pool == null)
+            for (int i = 0; i < n; ++i)
+                action.accept(i);
+        else
+            pool.submit(() -> IntStream.range(0, n).parallel().forEach(action)).join();
+    }
+}
@@ -66,6 +66,25 @@ public class Plane extends Geometry {
         return getNormal();
     }
 
+    /**
+     * Intersects a ray with the plane
+     * @param r The Ray
+     * @param limit upper boundary on the distance to the intersection
+     * @return distance to the intersection, or NaN if there is none
+     */
+    double intersect(Ray r, double limit) {
+        double denominator = normal.dotProduct(r.getDir());
+        if (isZero(denominator)) return Double.NaN; //ray is parallel to plane
+        Point3D start = r.getStartPoint();
+        Point3D n = normal.getHead();
+        //the normal times a vector from the ray start point to some point on the plane, zero if the ray starts there
+        double numerator = n.getX() * (p0.getX() - start.getX()) + n.getY() * (p0.getY() - start.getY())
+                + n.getZ() * (p0.getZ() - start.getZ());
+        double t = alignZero(numerator / denominator);
+        if (t > 0 && alignZero(t - limit) <= 0) return t;
+        else return Double.NaN; //Ray starts on plane, is behind the plane, or is further than limit
+    }
+
     /**
      * Implements findIntersections for Intersectable {@link Plane}
      * @param r The Ray
@@ -73,16 +92,16 @@ public class Plane extends Geometry {
      */
     @Override
     public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
-        Vector rayToPlane;
-        try {
-            rayToPlane = p0.subtract(r.getStartPoint()); //a vector from the ray start point to some point on the plane
-        }
-        catch (IllegalArgumentException e) { return null; } //ray starts at plane's representative point
-        double denominator = normal.dotProduct(r.getDir());
-        if (isZero(denominator)) return null; //ray is parallel to plane
-        double t = alignZero(normal.dotProduct(rayToPlane) / denominator);
-        if (t > 0 && alignZero(t - limit) <= 0) return List.of(new GeoPoint(this, r.getPoint(t)));
-        else return null; //Ray starts on plane, is behind the plane, or is further than limit
+        double t = intersect(r, limit);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, r.getPoint(t)));
+    }
+
+    @Override
+    public boolean findClosestHit(Ray r, HitRecord hit) {
+        double t = intersect(r, hit.t);
+        if (Double.isNaN(t)) return false;
+        hit.set(t, this, -1);
+        return true;
     }
 
     @Override
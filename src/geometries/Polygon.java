@@ -26,6 +26,17 @@ public class Polygon extends Geometry {
 	 * Associated {@link Plane} in which the polygon lays
 	 */
 	protected Plane plane;
+	/**
+	 * Bounds of the polygon: minimum x, y, z followed by maximum x, y, z
+	 */
+	private final double[] bounds;
+	/**
+	 * Every edge (from the previous vertex to the next) as a plane through the
+	 * edge and the normal: six doubles (m, v) per edge, where m = n x edge and v
+	 * is the previous vertex, so a point p of the polygon's plane is on the inner
+	 * side of the edge iff m . (p - v) > 0
+	 */
+	private final double[] edges;
 
 	/**
 	 * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -56,6 +67,8 @@ public class Polygon extends Geometry {
 		// polygon with this plane.
 		// The plane holds the invariant normal (orthogonal unit) vector to the polygon
 		plane = new Plane(vertices[0], vertices[1], vertices[2]);
+		bounds = calcBounds(vertices);
+		edges = calcEdges(vertices, plane.getNormal().getHead());
 		if (vertices.length == 3)
 			return; // no need for more tests for a {@link Triangle}
 
@@ -108,6 +121,72 @@ public class Polygon extends Geometry {
 		return allVertices.toString();
 	}
 
+	/**
+	 * Calculates the bounds of the vertices
+	 * @param vertices the vertices
+	 * @return minimum x, y, z followed by maximum x, y, z
+	 */
+	private static double[] calcBounds(Point3D[] vertices) {
+		double[] bounds = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+		for (Point3D v : vertices) {
+			bounds[0] = Math.min(bounds[0], v.getX());
+			bounds[1] = Math.min(bounds[1], v.getY());
+			bounds[2] = Math.min(bounds[2], v.getZ());
+			bounds[3] = Math.max(bounds[3], v.getX());
+			bounds[4] = Math.max(bounds[4], v.getY());
+			bounds[5] = Math.max(bounds[5], v.getZ());
+		}
+		return bounds;
+	}
+
+	/**
+	 * Calculates the edge planes of the polygon
+	 * @param vertices the vertices
+	 * @param n the normal of the polygon
+	 * @return m and v of every edge, see {@link #edges}
+	 */
+	private static double[] calcEdges(Point3D[] vertices, Point3D n) {
+		double[] edges = new double[6 * vertices.length];
+		Point3D last = vertices[vertices.length - 1];
+		double x1 = last.getX(), y1 = last.getY(), z1 = last.getZ();
+		for (int i = 0, j = 0; i < vertices.length; ++i, j += 6) {
+			double x2 = vertices[i].getX(), y2 = vertices[i].getY(), z2 = vertices[i].getZ();
+			double ex = x2 - x1, ey = y2 - y1, ez = z2 - z1;
+			edges[j] = n.getY() * ez - n.getZ() * ey;
+			edges[j + 1] = n.getZ() * ex - n.getX() * ez;
+			edges[j + 2] = n.getX() * ey - n.getY() * ex;
+			edges[j + 3] = x1;
+			edges[j + 4] = y1;
+			edges[j + 5] = z1;
+			x1 = x2;
+			y1 = y2;
+			z1 = z2;
+		}
+		return edges;
+	}
+
+	/**
+	 * Intersects a ray with the polygon
+	 * @param r The {@link Ray}
+	 * @param limit upper boundary on the distance to the intersection
+	 * @return distance to the intersection, or NaN if there is none
+	 */
+	private double intersect(Ray r, double limit) {
+		double t = plane.intersect(r, limit);	//distance to where the ray intersects the plane of the polygon
+		if (Double.isNaN(t)) return t;
+		Point3D start = r.getStartPoint();
+		Point3D dir = r.getDir().getHead();
+		//the hit point, aligned to zero like the coordinates of a Point3D
+		double px = alignZero(start.getX() + dir.getX() * t), py = alignZero(start.getY() + dir.getY() * t),
+				pz = alignZero(start.getZ() + dir.getZ() * t);
+		for (int i = 0; i < edges.length; i += 6)	//the point must be on the inner side of every edge
+			if (alignZero(edges[i] * (px - edges[i + 3]) + edges[i + 1] * (py - edges[i + 4])
+					+ edges[i + 2] * (pz - edges[i + 5])) <= 0)
+				return Double.NaN;	//point is outside of polygon, or on its edge
+		return t;
+	}
+
 	/**
 	 * Implementation of findGeoIntersections for {@link Polygon}
 	 * @param r The {@link Ray}
@@ -115,38 +194,26 @@ public class Polygon extends Geometry {
 	 */
 	@Override
 	public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
-		List <GeoPoint> list = plane.findGeoIntersections(r, limit); 	//gets point where ray intersects the polygon of the plane
-		if (list == null) return null;						//if ray doesn't intersect plane at all, then no intersection point
-		GeoPoint p = list.get(0);
-		try {	
-			Vector n = plane.getNormal();
-			Vector edge1 = vertices.get(vertices.size() - 2).subtract(p.point);
-			Vector edge2 = vertices.get(vertices.size() - 1).subtract(p.point);
-			for (int i = 0; i < vertices.size(); ++i) {
-				if (edge1.crossProduct(edge2).dotProduct(n) <= 0) return null;
-				edge1 = edge2;
-				edge2 = vertices.get(i).subtract(p.point);
-			}
-			/*boolean sign = (plane.getNormal().dotProduct(edge1.crossProduct(edge2)) > 0);
-			for (int i = 1; i < vertices.size(); ++i) {		//calculate normal vectors from point to pair of consecutive points on polygon and make sure they are facing same direction
-				edge1 = edge2;
-				edge2 = vertices.get(i).subtract(p.point);
-				if (sign != plane.getNormal().dotProduct(edge1.crossProduct(edge2)) > 0) return null; //point is outside of polygon
-			}*/
-		}
-		catch (IllegalArgumentException e) { return null; } //intersection point is on edge of polygon
-		p.geometry = this; //change GeoPoint's geometry to Polygon (instead of Plane)
-		return List.of(p); //point is inside polygon
+		double t = intersect(r, limit);
+		return Double.isNaN(t) ? null : List.of(new GeoPoint(this, r.getPoint(t)));
+	}
+
+	@Override
+	public boolean findClosestHit(Ray r, HitRecord hit) {
+		double t = intersect(r, hit.t);
+		if (Double.isNaN(t)) return false;
+		hit.set(t, this, -1);
+		return true;
 	}
 
 	@Override
 	public Point3D getMinPoint() {
-		return Point3D.min(vertices.toArray(new Point3D[0]));
+		return new Point3D(bounds[0], bounds[1], bounds[2]);
 	}
 
 	@Override
 	public Point3D getMaxPoint() {
-		return Point3D.max(vertices.toArray(new Point3D[0]));
+		return new Point3D(bounds[3], bounds[4], bounds[5]);
 	}
 	
 }
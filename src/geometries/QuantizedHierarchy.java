@@ -0,0 +1,262 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import primitives.Point3D;
+import primitives.Ray;
+
+/**
+ * QuantizedHierarchy is a compressed form of a {@link FlatHierarchy}. Only the
+ * root box is stored in full precision. Every other box is stored as six 16 bit
+ * values relative to the box of its parent, rounded outwards so the decoded box
+ * always contains the original one. A node takes 20 bytes instead of the 56 of
+ * a {@link FlatHierarchy} node (and the hundreds of a {@link BoundingBox}), and
+ * the boxes are decoded during traversal from the parent box kept on the stack
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class QuantizedHierarchy extends CompiledHierarchy {
+
+    /**
+     * Highest quantized value, which decodes to the max plane of the parent
+     */
+    private static final int MAX = 0xFFFF;
+
+    /**
+     * min x, y, z and max x, y, z of the root
+     */
+    private final double[] root = new double[6];
+
+    /**
+     * Six quantized planes per node (min x, y, z, max x, y, z) relative to the
+     * decoded box of the parent
+     */
+    private final char[] quantized;
+
+    /**
+     * Two values per node, same as {@link FlatHierarchy#nodes}
+     */
+    private final int[] nodes;
+
+    /**
+     * Constructor which organizes the geometries with the given
+     * {@link HierarchyBuilder}, compiles the result and compresses it
+     *
+     * @param geometries geometries to compile
+     * @param builder    {@link HierarchyBuilder} used to organize the finite
+     *                   geometries
+     */
+    public QuantizedHierarchy(Geometries geometries, HierarchyBuilder builder) {
+        FlatHierarchy flat = new FlatHierarchy(geometries, builder);
+        nodeCount = flat.nodeCount;
+        depth = flat.depth;
+        nodes = Arrays.copyOf(flat.nodes, 2 * nodeCount);
+        primitives = flat.primitives;
+        unbounded = flat.unbounded;
+        triangles = flat.triangles;
+        this.geometries = new ArrayList<>(flat.geometries);
+
+        quantized = new char[6 * nodeCount];
+        if (nodeCount == 0)
+            return;
+        System.arraycopy(flat.bounds, 0, root, 0, 6);
+        // parents come before their children, so the decoded box of every parent is
+        // ready before its children are encoded against it
+        double[] decoded = new double[6 * nodeCount];
+        System.arraycopy(root, 0, decoded, 0, 6);
+        for (int node = 0; node < nodeCount; ++node) {
+            if (nodes[2 * node + 1] != 0)
+                continue;
+            for (int child : new int[] { node + 1, nodes[2 * node] }) {
+                encode(flat.bounds, decoded, node, child);
+                decode(quantized, child, decoded, 6 * node, decoded, 6 * child);
+            }
+        }
+    }
+
+    /**
+     * Quantizes the bounds of a child relative to the decoded bounds of its
+     * parent. Min planes are rounded down and max planes up
+     */
+    private void encode(double[] bounds, double[] decoded, int parent, int child) {
+        for (int axis = 0; axis < 3; ++axis) {
+            double min = decoded[6 * parent + axis];
+            double max = decoded[6 * parent + axis + 3];
+            double scale = (max - min) / MAX;
+            double low = bounds[6 * child + axis];
+            double high = bounds[6 * child + axis + 3];
+
+            int q = scale == 0 ? 0 : (int) Math.max(0, Math.min(MAX, Math.floor((low - min) / scale)));
+            while (q > 0 && dequantize(q, min, max, scale) > low)
+                --q;
+            quantized[6 * child + axis] = (char) q;
+
+            q = scale == 0 ? MAX : (int) Math.max(0, Math.min(MAX, Math.ceil((high - min) / scale)));
+            while (q < MAX && dequantize(q, min, max, scale) < high)
+                ++q;
+            quantized[6 * child + axis + 3] = (char) q;
+        }
+    }
+
+    /**
+     * Decodes the bounds of a node
+     *
+     * @param q       quantized bounds
+     * @param node    the node to decode
+     * @param parent  array holding the decoded bounds of the parent
+     * @param pOffset offset of the parent bounds
+     * @param out     array to write the bounds of the node to
+     * @param oOffset offset of the node bounds in out
+     */
+    private static void decode(char[] q, int node, double[] parent, int pOffset, double[] out, int oOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            double min = parent[pOffset + axis];
+            double max = parent[pOffset + axis + 3];
+            double scale = (max - min) / MAX;
+            out[oOffset + axis] = dequantize(q[6 * node + axis], min, max, scale);
+            out[oOffset + axis + 3] = dequantize(q[6 * node + axis + 3], min, max, scale);
+        }
+    }
+
+    private static double dequantize(int q, double min, double max, double scale) {
+        return q == MAX ? max : min + q * scale;
+    }
+
+    /**
+     * Getter for the minimum point of the decoded box of a node
+     *
+     * @param node index of the node, same as in the {@link FlatHierarchy} it was
+     *             compressed from
+     * @return the minimum point
+     * @throws IllegalArgumentException if the hierarchy has no such node
+     */
+    public Point3D getMinPoint(int node) {
+        double[] box = decode(node);
+        return new Point3D(box[0], box[1], box[2]);
+    }
+
+    /**
+     * Getter for the maximum point of the decoded box of a node
+     *
+     * @param node index of the node, same as in the {@link FlatHierarchy} it was
+     *             compressed from
+     * @return the maximum point
+     * @throws IllegalArgumentException if the hierarchy has no such node
+     */
+    public Point3D getMaxPoint(int node) {
+        double[] box = decode(node);
+        return new Point3D(box[3], box[4], box[5]);
+    }
+
+    /**
+     * Helper function that decodes the box of a node the way the traversal does,
+     * from the root down through its ancestors
+     */
+    private double[] decode(int node) {
+        if (node < 0 || node >= nodeCount)
+            throw new IllegalArgumentException("QuantizedHierarchy has no node " + node);
+        double[] box = Arrays.copyOf(root, 6);
+        for (int current = 0; current != node;) {
+            // the subtree of the first child ends right before the second child
+            int second = nodes[2 * current];
+            current = node < second ? current + 1 : second;
+            decode(quantized, current, box, 0, box, 0);
+        }
+        return box;
+    }
+
+    @Override
+    Traversal traverse(Ray r, double limit, boolean ordered) {
+        return new QuantizedTraversal(r, limit, ordered);
+    }
+
+    @Override
+    double[] rootBounds() {
+        return root;
+    }
+
+    /**
+     * Traversal which decodes the boxes of the children of every node from the
+     * box of the node, kept on the stack next to it
+     */
+    private class QuantizedTraversal extends Traversal {
+        private final double ox, oy, oz, ix, iy, iz;
+        private final boolean ordered;
+
+        /**
+         * Decoded box of every item on the stack
+         */
+        private final double[] boxes = new double[6 * (depth + 1)];
+
+        /**
+         * Decoded boxes of the two children of the node being expanded
+         */
+        private final double[] children = new double[12];
+
+        /**
+         * Constructor which starts a traversal from the root
+         *
+         * @param r       the ray
+         * @param limit   upper boundary on the distance to the root
+         * @param ordered whether the children are visited front to back
+         */
+        QuantizedTraversal(Ray r, double limit, boolean ordered) {
+            super(depth + 1);
+            Point3D start = r.getStartPoint();
+            Point3D dir = r.getDir().getHead();
+            ox = start.getX();
+            oy = start.getY();
+            oz = start.getZ();
+            ix = 1 / dir.getX();
+            iy = 1 / dir.getY();
+            iz = 1 / dir.getZ();
+            this.ordered = ordered;
+            double d = BoundingBox.entry(root, 0, ox, oy, oz, ix, iy, iz, limit);
+            if (d < Double.POSITIVE_INFINITY) {
+                System.arraycopy(root, 0, boxes, 0, 6);
+                push(0, d);
+            }
+        }
+
+        @Override
+        boolean leaf(int node) {
+            count = nodes[2 * node + 1];
+            first = nodes[2 * node];
+            return count != 0;
+        }
+
+        @Override
+        void expand(int node, double limit) {
+            // the node was just popped, so its box is at the top of the stack
+            int parent = 6 * top;
+            int near = node + 1;
+            int far = nodes[2 * node];
+            decode(quantized, near, boxes, parent, children, 0);
+            decode(quantized, far, boxes, parent, children, 6);
+            double dNear = BoundingBox.entry(children, 0, ox, oy, oz, ix, iy, iz, limit);
+            double dFar = BoundingBox.entry(children, 6, ox, oy, oz, ix, iy, iz, limit);
+            int nearOffset = 0, farOffset = 6;
+            if (ordered && dFar < dNear) {
+                int temp = near;
+                near = far;
+                far = temp;
+                double tempD = dNear;
+                dNear = dFar;
+                dFar = tempD;
+                nearOffset = 6;
+                farOffset = 0;
+            }
+            // push the far child first so the near one is visited first
+            if (dFar < Double.POSITIVE_INFINITY) {
+                System.arraycopy(children, farOffset, boxes, 6 * top, 6);
+                push(far, dFar);
+            }
+            if (dNear < Double.POSITIVE_INFINITY) {
+                System.arraycopy(children, nearOffset, boxes, 6 * top, 6);
+                push(near, dNear);
+            }
+        }
+    }
+}
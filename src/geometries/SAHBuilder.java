@@ -0,0 +1,432 @@
+package geometries;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+import primitives.Point3D;
+
+/**
+ * {@link HierarchyBuilder} which uses a binned Surface Area Heuristic (SAH).
+ * Every box is split at the bin boundary that minimizes the expected cost of
+ * tracing a ray through its two children, and becomes a leaf once no split is
+ * cheaper than intersecting all of its geometries directly.<br>
+ * Big ranges of geometries are built in parallel on a {@link ForkJoinPool}
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class SAHBuilder implements HierarchyBuilder {
+
+    /**
+     * Ranges with less geometries than this are built on a single thread, since
+     * forking them costs more than it saves
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Boxes with this many geometries or less are always leaves
+     */
+    private int leafSize = 1;
+
+    /**
+     * Cost of traversing a box relative to the cost of intersecting a geometry
+     */
+    private double costRatio = 1;
+
+    /**
+     * Number of bins the geometries' centroids are sorted into along each axis
+     */
+    private int binCount = 16;
+
+    /**
+     * Pool running the build, null to build on the calling thread
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Time the last build took in seconds
+     */
+    private double buildTime = 0;
+
+    /**
+     * Sets the amount of geometries under which a box is always a leaf
+     *
+     * @param leafSize maximal amount of geometries in a forced leaf
+     * @return the builder itself
+     */
+    public SAHBuilder setLeafSize(int leafSize) {
+        if (leafSize < 1)
+            throw new IllegalArgumentException("Leaf size must be at least 1");
+        this.leafSize = leafSize;
+        return this;
+    }
+
+    /**
+     * Sets the cost of traversing a box relative to intersecting a geometry.
+     * Higher values produce shallower trees with bigger leaves
+     *
+     * @param costRatio traversal cost / intersection cost
+     * @return the builder itself
+     */
+    public SAHBuilder setCostRatio(double costRatio) {
+        if (costRatio <= 0)
+            throw new IllegalArgumentException("Cost ratio must be positive");
+        this.costRatio = costRatio;
+        return this;
+    }
+
+    /**
+     * Sets the amount of bins used to evaluate split candidates on each axis
+     *
+     * @param binCount amount of bins
+     * @return the builder itself
+     */
+    public SAHBuilder setBinCount(int binCount) {
+        if (binCount < 2)
+            throw new IllegalArgumentException("At least 2 bins are needed to split a box");
+        this.binCount = binCount;
+        return this;
+    }
+
+    /**
+     * Sets the pool the hierarchy is built on
+     *
+     * @param pool {@link ForkJoinPool} to build on, or null to build on the
+     *             calling thread only
+     * @return the builder itself
+     */
+    public SAHBuilder setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    @Override
+    public String key() {
+        return getClass().getName() + ":leafSize=" + leafSize + ",costRatio=" + costRatio + ",binCount=" + binCount;
+    }
+
+    /**
+     * Getter method for the cost ratio
+     *
+     * @return cost of traversing a box relative to intersecting a geometry
+     */
+    public double getCostRatio() {
+        return costRatio;
+    }
+
+    /**
+     * Getter method for the time the last build took
+     *
+     * @return build time in seconds, 0 if nothing was built yet
+     */
+    public double getBuildTime() {
+        return buildTime;
+    }
+
+    @Override
+    public BoundingBox build(BoundingBox box) {
+        if (box.geometries.isEmpty())
+            return box;
+        long start = System.nanoTime();
+        Intersectable[] geometries = box.geometries.toArray(new Intersectable[0]);
+        BoundingBox root;
+        if (pool == null || geometries.length < PARALLEL_THRESHOLD)
+            root = build(new Primitives(geometries, null), 0, geometries.length);
+        else
+            root = pool.invoke(new BuildTask(new Primitives(geometries, pool), 0, geometries.length));
+        buildTime = (System.nanoTime() - start) / 1e9;
+        return root;
+    }
+
+    /**
+     * Recursively builds the hierarchy of a range of geometries on the calling
+     * thread
+     *
+     * @param p     precomputed bounds of all the geometries
+     * @param start first index (inclusive) in {@link Primitives#order}
+     * @param end   last index (exclusive) in {@link Primitives#order}
+     * @return {@link BoundingBox} containing the range
+     */
+    private BoundingBox build(Primitives p, int start, int end) {
+        int middle = split(p, start, end);
+        if (middle < 0)
+            return p.leaf(start, end);
+        return new BoundingBox(build(p, start, middle), build(p, middle, end));
+    }
+
+    /**
+     * Task which builds the hierarchy of a range of geometries, forking the left
+     * side of every split while building the right side itself
+     */
+    private class BuildTask extends RecursiveTask<BoundingBox> {
+        private static final long serialVersionUID = 1L;
+        private final transient Primitives p;
+        private final int start;
+        private final int end;
+
+        BuildTask(Primitives p, int start, int end) {
+            this.p = p;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected BoundingBox compute() {
+            if (end - start < PARALLEL_THRESHOLD)
+                return build(p, start, end);
+            int middle = split(p, start, end);
+            if (middle < 0)
+                return p.leaf(start, end);
+            BuildTask left = new BuildTask(p, start, middle);
+            left.fork();
+            BoundingBox right = new BuildTask(p, middle, end).compute();
+            return new BoundingBox(left.join(), right);
+        }
+    }
+
+    /**
+     * Finds the cheapest split of a range of geometries and reorders the range
+     * around it
+     *
+     * @param p     precomputed bounds of all the geometries
+     * @param start first index (inclusive) in {@link Primitives#order}
+     * @param end   last index (exclusive) in {@link Primitives#order}
+     * @return index of the first geometry on the right side of the split, or -1
+     *         if the range should be a leaf
+     */
+    private int split(Primitives p, int start, int end) {
+        int count = end - start;
+        if (count <= leafSize)
+            return -1;
+
+        // bounds of the box and of the geometries' centroids
+        double[] box = emptyBounds();
+        double[] centroidBox = emptyBounds();
+        for (int i = start; i < end; ++i) {
+            int g = p.order[i];
+            grow(box, p.bounds, 6 * g);
+            for (int axis = 0; axis < 3; ++axis) {
+                double c = p.centroids[3 * g + axis];
+                centroidBox[axis] = Math.min(centroidBox[axis], c);
+                centroidBox[axis + 3] = Math.max(centroidBox[axis + 3], c);
+            }
+        }
+
+        int[] counts = new int[binCount];
+        double[] bins = new double[6 * binCount];
+        int[] rightCounts = new int[binCount];
+        double[] rightAreas = new double[binCount];
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1;
+        int bestBin = 0;
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = centroidBox[axis + 3] - centroidBox[axis];
+            if (extent <= 0)
+                continue; // all centroids are on the same plane, nothing to split
+            double scale = binCount / extent;
+
+            Arrays.fill(counts, 0);
+            for (int b = 0; b < binCount; ++b)
+                reset(bins, 6 * b);
+            for (int i = start; i < end; ++i) {
+                int g = p.order[i];
+                int b = bin(p.centroids[3 * g + axis], centroidBox[axis], scale, binCount);
+                ++counts[b];
+                grow(bins, 6 * b, p.bounds, 6 * g);
+            }
+
+            // sweep from the right to get the cost of every right side
+            double[] acc = emptyBounds();
+            int accCount = 0;
+            for (int b = binCount - 1; b > 0; --b) {
+                grow(acc, bins, 6 * b);
+                accCount += counts[b];
+                rightCounts[b] = accCount;
+                rightAreas[b] = area(acc);
+            }
+            // sweep from the left and combine with the matching right side
+            acc = emptyBounds();
+            accCount = 0;
+            for (int b = 0; b < binCount - 1; ++b) {
+                grow(acc, bins, 6 * b);
+                accCount += counts[b];
+                if (accCount == 0 || rightCounts[b + 1] == 0)
+                    continue;
+                double cost = accCount * area(acc) + rightCounts[b + 1] * rightAreas[b + 1];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = b + 1;
+                }
+            }
+        }
+
+        if (bestAxis < 0) {
+            // every centroid is in the same spot - split in half to keep leaves small
+            return start + count / 2;
+        }
+
+        double area = area(box);
+        if (area > 0 && costRatio * area + bestCost >= count * area)
+            return -1;
+
+        return p.partition(start, end, bestAxis, bestBin, centroidBox[bestAxis],
+                binCount / (centroidBox[bestAxis + 3] - centroidBox[bestAxis]), binCount);
+    }
+
+    /**
+     * Helper function that finds the bin of a centroid
+     *
+     * @param c     centroid coordinate
+     * @param min   lowest centroid coordinate on the axis
+     * @param scale amount of bins per unit of length
+     * @param count amount of bins
+     * @return index of the bin
+     */
+    private static int bin(double c, double min, double scale, int count) {
+        int b = (int) ((c - min) * scale);
+        return b < count ? b : count - 1;
+    }
+
+    /**
+     * @return bounds (min x, y, z, max x, y, z) that don't contain anything
+     */
+    private static double[] emptyBounds() {
+        double[] b = new double[6];
+        reset(b, 0);
+        return b;
+    }
+
+    private static void reset(double[] b, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            b[offset + axis] = Double.POSITIVE_INFINITY;
+            b[offset + axis + 3] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    private static void grow(double[] b, double[] other, int offset) {
+        grow(b, 0, other, offset);
+    }
+
+    /**
+     * Helper function that expands bounds to contain other bounds
+     *
+     * @param b       bounds to expand
+     * @param offset  offset of the bounds in b
+     * @param other   bounds to contain
+     * @param oOffset offset of the bounds in other
+     */
+    private static void grow(double[] b, int offset, double[] other, int oOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            b[offset + axis] = Math.min(b[offset + axis], other[oOffset + axis]);
+            b[offset + axis + 3] = Math.max(b[offset + axis + 3], other[oOffset + axis + 3]);
+        }
+    }
+
+    /**
+     * Calculates the surface area of a box
+     *
+     * @param b bounds of the box
+     * @return surface area
+     */
+    static double area(double[] b) {
+        return area(b, 0);
+    }
+
+    /**
+     * Calculates the surface area of a box in an array of boxes
+     *
+     * @param b      array of bounds
+     * @param offset offset of the box in b (min x, y, z, max x, y, z)
+     * @return surface area
+     */
+    static double area(double[] b, int offset) {
+        double dx = b[offset + 3] - b[offset];
+        double dy = b[offset + 4] - b[offset + 1];
+        double dz = b[offset + 5] - b[offset + 2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Helper class which holds the bounds and centroids of the geometries being
+     * organized, so they are calculated only once per build
+     */
+    private static class Primitives {
+        final Intersectable[] geometries;
+        /**
+         * min x, y, z and max x, y, z of every geometry
+         */
+        final double[] bounds;
+        final double[] centroids;
+        /**
+         * Indices of the geometries, reordered while splitting
+         */
+        final int[] order;
+
+        /**
+         * @param geometries geometries to organize
+         * @param pool       pool to precompute the bounds on, null for the calling
+         *                   thread
+         */
+        Primitives(Intersectable[] geometries, ForkJoinPool pool) {
+            this.geometries = geometries;
+            int n = geometries.length;
+            bounds = new double[6 * n];
+            centroids = new double[3 * n];
+            order = new int[n];
+            if (pool == null)
+                for (int i = 0; i < n; ++i)
+                    precompute(i);
+            else
+                pool.submit(() -> IntStream.range(0, n).parallel().forEach(this::precompute)).join();
+        }
+
+        /**
+         * Stores the bounds and centroid of a single geometry
+         */
+        private void precompute(int i) {
+            Point3D min = geometries[i].getMinPoint();
+            Point3D max = geometries[i].getMaxPoint();
+            for (int axis = 0; axis < 3; ++axis) {
+                bounds[6 * i + axis] = min.getCoord(axis);
+                bounds[6 * i + axis + 3] = max.getCoord(axis);
+                centroids[3 * i + axis] = (min.getCoord(axis) + max.getCoord(axis)) / 2;
+            }
+            order[i] = i;
+        }
+
+        /**
+         * Creates a leaf holding a range of geometries
+         */
+        BoundingBox leaf(int start, int end) {
+            Intersectable[] leaf = new Intersectable[end - start];
+            for (int i = start; i < end; ++i)
+                leaf[i - start] = geometries[order[i]];
+            return new BoundingBox(leaf);
+        }
+
+        /**
+         * Reorders a range so the geometries in bins lower than the split bin come
+         * first
+         *
+         * @return index of the first geometry on the right side of the split
+         */
+        int partition(int start, int end, int axis, int splitBin, double min, double scale, int binCount) {
+            int i = start;
+            int j = end - 1;
+            while (i <= j) {
+                if (bin(centroids[3 * order[i] + axis], min, scale, binCount) < splitBin)
+                    ++i;
+                else {
+                    int temp = order[i];
+                    order[i] = order[j];
+                    order[j--] = temp;
+                }
+            }
+            return i;
+        }
+    }
+}
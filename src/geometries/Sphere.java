@@ -66,25 +66,41 @@ public class Sphere extends Geometry {
      */
     @Override
     public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
-        Vector u;
-        double projLength;
-        try {
-            u = center.subtract(r.getStartPoint());              //vector from ray start to center of sphere
-            projLength = alignZero(r.getDir().dotProduct(u));    //length of projection of u on r
-        }
-        catch (IllegalArgumentException e) {
-            projLength = 0;
-        }
-        double distToCenter = Math.sqrt(alignZero(r.getStartPoint().distanceSquared(center) - projLength*projLength)); //distance of projected point from center of sphere
+        Vec3 start = new Vec3(r.getStartPoint());
+        Vec3 dir = new Vec3(r.getDir());
+        Vec3 u = new Vec3(center).subtract(start);                  //vector from ray start to center of sphere
+        double projLength = alignZero(dir.dotProduct(u));           //length of projection of u on r
+        double distToCenter = Math.sqrt(alignZero(u.lengthSquared() - projLength*projLength)); //distance of projected point from center of sphere
         if (distToCenter >= radius) return null;                     //projected point is further or on sphere's radius
         double distToSide = alignZero(Math.sqrt(radius*radius - distToCenter*distToCenter));  //distance from projected point to side of sphere
         if (projLength + distToSide <= 0 && projLength - distToSide <= 0) return null;
-        List<GeoPoint> list = new ArrayList<>();
-        if (projLength - distToSide > 0 && alignZero(projLength - distToSide - limit) <= 0) list.add(new GeoPoint(this, r.getPoint(projLength - distToSide)));
-        if (projLength + distToSide > 0 && alignZero(projLength + distToSide - limit) <= 0) list.add(new GeoPoint(this, r.getPoint(projLength + distToSide)));
+        List<GeoPoint> list = new ArrayList<>(2);
+        if (projLength - distToSide > 0 && alignZero(projLength - distToSide - limit) <= 0) list.add(new GeoPoint(this, u.set(start).add(dir, projLength - distToSide).toPoint3D()));
+        if (projLength + distToSide > 0 && alignZero(projLength + distToSide - limit) <= 0) list.add(new GeoPoint(this, u.set(start).add(dir, projLength + distToSide).toPoint3D()));
         return list;
     }
 
+    /**
+     * Records the closer of the sphere's intersections, without creating any {@link GeoPoint}
+     * @param r a Ray that intersects with the Sphere
+     * @param hit closest hit found so far
+     * @return true if a closer hit was recorded
+     */
+    @Override
+    public boolean findClosestHit(Ray r, HitRecord hit) {
+        Point3D start = r.getStartPoint();
+        Point3D dir = r.getDir().getHead();
+        double ux = center.getX() - start.getX(), uy = center.getY() - start.getY(), uz = center.getZ() - start.getZ();
+        double projLength = alignZero(dir.getX() * ux + dir.getY() * uy + dir.getZ() * uz);
+        double distToCenter = Math.sqrt(alignZero(ux*ux + uy*uy + uz*uz - projLength*projLength));
+        if (distToCenter >= radius) return false;
+        double distToSide = alignZero(Math.sqrt(radius*radius - distToCenter*distToCenter));
+        double t = projLength - distToSide > 0 ? projLength - distToSide : projLength + distToSide; //the near point unless it's behind the ray
+        if (t <= 0 || alignZero(t - hit.t) > 0) return false;
+        hit.set(t, this, -1);
+        return true;
+    }
+
     @Override
     public Point3D getMinPoint() {
         return new Point3D(center.getX() - radius, center.getY() - radius, center.getZ() - radius);
@@ -1,6 +1,11 @@
 package geometries;
 
+import static primitives.Util.*;
+
+import java.util.List;
+
 import primitives.Point3D;
+import primitives.Ray;
 
 /**
  * A class that represents a 2-dimensional triangle in a 3-dimensional coordinate system
@@ -9,6 +14,11 @@ import primitives.Point3D;
  */
 public class Triangle extends Polygon {
 
+    /**
+     * First vertex and the two edges leaving it, precomputed for the Moller-Trumbore intersection
+     */
+    private final double v0x, v0y, v0z, e1x, e1y, e1z, e2x, e2y, e2z;
+
     /**
      * Constructor for the class triangle that takes the three vertices as parameters
      * @param p0 a vertex of the triangle
@@ -16,7 +26,83 @@ public class Triangle extends Polygon {
      * @param p2 a vertex of the triangle
      */
     public Triangle(Point3D p0, Point3D p1, Point3D p2) {
-        super(p0, p1, p2); 
-    }   
+        super(p0, p1, p2);
+        v0x = p0.getX();
+        v0y = p0.getY();
+        v0z = p0.getZ();
+        e1x = p1.getX() - v0x;
+        e1y = p1.getY() - v0y;
+        e1z = p1.getZ() - v0z;
+        e2x = p2.getX() - v0x;
+        e2y = p2.getY() - v0y;
+        e2z = p2.getZ() - v0z;
+    }
+
+    /**
+     * Stores the triangle in a {@link TriangleBatch}
+     * @param batch the batch
+     * @param i index of the triangle in the batch
+     */
+    void addTo(TriangleBatch batch, int i) {
+        batch.set(i, v0x, v0y, v0z, e1x, e1y, e1z, e2x, e2y, e2z, false);
+    }
+
+    /**
+     * Intersects a ray with the triangle (Moller-Trumbore), without allocating anything. Like every
+     * {@link Polygon}, points on the edges aren't intersections
+     * @param r the ray
+     * @param limit upper boundary on the distance to the intersection
+     * @return distance to the intersection, or NaN if there is none
+     */
+    private double intersect(Ray r, double limit) {
+        Point3D start = r.getStartPoint();
+        Point3D dir = r.getDir().getHead();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+
+        // p = dir x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det)) return Double.NaN; // ray is parallel to the triangle
+        double inv = 1 / det;
+
+        double sx = start.getX() - v0x, sy = start.getY() - v0y, sz = start.getZ() - v0z;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inv);
+        if (u <= 0 || u >= 1) return Double.NaN;
+
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inv);
+        if (v <= 0 || alignZero(1 - u - v) <= 0) return Double.NaN;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        return t > 0 && alignZero(t - limit) <= 0 ? t : Double.NaN; // behind the ray or further than limit
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
+        double t = intersect(r, limit);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, r.getPoint(t)));
+    }
+
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray r, double limit) {
+        double t = intersect(r, limit);
+        return Double.isNaN(t) ? null : new GeoPoint(this, r.getPoint(t));
+    }
+
+    @Override
+    public boolean findClosestHit(Ray r, HitRecord hit) {
+        double t = intersect(r, hit.t);
+        if (Double.isNaN(t)) return false;
+        hit.set(t, this, -1);
+        return true;
+    }
+
+    @Override
+    public double findTransparency(Ray r, double limit, double minK) {
+        if (Double.isNaN(intersect(r, limit))) return 1;
+        double kT = getMaterial().kT;
+        return kT < minK ? 0 : kT;
+    }
 
 }
@@ -0,0 +1,183 @@
+package geometries;
+
+import static primitives.Util.*;
+
+import primitives.Point3D;
+import primitives.Ray;
+
+/**
+ * TriangleBatch holds the triangles of an array of primitives (e.g. the
+ * primitives of a {@link FlatHierarchy}) in structure of arrays layout: the
+ * first vertex and both edges of every triangle, each coordinate in an array of
+ * its own, at the index of the triangle in the primitives. A leaf of a
+ * hierarchy is a range of the primitives, so all of its triangles are tested
+ * against a ray in one scalar loop over the arrays, and only the closest one is
+ * recorded in the {@link HitRecord}.<br>
+ * Primitives which aren't triangles have zero edges, so the loop always misses
+ * them and they're intersected the usual way
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+final class TriangleBatch {
+
+    private final Intersectable[] primitives;
+
+    private final double[] v0x, v0y, v0z, e1x, e1y, e1z, e2x, e2y, e2z;
+
+    /**
+     * Whether the edges of every triangle are part of it ({@link TriangleMesh})
+     * or not ({@link Triangle})
+     */
+    private final boolean[] closed;
+
+    /**
+     * Whether every primitive is a triangle held by the batch
+     */
+    private final boolean[] triangle;
+
+    /**
+     * Constructor which packs the triangles out of an array of primitives
+     *
+     * @param primitives the primitives, in the order of the leaves holding them
+     */
+    TriangleBatch(Intersectable[] primitives) {
+        this.primitives = primitives;
+        int n = primitives.length;
+        v0x = new double[n];
+        v0y = new double[n];
+        v0z = new double[n];
+        e1x = new double[n];
+        e1y = new double[n];
+        e1z = new double[n];
+        e2x = new double[n];
+        e2y = new double[n];
+        e2z = new double[n];
+        closed = new boolean[n];
+        triangle = new boolean[n];
+        for (int i = 0; i < n; ++i) {
+            if (primitives[i] instanceof Triangle)
+                ((Triangle) primitives[i]).addTo(this, i);
+            else if (primitives[i] instanceof TriangleMesh.MeshTriangle)
+                ((TriangleMesh.MeshTriangle) primitives[i]).addTo(this, i);
+        }
+    }
+
+    /**
+     * Stores a triangle in the batch
+     *
+     * @param i      index of the triangle in the primitives
+     * @param v0x    x of the first vertex
+     * @param v0y    y of the first vertex
+     * @param v0z    z of the first vertex
+     * @param e1x    x of the edge from the first vertex to the second
+     * @param e1y    y of the edge from the first vertex to the second
+     * @param e1z    z of the edge from the first vertex to the second
+     * @param e2x    x of the edge from the first vertex to the third
+     * @param e2y    y of the edge from the first vertex to the third
+     * @param e2z    z of the edge from the first vertex to the third
+     * @param closed whether points on the edges are intersections
+     */
+    void set(int i, double v0x, double v0y, double v0z, double e1x, double e1y, double e1z, double e2x,
+            double e2y, double e2z, boolean closed) {
+        this.v0x[i] = v0x;
+        this.v0y[i] = v0y;
+        this.v0z[i] = v0z;
+        this.e1x[i] = e1x;
+        this.e1y[i] = e1y;
+        this.e1z[i] = e1z;
+        this.e2x[i] = e2x;
+        this.e2y[i] = e2y;
+        this.e2z[i] = e2z;
+        this.closed[i] = closed;
+        triangle[i] = true;
+    }
+
+    /**
+     * Finds the closest hit of a ray with a range of primitives (e.g. a leaf of a
+     * hierarchy). The triangles are tested together and the other primitives one
+     * by one
+     *
+     * @param first index of the first primitive
+     * @param count amount of primitives
+     * @param r     the ray
+     * @param hit   closest hit found so far
+     * @return true if a closer hit was recorded
+     */
+    boolean findClosest(int first, int count, Ray r, HitRecord hit) {
+        Point3D start = r.getStartPoint();
+        Point3D dir = r.getDir().getHead();
+        boolean found = closest(first, count, start.getX(), start.getY(), start.getZ(), dir.getX(), dir.getY(),
+                dir.getZ(), hit);
+        for (int i = first; i < first + count; ++i)
+            if (!triangle[i] && primitives[i].findClosestHit(r, hit)) {
+                hit.index = i;
+                found = true;
+            }
+        return found;
+    }
+
+    /**
+     * Finds the closest triangle of a range of primitives which a ray intersects
+     * (Moller-Trumbore, with the same results as the triangles themselves)
+     *
+     * @param first index of the first primitive
+     * @param count amount of primitives
+     * @param ox    x of the start point of the ray
+     * @param oy    y of the start point of the ray
+     * @param oz    z of the start point of the ray
+     * @param dx    x of the direction of the ray
+     * @param dy    y of the direction of the ray
+     * @param dz    z of the direction of the ray
+     * @param hit   closest hit found so far, replaced by the closest triangle
+     *              (with its barycentric coordinates) if it's closer
+     * @return true if a closer triangle was recorded
+     */
+    boolean closest(int first, int count, double ox, double oy, double oz, double dx, double dy, double dz,
+            HitRecord hit) {
+        int closest = -1;
+        double limit = hit.t, closestU = 0, closestV = 0;
+        for (int i = first; i < first + count; ++i) {
+            // p = dir x e2
+            double px = dy * e2z[i] - dz * e2y[i], py = dz * e2x[i] - dx * e2z[i], pz = dx * e2y[i] - dy * e2x[i];
+            double det = e1x[i] * px + e1y[i] * py + e1z[i] * pz;
+            if (isZero(det))
+                continue; // parallel to the ray, or not a triangle
+            double inv = 1 / det;
+
+            double sx = ox - v0x[i], sy = oy - v0y[i], sz = oz - v0z[i];
+            double u = (sx * px + sy * py + sz * pz) * inv;
+            // q = s x e1
+            double qx = sy * e1z[i] - sz * e1y[i], qy = sz * e1x[i] - sx * e1z[i], qz = sx * e1y[i] - sy * e1x[i];
+            double v = (dx * qx + dy * qy + dz * qz) * inv;
+            if (closed[i] ? u < 0 || u > 1 || v < 0 || u + v > 1 : !open(u, v))
+                continue;
+
+            double dist = alignZero((e2x[i] * qx + e2y[i] * qy + e2z[i] * qz) * inv);
+            if (dist > 0 && alignZero(dist - limit) <= 0) {
+                closest = i;
+                limit = dist;
+                closestU = u;
+                closestV = v;
+            }
+        }
+        if (closest < 0)
+            return false;
+        hit.set(limit, (Geometry) primitives[closest], closest);
+        hit.u = closestU;
+        hit.v = closestV;
+        return true;
+    }
+
+    /**
+     * Helper function that checks if barycentric coordinates are inside a
+     * triangle and not on its edges, the same way {@link Triangle} does
+     */
+    private static boolean open(double u, double v) {
+        u = alignZero(u);
+        if (u <= 0 || u >= 1)
+            return false;
+        v = alignZero(v);
+        return v > 0 && alignZero(1 - u - v) > 0;
+    }
+}
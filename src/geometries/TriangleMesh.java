@@ -0,0 +1,389 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.*;
+
+/**
+ * TriangleMesh is a group of triangles which share their vertices. The
+ * vertices are stored in a single array of coordinates and every triangle is 3
+ * indices into it, so a triangle takes a few bytes instead of the
+ * {@link Point3D}s, list and {@link Plane} of a {@link Triangle}. Every
+ * triangle is a small {@link Geometry} of its own, so hierarchy builders
+ * organize the triangles of a mesh like any other geometries. Triangles are
+ * intersected with the Moller-Trumbore algorithm directly against the arrays.
+ * <br>
+ * All the triangles of a mesh share its emission and {@link Material}
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class TriangleMesh extends Geometries {
+
+    /**
+     * x, y, z of every vertex
+     */
+    private final double[] vertices;
+
+    /**
+     * Indices of the 3 vertices of every triangle
+     */
+    private final int[] indices;
+
+    private Color emission = Color.BLACK;
+
+    private Material material = new Material();
+
+    /**
+     * Constructor for TriangleMesh. The arrays are used directly, not copied, so
+     * large meshes aren't held twice
+     *
+     * @param vertices x, y, z of every vertex
+     * @param indices  indices of the 3 vertices of every triangle, in the order of
+     *                 its edge path
+     * @throws IllegalArgumentException if the arrays aren't made of whole vertices
+     *                                  and triangles, or an index isn't a vertex
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("Every vertex must have 3 coordinates");
+        if (indices.length % 3 != 0)
+            throw new IllegalArgumentException("Every triangle must have 3 vertices");
+        for (int index : indices)
+            if (index < 0 || index >= vertices.length / 3)
+                throw new IllegalArgumentException("Index " + index + " is not a vertex of the mesh");
+        this.vertices = vertices;
+        this.indices = indices;
+        this.geometries = new ArrayList<>(indices.length / 3);
+        for (int face = 0; face < indices.length / 3; ++face)
+            this.geometries.add(new MeshTriangle(face));
+    }
+
+    /**
+     * Constructor for TriangleMesh from an array of vertices
+     *
+     * @param vertices the vertices
+     * @param indices  indices of the 3 vertices of every triangle, in the order of
+     *                 its edge path
+     * @throws IllegalArgumentException if the indices aren't made of whole
+     *                                  triangles, or an index isn't a vertex
+     */
+    public TriangleMesh(Point3D[] vertices, int[] indices) {
+        this(coordinates(vertices), indices);
+    }
+
+    private static double[] coordinates(Point3D[] vertices) {
+        double[] coords = new double[3 * vertices.length];
+        for (int i = 0; i < vertices.length; ++i) {
+            coords[3 * i] = vertices[i].getX();
+            coords[3 * i + 1] = vertices[i].getY();
+            coords[3 * i + 2] = vertices[i].getZ();
+        }
+        return coords;
+    }
+
+    /**
+     * @return amount of triangles in the mesh
+     */
+    public int getTriangleCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Getter method for the emission of the mesh
+     *
+     * @return {@link Color}
+     */
+    public Color getEmission() {
+        return emission;
+    }
+
+    /**
+     * Setter method for the emission of every triangle of the mesh
+     *
+     * @param c the new {@link Color}
+     * @return the TriangleMesh
+     */
+    public TriangleMesh setEmission(Color c) {
+        if (c == null)
+            return this;
+        emission = c;
+        return this;
+    }
+
+    /**
+     * Getter method for the {@link Material} of the mesh
+     *
+     * @return {@link Material}
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * Setter method for the {@link Material} of every triangle of the mesh
+     *
+     * @param m the new {@link Material}
+     * @return the TriangleMesh
+     */
+    public TriangleMesh setMaterial(Material m) {
+        material = m;
+        return this;
+    }
+
+    /**
+     * Geometries can't be added to a mesh
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(Intersectable... geometries) {
+        throw new UnsupportedOperationException("Triangles can't be added to a TriangleMesh");
+    }
+
+    /**
+     * Intersects a ray with a triangle of the mesh (Moller-Trumbore). Points on
+     * the edges are considered inside, so rays don't slip between neighboring
+     * triangles
+     *
+     * @param face  index of the triangle
+     * @param r     the ray
+     * @param limit upper boundary on the distance to the intersection
+     * @return distance to the intersection, or NaN if there is none
+     */
+    double intersect(int face, Ray r, double limit) {
+        Point3D start = r.getStartPoint();
+        Point3D dir = r.getDir().getHead();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        int i0 = 3 * indices[3 * face], i1 = 3 * indices[3 * face + 1], i2 = 3 * indices[3 * face + 2];
+        double e1x = vertices[i1] - vertices[i0], e1y = vertices[i1 + 1] - vertices[i0 + 1],
+                e1z = vertices[i1 + 2] - vertices[i0 + 2];
+        double e2x = vertices[i2] - vertices[i0], e2y = vertices[i2 + 1] - vertices[i0 + 1],
+                e2z = vertices[i2 + 2] - vertices[i0 + 2];
+
+        // p = dir x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
+            return Double.NaN; // the ray is parallel to the triangle
+        double inv = 1 / det;
+
+        double sx = start.getX() - vertices[i0], sy = start.getY() - vertices[i0 + 1],
+                sz = start.getZ() - vertices[i0 + 2];
+        double u = (sx * px + sy * py + sz * pz) * inv;
+        if (u < 0 || u > 1)
+            return Double.NaN;
+
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inv;
+        if (v < 0 || u + v > 1)
+            return Double.NaN;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        return t > 0 && alignZero(t - limit) <= 0 ? t : Double.NaN;
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
+        List<GeoPoint> list = null;
+        for (int face = 0; face < indices.length / 3; ++face) {
+            double t = intersect(face, r, limit);
+            if (Double.isNaN(t))
+                continue;
+            if (list == null)
+                list = new ArrayList<>();
+            list.add(new GeoPoint((Geometry) geometries.get(face), r.getPoint(t)));
+        }
+        return list;
+    }
+
+    @Override
+    public boolean findClosestHit(Ray r, HitRecord hit) {
+        int closest = -1;
+        double limit = hit.t;
+        for (int face = 0; face < indices.length / 3; ++face) {
+            double t = intersect(face, r, limit);
+            if (!Double.isNaN(t)) {
+                closest = face;
+                limit = t;
+            }
+        }
+        if (closest < 0)
+            return false;
+        hit.set(limit, (Geometry) geometries.get(closest), closest);
+        return true;
+    }
+
+    @Override
+    public double findTransparency(Ray r, double limit, double minK) {
+        double ktr = 1;
+        for (int face = 0; face < indices.length / 3; ++face)
+            if (!Double.isNaN(intersect(face, r, limit))) {
+                ktr *= material.kT;
+                if (ktr < minK)
+                    return 0;
+            }
+        return ktr;
+    }
+
+    @Override
+    public Point3D getMinPoint() {
+        if (indices.length == 0)
+            throw new IllegalArgumentException("Empty mesh has no minimum point");
+        double[] min = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY };
+        for (int index : indices)
+            for (int axis = 0; axis < 3; ++axis)
+                min[axis] = Math.min(min[axis], vertices[3 * index + axis]);
+        return new Point3D(min[0], min[1], min[2]);
+    }
+
+    @Override
+    public Point3D getMaxPoint() {
+        if (indices.length == 0)
+            throw new IllegalArgumentException("Empty mesh has no maximum point");
+        double[] max = { Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (int index : indices)
+            for (int axis = 0; axis < 3; ++axis)
+                max[axis] = Math.max(max[axis], vertices[3 * index + axis]);
+        return new Point3D(max[0], max[1], max[2]);
+    }
+
+    /**
+     * A triangle of the mesh, which only holds its index. It's bounded by its own
+     * vertices, so hierarchies are built over the single triangles
+     */
+    class MeshTriangle extends Geometry {
+
+        /**
+         * Index of the triangle in the mesh
+         */
+        final int face;
+
+        MeshTriangle(int face) {
+            super(null); // the mesh holds the material
+            this.face = face;
+        }
+
+        /**
+         * @return the mesh of the triangle
+         */
+        TriangleMesh getMesh() {
+            return TriangleMesh.this;
+        }
+
+        /**
+         * Stores the triangle in a {@link TriangleBatch}
+         *
+         * @param batch the batch
+         * @param i     index of the triangle in the batch
+         */
+        void addTo(TriangleBatch batch, int i) {
+            int i0 = 3 * indices[3 * face], i1 = 3 * indices[3 * face + 1], i2 = 3 * indices[3 * face + 2];
+            batch.set(i, vertices[i0], vertices[i0 + 1], vertices[i0 + 2], vertices[i1] - vertices[i0],
+                    vertices[i1 + 1] - vertices[i0 + 1], vertices[i1 + 2] - vertices[i0 + 2],
+                    vertices[i2] - vertices[i0], vertices[i2 + 1] - vertices[i0 + 1],
+                    vertices[i2 + 2] - vertices[i0 + 2], true);
+        }
+
+        /**
+         * The triangles of a mesh share its emission
+         *
+         * @throws UnsupportedOperationException always, set the emission of the
+         *                                       mesh instead
+         */
+        @Override
+        public Geometry setEmission(Color c) {
+            throw new UnsupportedOperationException("A triangle of a mesh has the emission of the mesh");
+        }
+
+        /**
+         * The triangles of a mesh share its material
+         *
+         * @throws UnsupportedOperationException always, set the material of the
+         *                                       mesh instead
+         */
+        @Override
+        public Geometry setMaterial(Material m) {
+            throw new UnsupportedOperationException("A triangle of a mesh has the material of the mesh");
+        }
+
+        @Override
+        public Color getEmission() {
+            return TriangleMesh.this.emission;
+        }
+
+        @Override
+        public Material getMaterial() {
+            return TriangleMesh.this.material;
+        }
+
+        @Override
+        public Vector getNormal(Point3D p) {
+            int i0 = 3 * indices[3 * face], i1 = 3 * indices[3 * face + 1], i2 = 3 * indices[3 * face + 2];
+            Vector e1 = new Vector(vertices[i1] - vertices[i0], vertices[i1 + 1] - vertices[i0 + 1],
+                    vertices[i1 + 2] - vertices[i0 + 2]);
+            Vector e2 = new Vector(vertices[i2] - vertices[i0], vertices[i2 + 1] - vertices[i0 + 1],
+                    vertices[i2 + 2] - vertices[i0 + 2]);
+            // same orientation as the normal of a Triangle with the same vertices
+            return e1.crossProduct(e2).normalize();
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
+            double t = intersect(face, r, limit);
+            return Double.isNaN(t) ? null : List.of(new GeoPoint(this, r.getPoint(t)));
+        }
+
+        @Override
+        public GeoPoint findClosestGeoIntersection(Ray r, double limit) {
+            double t = intersect(face, r, limit);
+            return Double.isNaN(t) ? null : new GeoPoint(this, r.getPoint(t));
+        }
+
+        @Override
+        public boolean findClosestHit(Ray r, HitRecord hit) {
+            double t = intersect(face, r, hit.t);
+            if (Double.isNaN(t))
+                return false;
+            hit.set(t, this, face);
+            return true;
+        }
+
+        @Override
+        public double findTransparency(Ray r, double limit, double minK) {
+            if (Double.isNaN(intersect(face, r, limit)))
+                return 1;
+            double kT = getMaterial().kT;
+            return kT < minK ? 0 : kT;
+        }
+
+        @Override
+        public Point3D getMinPoint() {
+            int i0 = 3 * indices[3 * face], i1 = 3 * indices[3 * face + 1], i2 = 3 * indices[3 * face + 2];
+            return new Point3D(Math.min(vertices[i0], Math.min(vertices[i1], vertices[i2])),
+                    Math.min(vertices[i0 + 1], Math.min(vertices[i1 + 1], vertices[i2 + 1])),
+                    Math.min(vertices[i0 + 2], Math.min(vertices[i1 + 2], vertices[i2 + 2])));
+        }
+
+        @Override
+        public Point3D getMaxPoint() {
+            int i0 = 3 * indices[3 * face], i1 = 3 * indices[3 * face + 1], i2 = 3 * indices[3 * face + 2];
+            return new Point3D(Math.max(vertices[i0], Math.max(vertices[i1], vertices[i2])),
+                    Math.max(vertices[i0 + 1], Math.max(vertices[i1 + 1], vertices[i2 + 1])),
+                    Math.max(vertices[i0 + 2], Math.max(vertices[i1 + 2], vertices[i2 + 2])));
+        }
+
+        @Override
+        public String toString() {
+            return "triangle " + face + " of a mesh";
+        }
+    }
+}
@@ -21,12 +21,18 @@ public class Tube extends Geometry {
     /**
      * radius field for the {@link Tube}
      */
-    protected double radius;
+    protected final double radius;
 
     /**
      * direction {@link Vector} representing the direction that the {@link Tube} is facing in 3-dimensional space
      */
-    protected Ray dir;
+    protected final Ray dir;
+
+    /**
+     * Start point (s) and direction (a) of the axis and the squared radius, precomputed so the intersections
+     * only do arithmetic on doubles
+     */
+    protected final double sx, sy, sz, ax, ay, az, radiusSquared;
 
     /**
      * constructor which takes a radius and direction {@link Ray} and initializes the Tube
@@ -36,6 +42,15 @@ public class Tube extends Geometry {
     public Tube(double radius, Ray dir) {
         this.radius = radius;
         this.dir = dir;
+        Point3D start = dir.getStartPoint();
+        Point3D axis = dir.getDir().getHead();
+        sx = start.getX();
+        sy = start.getY();
+        sz = start.getZ();
+        ax = axis.getX();
+        ay = axis.getY();
+        az = axis.getZ();
+        radiusSquared = radius * radius;
     }
 
     /**
@@ -45,9 +60,9 @@ public class Tube extends Geometry {
      */
     @Override
     public Vector getNormal(Point3D p0){
-        double t = dir.getDir().dotProduct(p0.subtract(dir.getStartPoint()));
-        Point3D o = dir.getStartPoint().add(dir.getDir().scale(t));
-        return p0.subtract(o).normalize();
+        double nx = p0.getX() - sx, ny = p0.getY() - sy, nz = p0.getZ() - sz;   //vector from the axis start to p0
+        double t = ax * nx + ay * ny + az * nz;
+        return new Vector(nx - ax * t, ny - ay * t, nz - az * t).normalize();  //minus its projection on the axis
     }
 
     /**
@@ -58,28 +73,18 @@ public class Tube extends Geometry {
     @Override
     public List<GeoPoint> findGeoIntersections(Ray r, double limit) {
 
-        Vector AB = dir.getDir();
-        Vector AO = r.getStartPoint().subtract(dir.getStartPoint());
-        Vector AOxAB;
-        Vector VxAB;
-        try {
-            VxAB = r.getDir().crossProduct(AB);
-        }
-        catch (IllegalArgumentException e) {
-            return null;                        //ray is parallel to tube
-        }
-        double a = VxAB.dotProduct(VxAB);
-        double b;
-        double c;
-        try {
-            AOxAB = AO.crossProduct(AB);
-            b = 2 * (VxAB.dotProduct(AOxAB));
-            c = AOxAB.dotProduct(AOxAB) - radius*radius;
-        }
-        catch (IllegalArgumentException e) {
-            b = 0;
-            c = -radius*radius;
-        }
+        Point3D start = r.getStartPoint();
+        Point3D v = r.getDir().getHead();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        // V x AB
+        double cx = vy * az - vz * ay, cy = vz * ax - vx * az, cz = vx * ay - vy * ax;
+        double a = cx*cx + cy*cy + cz*cz;
+        if (isZero(a)) return null;                             //ray is parallel to tube
+        // AO x AB, zero if the ray starts on the axis
+        double ox = start.getX() - sx, oy = start.getY() - sy, oz = start.getZ() - sz;
+        double wx = oy * az - oz * ay, wy = oz * ax - ox * az, wz = ox * ay - oy * ax;
+        double b = 2 * (cx*wx + cy*wy + cz*wz);
+        double c = wx*wx + wy*wy + wz*wz - radiusSquared;
         if (b*b - 4*a*c <= 0) return null;                      //check discriminant
         double scalar1 = alignZero((-b + sqrt(b*b - 4*a*c)) / (2*a));   //positive answer
         double scalar2 = alignZero((-b - sqrt(b*b - 4*a*c)) / (2*a));   //negative answer
@@ -0,0 +1,264 @@
+package geometries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Ray3;
+
+/**
+ * WideHierarchy is a 4-wide form of a {@link FlatHierarchy}. Every node of the
+ * binary tree is collapsed together with its children and grandchildren (the
+ * largest ones first) into a node of up to 4 children, which halves the depth
+ * of the tree. The 4 child boxes of a node are stored plane by plane (all 4 min
+ * x values, then all 4 min y values and so on), so they are tested against a
+ * ray together in a single loop, and the children which are hit are visited
+ * front to back
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class WideHierarchy extends CompiledHierarchy {
+
+    /**
+     * Amount of children of every node
+     */
+    private static final int WIDTH = 4;
+
+    /**
+     * min x, y, z and max x, y, z of the root
+     */
+    private final double[] root = new double[6];
+
+    /**
+     * 24 values per node: the min x of its 4 children, then their min y, min z,
+     * max x, max y and max z. Unused children have empty boxes (min planes at
+     * infinity and max planes at negative infinity), which no ray intersects
+     */
+    private double[] boxes;
+
+    /**
+     * Two values per child, same as {@link FlatHierarchy#nodes}. For a leaf: index
+     * of its first geometry in {@link #primitives} and the amount of geometries.
+     * For an inner child: index of its node and 0
+     */
+    private int[] children;
+
+    /**
+     * Constructor which organizes the geometries with the given
+     * {@link HierarchyBuilder}, compiles the result and collapses it into a 4-wide
+     * tree
+     *
+     * @param geometries geometries to compile
+     * @param builder    {@link HierarchyBuilder} used to organize the finite
+     *                   geometries
+     */
+    public WideHierarchy(Geometries geometries, HierarchyBuilder builder) {
+        FlatHierarchy flat = new FlatHierarchy(geometries, builder);
+        primitives = flat.primitives;
+        unbounded = flat.unbounded;
+        triangles = flat.triangles;
+        this.geometries = new ArrayList<>(flat.geometries);
+
+        // every wide node takes at least one inner node of the binary tree (or its
+        // only leaf), so the binary node count bounds the arrays
+        boxes = new double[WIDTH * 6 * flat.nodeCount];
+        children = new int[WIDTH * 2 * flat.nodeCount];
+        if (flat.nodeCount == 0)
+            return;
+        System.arraycopy(flat.bounds, 0, root, 0, 6);
+        collapse(flat, 0, 1);
+        boxes = Arrays.copyOf(boxes, WIDTH * 6 * nodeCount);
+        children = Arrays.copyOf(children, WIDTH * 2 * nodeCount);
+    }
+
+    /**
+     * Recursively writes a node of the binary tree and its largest descendants
+     * into a wide node
+     *
+     * @param flat   the binary tree
+     * @param binary index of the binary node
+     * @param level  depth of the wide node being written
+     * @return index of the wide node
+     */
+    private int collapse(FlatHierarchy flat, int binary, int level) {
+        depth = Math.max(depth, level);
+        int node = nodeCount++;
+        int[] slots = new int[WIDTH];
+        slots[0] = binary;
+        int used = 1;
+        // open the largest inner child until the node is full or only leaves are left
+        while (used < WIDTH) {
+            int largest = -1;
+            double largestArea = -1;
+            for (int k = 0; k < used; ++k) {
+                if (flat.nodes[2 * slots[k] + 1] != 0)
+                    continue;
+                double area = SAHBuilder.area(flat.bounds, 6 * slots[k]);
+                if (area > largestArea) {
+                    largest = k;
+                    largestArea = area;
+                }
+            }
+            if (largest < 0)
+                break;
+            int opened = slots[largest];
+            slots[largest] = opened + 1;
+            slots[used++] = flat.nodes[2 * opened];
+        }
+
+        for (int k = 0; k < WIDTH; ++k) {
+            int child = WIDTH * node + k;
+            for (int plane = 0; plane < 6; ++plane)
+                boxes[WIDTH * (6 * node + plane) + k] = k < used ? flat.bounds[6 * slots[k] + plane]
+                        : plane < 3 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+            if (k >= used)
+                continue;
+            if (flat.nodes[2 * slots[k] + 1] == 0)
+                children[2 * child] = collapse(flat, slots[k], level + 1);
+            else {
+                children[2 * child] = flat.nodes[2 * slots[k]];
+                children[2 * child + 1] = flat.nodes[2 * slots[k] + 1];
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Tests the 4 child boxes of a node against a ray at once. The near and far
+     * planes of every axis are chosen once per ray by the sign of the direction,
+     * so the loop over the children has no branches besides the comparisons
+     *
+     * @param node  the node
+     * @param near  index of the near plane of every axis (0-2 or 3-5)
+     * @param ray   the ray
+     * @param limit upper boundary on the distance to the boxes
+     * @param entry distance to every box, positive infinity if it's missed
+     */
+    private void intersect(int node, int[] near, Ray3 ray, double limit, double[] entry) {
+        int offset = WIDTH * 6 * node;
+        int nx = offset + WIDTH * near[0], ny = offset + WIDTH * near[1], nz = offset + WIDTH * near[2];
+        int fx = offset + WIDTH * ((near[0] + 3) % 6), fy = offset + WIDTH * ((near[1] + 3) % 6),
+                fz = offset + WIDTH * ((near[2] + 3) % 6);
+        double ox = ray.origin.x, oy = ray.origin.y, oz = ray.origin.z;
+        double ix = ray.invDir.x, iy = ray.invDir.y, iz = ray.invDir.z;
+        for (int k = 0; k < WIDTH; ++k) {
+            double tmin = 0, tmax = limit;
+            double t0 = (boxes[nx + k] - ox) * ix, t1 = (boxes[fx + k] - ox) * ix;
+            // NaN (a ray in the plane of a box parallel to it) fails the comparisons, so it doesn't cull
+            if (t0 > tmin)
+                tmin = t0;
+            if (t1 < tmax)
+                tmax = t1;
+            t0 = (boxes[ny + k] - oy) * iy;
+            t1 = (boxes[fy + k] - oy) * iy;
+            if (t0 > tmin)
+                tmin = t0;
+            if (t1 < tmax)
+                tmax = t1;
+            t0 = (boxes[nz + k] - oz) * iz;
+            t1 = (boxes[fz + k] - oz) * iz;
+            if (t0 > tmin)
+                tmin = t0;
+            if (t1 < tmax)
+                tmax = t1;
+            entry[k] = tmin <= tmax ? tmin : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    @Override
+    Traversal traverse(Ray r, double limit, boolean ordered) {
+        return new WideTraversal(r, limit, ordered);
+    }
+
+    @Override
+    double[] rootBounds() {
+        return root;
+    }
+
+    /**
+     * Traversal which tests the 4 children of every node together. Inner
+     * children are pushed as their node, leaves as the complement of their child
+     * index
+     */
+    private class WideTraversal extends Traversal {
+        private final Ray3 ray;
+        private final boolean ordered;
+
+        /**
+         * Index of the near plane of every axis (0-2 or 3-5)
+         */
+        private final int[] near = new int[3];
+
+        /**
+         * Distance to every child of the node being expanded
+         */
+        private final double[] entry = new double[WIDTH];
+
+        /**
+         * Children of the node being expanded which are hit, far to near
+         */
+        private final int[] order = new int[WIDTH];
+
+        /**
+         * Constructor which starts a traversal from the root
+         *
+         * @param r       the ray
+         * @param limit   upper boundary on the distance to the root
+         * @param ordered whether the children are visited front to back
+         */
+        WideTraversal(Ray r, double limit, boolean ordered) {
+            super((WIDTH - 1) * depth + 1);
+            ray = new Ray3(r);
+            this.ordered = ordered;
+            for (int axis = 0; axis < 3; ++axis)
+                // 1 / -0.0 is negative infinity, so the sign of zero directions is kept
+                near[axis] = ray.invDir.get(axis) < 0 ? axis + 3 : axis;
+            double d = BoundingBox.entry(root, 0, ray.origin.x, ray.origin.y, ray.origin.z, ray.invDir.x,
+                    ray.invDir.y, ray.invDir.z, limit);
+            if (d < Double.POSITIVE_INFINITY)
+                push(0, d);
+        }
+
+        @Override
+        boolean leaf(int item) {
+            if (item >= 0)
+                return false;
+            first = children[2 * ~item];
+            count = children[2 * ~item + 1];
+            return true;
+        }
+
+        @Override
+        void expand(int node, double limit) {
+            intersect(node, near, ray, limit, entry);
+            if (!ordered) {
+                for (int k = 0; k < WIDTH; ++k)
+                    if (entry[k] < Double.POSITIVE_INFINITY)
+                        push(item(WIDTH * node + k), entry[k]);
+                return;
+            }
+            // sort the children which are hit from far to near, so the nearest is popped first
+            int hits = 0;
+            for (int k = 0; k < WIDTH; ++k) {
+                if (entry[k] == Double.POSITIVE_INFINITY)
+                    continue;
+                int j = hits++;
+                for (; j > 0 && entry[order[j - 1]] < entry[k]; --j)
+                    order[j] = order[j - 1];
+                order[j] = k;
+            }
+            for (int j = 0; j < hits; ++j)
+                push(item(WIDTH * node + order[j]), entry[order[j]]);
+        }
+    }
+
+    /**
+     * Helper function that finds the stack item of a child: its node if it's an
+     * inner child, or the complement of its index if it's a leaf
+     */
+    private int item(int child) {
+        return children[2 * child + 1] == 0 ? children[2 * child] : ~child;
+    }
+}
@@ -132,6 +132,27 @@ public class Color {
 		return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
 	}
 
+	/**
+	 * @return the red component
+	 */
+	public double getR() {
+		return r;
+	}
+
+	/**
+	 * @return the green component
+	 */
+	public double getG() {
+		return g;
+	}
+
+	/**
+	 * @return the blue component
+	 */
+	public double getB() {
+		return b;
+	}
+
 	/**
 	 * Operation of adding this and one or more other colors (by component)
 	 *
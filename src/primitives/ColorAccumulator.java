@@ -0,0 +1,131 @@
+package primitives;
+
+/**
+ * Class ColorAccumulator is a mutable RGB sum backed by plain double fields.
+ * Unlike {@link Color}, which allocates a new object for every add and scale,
+ * every operation changes the accumulator itself and returns it for chaining,
+ * so the shading of a ray (the lights, reflections and refractions of every
+ * level) can be summed into a single accumulator and only turned into a
+ * {@link Color} at the end, if at all
+ *
+ * @see Color
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public final class ColorAccumulator {
+
+    /**
+     * RGB components, intentionally public due to performance constraints
+     */
+    public double r, g, b;
+
+    /**
+     * Default constructor for black
+     */
+    public ColorAccumulator() {
+    }
+
+    /**
+     * Resets the accumulator to black
+     *
+     * @return this ColorAccumulator
+     */
+    public ColorAccumulator clear() {
+        r = g = b = 0;
+        return this;
+    }
+
+    /**
+     * @param r Red component
+     * @param g Green component
+     * @param b Blue component
+     * @return this ColorAccumulator
+     */
+    public ColorAccumulator set(double r, double g, double b) {
+        this.r = r;
+        this.g = g;
+        this.b = b;
+        return this;
+    }
+
+    /**
+     * @param c {@link Color} to copy
+     * @return this ColorAccumulator
+     */
+    public ColorAccumulator set(Color c) {
+        return set(c.getR(), c.getG(), c.getB());
+    }
+
+    /**
+     * @param c {@link Color} to add
+     * @return this ColorAccumulator
+     */
+    public ColorAccumulator add(Color c) {
+        r += c.getR();
+        g += c.getG();
+        b += c.getB();
+        return this;
+    }
+
+    /**
+     * Adds a scaled color, e.g. a light scaled by the material and the weight of
+     * the ray
+     *
+     * @param c {@link Color} to add
+     * @param k scale of c
+     * @return this ColorAccumulator
+     */
+    public ColorAccumulator add(Color c, double k) {
+        r += c.getR() * k;
+        g += c.getG() * k;
+        b += c.getB() * k;
+        return this;
+    }
+
+    /**
+     * @param c ColorAccumulator to add
+     * @return this ColorAccumulator
+     */
+    public ColorAccumulator add(ColorAccumulator c) {
+        r += c.r;
+        g += c.g;
+        b += c.b;
+        return this;
+    }
+
+    /**
+     * @param c ColorAccumulator to add
+     * @param k scale of c
+     * @return this ColorAccumulator
+     */
+    public ColorAccumulator add(ColorAccumulator c, double k) {
+        r += c.r * k;
+        g += c.g * k;
+        b += c.b * k;
+        return this;
+    }
+
+    /**
+     * @param k scale factor
+     * @return this ColorAccumulator, scaled by k
+     */
+    public ColorAccumulator scale(double k) {
+        r *= k;
+        g *= k;
+        b *= k;
+        return this;
+    }
+
+    /**
+     * @return a new {@link Color} with the components of this accumulator
+     * @throws IllegalArgumentException if a component is negative
+     */
+    public Color toColor() {
+        return new Color(r, g, b);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + r + ", " + g + ", " + b + ")";
+    }
+}
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.LinkedList;
@@ -119,7 +121,19 @@ public class Ray {
      * @return
      */
     public static Ray constructRefractionRay(GeoPoint gp, Vector dir) {
-        Vector normal = gp.geometry.getNormal(gp.point);
+        return constructRefractionRay(gp, dir, gp.geometry.getNormal(gp.point));
+    }
+
+    /**
+     * Constructs a new Ray that starts a bit off of the intersection point, with
+     * the normal at the point already known
+     * 
+     * @param gp     intersection point
+     * @param dir    {@link Vector} pointing in direction of original {@link Ray}
+     * @param normal normal of the geometry at the intersection point
+     * @return
+     */
+    public static Ray constructRefractionRay(GeoPoint gp, Vector dir, Vector normal) {
         // we must check the direction of the light
         // in order to make sure our ray direction is correct
         Vector delta = normal.scale(normal.dotProduct(dir) > 0 ? DELTA : -DELTA);
@@ -135,14 +149,21 @@ public class Ray {
      * @return
      */
     public static Ray constructReflectionRay(GeoPoint gp, Vector incident) {
-        Vector normal = gp.geometry.getNormal(gp.point);
-        Vector reflection;
-        try {
-            reflection = incident.subtract(normal.scale(2 * normal.dotProduct(incident))).normalized();
-        } catch (IllegalArgumentException e) {
-            return null;
-        }
-        return constructRefractionRay(gp, reflection);
+        return constructReflectionRay(gp, incident, gp.geometry.getNormal(gp.point));
+    }
+
+    /**
+     * Constructs a ray that is reflected at the intersection point, with the
+     * normal at the point already known
+     * 
+     * @param gp
+     * @param incident
+     * @param normal normal of the geometry at the intersection point
+     * @return
+     */
+    public static Ray constructReflectionRay(GeoPoint gp, Vector incident, Vector normal) {
+        Vector reflection = incident.reflect(normal).normalize();
+        return constructRefractionRay(gp, reflection, normal);
     }
 
     /**
@@ -156,10 +177,26 @@ public class Ray {
      */
     public static List<Ray> constructRefractionRays(GeoPoint gp, Vector dir, double spread, double loops,
             int rayCount) {
+        return constructRefractionRays(gp, dir, gp.geometry.getNormal(gp.point), spread, loops, rayCount);
+    }
+
+    /**
+     * Constructs a list of Rays that are refracted at an intersection point, with
+     * the normal at the point already known
+     * 
+     * @param gp       intersection point
+     * @param dir      direction to center the spread
+     * @param normal   normal of the geometry at the intersection point
+     * @param spread   narrowness of spread
+     * @param loops    number of times to loop in a circle (0 for random
+     *                 distribution)
+     * @param rayCount number of constructed rays to create
+     */
+    public static List<Ray> constructRefractionRays(GeoPoint gp, Vector dir, Vector normal, double spread,
+            double loops, int rayCount) {
         if (rayCount < 1 || spread < 1)
             return null;
         List<Ray> rays = new LinkedList<>();
-        Vector normal = gp.geometry.getNormal(gp.point);
         // we must check the direction of the light
         // in order to make sure our ray direction is correct
         Vector delta = normal.scale(normal.dotProduct(dir) > 0 ? DELTA : -DELTA);
@@ -181,14 +218,15 @@ public class Ray {
         
         Vector offset;
         for (int i = 1; i < rayCount; ++i) {
-            try {
-                offset = vRight.rotate(original.normalized(), GENERATOR.nextDouble() * 360).scale(GENERATOR.nextDouble());
-                Ray ray = new Ray(head, original.add(offset));
-                if (ray.dir.dotProduct(normal) > 0 == original.dotProduct(normal) > 0)
-                    list.add(ray);
-            } catch (IllegalArgumentException e) {
+            double angle = GENERATOR.nextDouble() * 360, scale = GENERATOR.nextDouble();
+            if (isZero(scale)) { // would scale the offset to the zero vector
                 --i;
+                continue;
             }
+            offset = vRight.rotate(original.normalized(), angle).scale(scale);
+            Ray ray = new Ray(head, original.add(offset));
+            if (ray.dir.dotProduct(normal) > 0 == original.dotProduct(normal) > 0)
+                list.add(ray);
         }
         return list;
     }
@@ -214,15 +252,18 @@ public class Ray {
      */
     public static List<Ray> constructReflectionRays(GeoPoint gp, Vector incident, double spread, double loops,
             int rayCount) {
-        Vector normal = gp.geometry.getNormal(gp.point);
-        Vector reflection;
-        try {
-            reflection = incident.subtract(normal.scale(2 * normal.dotProduct(incident))).normalized();
-        } catch (IllegalArgumentException e) {
-            return null;
-        }
+        return constructReflectionRays(gp, incident, gp.geometry.getNormal(gp.point), spread, loops, rayCount);
+    }
+
+    /**
+     * Calculates main reflection ray and constructs a beam as if they were
+     * refracted, with the normal at the intersection point already known
+     */
+    public static List<Ray> constructReflectionRays(GeoPoint gp, Vector incident, Vector normal, double spread,
+            double loops, int rayCount) {
+        Vector reflection = incident.reflect(normal).normalize();
 
-        return constructRefractionRays(gp, reflection, spread, loops, rayCount);
+        return constructRefractionRays(gp, reflection, normal, spread, loops, rayCount);
     }
 
     @Override
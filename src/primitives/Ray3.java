@@ -0,0 +1,94 @@
+package primitives;
+
+/**
+ * Class Ray3 is a mutable form of a {@link Ray} backed by {@link Vec3}s. The
+ * inverse of the direction, which every box test needs, is calculated once
+ * when the ray is set. A single Ray3 can be set again and again to the rays of
+ * a hot loop
+ *
+ * @see Ray
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public final class Ray3 {
+
+    /**
+     * Start point of the ray
+     */
+    public final Vec3 origin = new Vec3();
+
+    /**
+     * Normalized direction of the ray
+     */
+    public final Vec3 dir = new Vec3();
+
+    /**
+     * 1 / dir of every axis, infinite (with the sign of the zero) for axes the ray
+     * is parallel to
+     */
+    public final Vec3 invDir = new Vec3();
+
+    /**
+     * Default constructor, the ray has to be set before it's used
+     */
+    public Ray3() {
+    }
+
+    /**
+     * Constructor that copies a {@link Ray}
+     *
+     * @param r the ray
+     */
+    public Ray3(Ray r) {
+        set(r);
+    }
+
+    /**
+     * @param r {@link Ray} to copy
+     * @return this Ray3
+     */
+    public Ray3 set(Ray r) {
+        origin.set(r.p0);
+        dir.set(r.dir);
+        return updateInverse();
+    }
+
+    /**
+     * @param origin start point of the ray
+     * @param dir    direction of the ray, normalized when copied
+     * @return this Ray3
+     */
+    public Ray3 set(Vec3 origin, Vec3 dir) {
+        this.origin.set(origin);
+        this.dir.set(dir).normalize();
+        return updateInverse();
+    }
+
+    private Ray3 updateInverse() {
+        invDir.set(1 / dir.x, 1 / dir.y, 1 / dir.z);
+        return this;
+    }
+
+    /**
+     * Calculates the point a given distance along the ray
+     *
+     * @param t   distance from the start point
+     * @param out Vec3 to write the point to
+     * @return out
+     */
+    public Vec3 getPoint(double t, Vec3 out) {
+        return out.set(origin).add(dir, t);
+    }
+
+    /**
+     * @return a new {@link Ray} with the same start point and direction
+     */
+    public Ray toRay() {
+        return new Ray(origin.toPoint3D(), dir.toVector());
+    }
+
+    @Override
+    public String toString() {
+        return "{" + origin + ": " + dir + "}";
+    }
+}
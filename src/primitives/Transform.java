@@ -0,0 +1,215 @@
+package primitives;
+
+/**
+ * Class Transform represents an affine transformation of 3-dimensional space
+ * (any combination of rotations, scales and translations) along with its
+ * inverse. Transforms are immutable, every operation returns a new Transform
+ * which applies the operation after the current one
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class Transform {
+
+    /**
+     * The transform which leaves everything in place
+     */
+    public static final Transform IDENTITY = new Transform();
+
+    /**
+     * Row major 3x4 matrix of the transform, the last column is the translation
+     */
+    private final double[] m;
+
+    /**
+     * Row major 3x4 matrix of the inverse transform
+     */
+    private final double[] inv;
+
+    /**
+     * Default constructor for the identity transform
+     */
+    public Transform() {
+        this(new double[] { 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0 },
+                new double[] { 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0 });
+    }
+
+    private Transform(double[] m, double[] inv) {
+        this.m = m;
+        this.inv = inv;
+    }
+
+    /**
+     * Creates a transform which moves everything after this transform
+     *
+     * @param v the translation
+     * @return the combined Transform
+     */
+    public Transform translate(Vector v) {
+        double x = v.getHead().getX(), y = v.getHead().getY(), z = v.getHead().getZ();
+        return then(new Transform(new double[] { 1, 0, 0, x, 0, 1, 0, y, 0, 0, 1, z },
+                new double[] { 1, 0, 0, -x, 0, 1, 0, -y, 0, 0, 1, -z }));
+    }
+
+    /**
+     * Creates a transform which scales everything around the origin after this
+     * transform
+     *
+     * @param sx scale of the x axis
+     * @param sy scale of the y axis
+     * @param sz scale of the z axis
+     * @return the combined Transform
+     */
+    public Transform scale(double sx, double sy, double sz) {
+        if (Util.isZero(sx) || Util.isZero(sy) || Util.isZero(sz))
+            throw new IllegalArgumentException("Can't scale an axis by 0");
+        return then(new Transform(new double[] { sx, 0, 0, 0, 0, sy, 0, 0, 0, 0, sz, 0 },
+                new double[] { 1 / sx, 0, 0, 0, 0, 1 / sy, 0, 0, 0, 0, 1 / sz, 0 }));
+    }
+
+    /**
+     * Creates a transform which scales everything uniformly around the origin
+     * after this transform
+     *
+     * @param s the scale
+     * @return the combined Transform
+     */
+    public Transform scale(double s) {
+        return scale(s, s, s);
+    }
+
+    /**
+     * Creates a transform which rotates everything around an axis through the
+     * origin after this transform
+     *
+     * @param axis  axis of rotation
+     * @param angle the degrees of rotation
+     * @return the combined Transform
+     */
+    public Transform rotate(Vector axis, double angle) {
+        Point3D a = axis.normalized().getHead();
+        double x = a.getX(), y = a.getY(), z = a.getZ();
+        double rad = angle * Math.PI / 180;
+        double c = Math.cos(rad), s = Math.sin(rad), t = 1 - c;
+        double[] r = { t * x * x + c, t * x * y - s * z, t * x * z + s * y, 0, //
+                t * x * y + s * z, t * y * y + c, t * y * z - s * x, 0, //
+                t * x * z - s * y, t * y * z + s * x, t * z * z + c, 0 };
+        // the inverse of a rotation is its transpose
+        double[] rInv = { r[0], r[4], r[8], 0, r[1], r[5], r[9], 0, r[2], r[6], r[10], 0 };
+        return then(new Transform(r, rInv));
+    }
+
+    /**
+     * Combines two transforms
+     *
+     * @param t transform to apply after this one
+     * @return Transform which applies this transform and then t
+     */
+    public Transform then(Transform t) {
+        return new Transform(multiply(t.m, m), multiply(inv, t.inv));
+    }
+
+    /**
+     * @return the inverse Transform
+     */
+    public Transform inverse() {
+        return new Transform(inv, m);
+    }
+
+    /**
+     * Transforms a point
+     *
+     * @param p the point
+     * @return the transformed {@link Point3D}
+     */
+    public Point3D apply(Point3D p) {
+        return applyPoint(m, p);
+    }
+
+    /**
+     * Transforms a point by the inverse transform
+     *
+     * @param p the point
+     * @return the transformed {@link Point3D}
+     */
+    public Point3D applyInverse(Point3D p) {
+        return applyPoint(inv, p);
+    }
+
+    /**
+     * Transforms a direction (the translation doesn't affect it). The length of
+     * the direction is scaled along with it
+     *
+     * @param v the direction
+     * @return the transformed {@link Vector}
+     */
+    public Vector apply(Vector v) {
+        return applyVector(m, v);
+    }
+
+    /**
+     * Transforms a direction by the inverse transform
+     *
+     * @param v the direction
+     * @return the transformed {@link Vector}
+     */
+    public Vector applyInverse(Vector v) {
+        return applyVector(inv, v);
+    }
+
+    /**
+     * Transforms a normal, which has to stay orthogonal to the transformed
+     * surface, by the transpose of the inverse transform
+     *
+     * @param n the normal
+     * @return the transformed normal, normalized
+     */
+    public Vector applyNormal(Vector n) {
+        Point3D h = n.getHead();
+        double x = h.getX(), y = h.getY(), z = h.getZ();
+        return new Vector(inv[0] * x + inv[4] * y + inv[8] * z, //
+                inv[1] * x + inv[5] * y + inv[9] * z, //
+                inv[2] * x + inv[6] * y + inv[10] * z).normalize();
+    }
+
+    /**
+     * Transforms a {@link Ray} by the inverse transform (e.g. from world space to
+     * the space of a transformed object)
+     *
+     * @param r the ray
+     * @return the transformed {@link Ray}
+     */
+    public Ray applyInverse(Ray r) {
+        return new Ray(applyInverse(r.getStartPoint()), applyInverse(r.getDir()));
+    }
+
+    private static Point3D applyPoint(double[] a, Point3D p) {
+        double x = p.getX(), y = p.getY(), z = p.getZ();
+        return new Point3D(a[0] * x + a[1] * y + a[2] * z + a[3], //
+                a[4] * x + a[5] * y + a[6] * z + a[7], //
+                a[8] * x + a[9] * y + a[10] * z + a[11]);
+    }
+
+    private static Vector applyVector(double[] a, Vector v) {
+        Point3D h = v.getHead();
+        double x = h.getX(), y = h.getY(), z = h.getZ();
+        return new Vector(a[0] * x + a[1] * y + a[2] * z, //
+                a[4] * x + a[5] * y + a[6] * z, //
+                a[8] * x + a[9] * y + a[10] * z);
+    }
+
+    /**
+     * Helper function that multiplies two affine 3x4 matrices
+     *
+     * @return a * b, which applies b and then a
+     */
+    private static double[] multiply(double[] a, double[] b) {
+        double[] r = new double[12];
+        for (int row = 0; row < 3; ++row) {
+            for (int col = 0; col < 4; ++col)
+                r[4 * row + col] = a[4 * row] * b[col] + a[4 * row + 1] * b[4 + col] + a[4 * row + 2] * b[8 + col];
+            r[4 * row + 3] += a[4 * row + 3];
+        }
+        return r;
+    }
+}
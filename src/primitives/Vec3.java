@@ -0,0 +1,254 @@
+package primitives;
+
+/**
+ * Class Vec3 is a mutable point or direction in 3-dimensional space backed by
+ * plain double fields. Unlike {@link Point3D} and {@link Vector} it doesn't
+ * wrap its values in {@link Coordinate}s or align them to zero, and every
+ * operation changes the Vec3 itself and returns it for chaining, so hot loops
+ * can reuse a few Vec3s instead of allocating new objects for every step.
+ * Zero length vectors are allowed
+ *
+ * @see Point3D
+ * @see Vector
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public final class Vec3 {
+
+    /**
+     * Coordinate values, intentionally public due to performance constraints
+     */
+    public double x, y, z;
+
+    /**
+     * Default constructor for the origin
+     */
+    public Vec3() {
+    }
+
+    /**
+     * Constructor that takes three double values
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @param z coordinate
+     */
+    public Vec3(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Constructor that copies a {@link Point3D}
+     *
+     * @param p the point
+     */
+    public Vec3(Point3D p) {
+        set(p);
+    }
+
+    /**
+     * Constructor that copies the head of a {@link Vector}
+     *
+     * @param v the vector
+     */
+    public Vec3(Vector v) {
+        set(v.head);
+    }
+
+    /**
+     * @param x coordinate
+     * @param y coordinate
+     * @param z coordinate
+     * @return this Vec3
+     */
+    public Vec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * @param v Vec3 to copy
+     * @return this Vec3
+     */
+    public Vec3 set(Vec3 v) {
+        return set(v.x, v.y, v.z);
+    }
+
+    /**
+     * @param p {@link Point3D} to copy
+     * @return this Vec3
+     */
+    public Vec3 set(Point3D p) {
+        return set(p.x.coord, p.y.coord, p.z.coord);
+    }
+
+    /**
+     * @param v {@link Vector} whose head is copied
+     * @return this Vec3
+     */
+    public Vec3 set(Vector v) {
+        return set(v.head);
+    }
+
+    /**
+     * helper function to get a specific coordinate
+     *
+     * @param axis 0, 1 or 2
+     * @return the coordinate
+     */
+    public double get(int axis) {
+        switch (axis) {
+            case 0:
+                return x;
+            case 1:
+                return y;
+            case 2:
+                return z;
+            default:
+                throw new IllegalArgumentException("Coordinate must be 0, 1, or 2");
+        }
+    }
+
+    /**
+     * @param v Vec3 to add
+     * @return this Vec3, moved by v
+     */
+    public Vec3 add(Vec3 v) {
+        x += v.x;
+        y += v.y;
+        z += v.z;
+        return this;
+    }
+
+    /**
+     * Adds a scaled vector, e.g. moves a point along a ray
+     *
+     * @param v Vec3 to add
+     * @param t scale of v
+     * @return this Vec3, moved by v * t
+     */
+    public Vec3 add(Vec3 v, double t) {
+        x += v.x * t;
+        y += v.y * t;
+        z += v.z * t;
+        return this;
+    }
+
+    /**
+     * @param v Vec3 to subtract
+     * @return this Vec3, moved by -v
+     */
+    public Vec3 subtract(Vec3 v) {
+        x -= v.x;
+        y -= v.y;
+        z -= v.z;
+        return this;
+    }
+
+    /**
+     * Sets this Vec3 to the difference of two others (the vector from b to a)
+     *
+     * @param a the head
+     * @param b the tail
+     * @return this Vec3
+     */
+    public Vec3 setSubtract(Vec3 a, Vec3 b) {
+        return set(a.x - b.x, a.y - b.y, a.z - b.z);
+    }
+
+    /**
+     * @param n scale
+     * @return this Vec3, scaled by n
+     */
+    public Vec3 scale(double n) {
+        x *= n;
+        y *= n;
+        z *= n;
+        return this;
+    }
+
+    /**
+     * @param v the other Vec3
+     * @return result of the dot product of the two vectors
+     */
+    public double dotProduct(Vec3 v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    /**
+     * Sets this Vec3 to the cross product of two others. This Vec3 may be one of
+     * them
+     *
+     * @param a first vector
+     * @param b second vector
+     * @return this Vec3, a x b
+     */
+    public Vec3 setCrossProduct(Vec3 a, Vec3 b) {
+        return set(a.y * b.z - a.z * b.y, a.z * b.x - a.x * b.z, a.x * b.y - a.y * b.x);
+    }
+
+    /**
+     * @return Squared length of the vector
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * @return Length of the vector
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * @param v the other point
+     * @return The squared distance between the two points
+     */
+    public double distanceSquared(Vec3 v) {
+        double dx = x - v.x, dy = y - v.y, dz = z - v.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * @param v the other point
+     * @return The distance between the two points
+     */
+    public double distance(Vec3 v) {
+        return Math.sqrt(distanceSquared(v));
+    }
+
+    /**
+     * Normalizes the vector. The zero vector is left as it is
+     *
+     * @return this Vec3
+     */
+    public Vec3 normalize() {
+        double length = length();
+        return length == 0 ? this : scale(1 / length);
+    }
+
+    /**
+     * @return a new {@link Point3D} with the coordinates of this Vec3
+     */
+    public Point3D toPoint3D() {
+        return new Point3D(x, y, z);
+    }
+
+    /**
+     * @return a new {@link Vector} with the coordinates of this Vec3
+     * @throws IllegalArgumentException if this is the zero vector
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
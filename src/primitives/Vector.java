@@ -98,24 +98,15 @@ public class Vector {
      */
     public Vector rotate(Vector axis, double angle) {
         angle = angle * Math.PI / 180; // convert to radians
-        Vector vec;
-        try {
-            vec = axis.crossProduct(this);
-        } catch (IllegalArgumentException e) {
-            return new Vector(this.head);
-        } // axis of rotation is parallel to rotating vector
-        if (isZero(sin(angle))) {
-            vec = scale(cos(angle));
-        } else if (isZero(cos(angle))) {
-            vec = vec.scale(sin(angle));
-        } else {
-            vec = vec.scale(sin(angle)).add(scale(cos(angle)));
-        }
-        try {
-            vec = vec.add(axis.scale(dotProduct(axis) * (1 - cos(angle))));
-        } catch (IllegalArgumentException e) {
-        }
-        return vec;
+        double c = cos(angle), s = sin(angle);
+        double x = head.x.coord, y = head.y.coord, z = head.z.coord;
+        double kx = axis.head.x.coord, ky = axis.head.y.coord, kz = axis.head.z.coord;
+        // Rodrigues' formula in doubles, so an axis parallel to the vector (where axis x v is zero) needs no
+        // special case
+        double dot = (kx * x + ky * y + kz * z) * (1 - c);
+        return new Vector(x * c + (ky * z - kz * y) * s + kx * dot, //
+                y * c + (kz * x - kx * z) * s + ky * dot, //
+                z * c + (kx * y - ky * x) * s + kz * dot);
     }
 
     /**
@@ -198,13 +189,33 @@ public class Vector {
         return new Vector(xVal, yVal, zVal);
     }
 
-    
+    /**
+     * Reflects the vector about a normal (v - 2(v.n)n). The reflection is
+     * calculated in doubles, so a vector orthogonal to the normal (whose normal
+     * part is zero) needs no special case
+     * 
+     * @param normal the unit normal to reflect about
+     * @return the reflected Vector, as long as this Vector
+     */
+    public Vector reflect(Vector normal) {
+        double x = head.x.coord, y = head.y.coord, z = head.z.coord;
+        double nx = normal.head.x.coord, ny = normal.head.y.coord, nz = normal.head.z.coord;
+        double d = 2 * (x * nx + y * ny + z * nz);
+        return new Vector(x - d * nx, y - d * ny, z - d * nz);
+    }
+
+    /**
+     * Finds a unit vector orthogonal to this vector, the cross product with the z
+     * axis, or with the negative y axis if this vector is parallel to the z axis
+     * 
+     * @return the orthogonal unit Vector
+     */
     public Vector calcVright() {
-        try {
-            return crossProduct(new Vector(0, 0, 1)).normalized();
-        } catch (IllegalArgumentException e) {
-            return crossProduct(new Vector(0, -1, 0)).normalized();
-        }
+        double x = head.x.coord, y = head.y.coord, z = head.z.coord;
+        // this x (0, 0, 1) is (y, -x, 0), which is zero when the vector is parallel to the z axis
+        if (isZero(x) && isZero(y))
+            return new Vector(z, 0, -x).normalize(); // this x (0, -1, 0)
+        return new Vector(y, -x, 0).normalize();
     }
 
     @Override
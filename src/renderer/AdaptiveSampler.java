@@ -0,0 +1,153 @@
+package renderer;
+
+import elements.Camera;
+import primitives.ColorAccumulator;
+
+/**
+ * AdaptiveSampler anti-aliases pixels by adaptive supersampling: a pixel is
+ * split into four quarters with a ray through a jittered point of every
+ * quarter (stratified sampling), and if the colors of the four rays are too
+ * different, i.e. the pixel is on an edge, every quarter is sampled again the
+ * same way, recursively, up to a maximal amount of levels. The sample of a
+ * quarter already lies in one of its own quarters, so it's reused there and
+ * only three new rays are traced. Flat pixels cost four rays and only the
+ * edges get more.<br>
+ * The jittered points depend only on the pixel and the sample, so renders are
+ * repeatable. A sampler keeps temporary colors, so every thread needs one of its
+ * own
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public final class AdaptiveSampler {
+
+    private final Camera camera;
+    private final RayTraceBase rayTracer;
+    private final int levels;
+    private final double threshold;
+
+    /**
+     * Colors of the four samples of every level
+     */
+    private final ColorAccumulator[][] samples;
+
+    /**
+     * Amount of rays traced so far
+     */
+    private long count = 0;
+
+    /**
+     * Constructor for a sampler
+     *
+     * @param camera    camera which constructs the rays
+     * @param rayTracer ray tracer which traces them
+     * @param levels    maximal amount of levels, so a pixel gets up to 4^levels
+     *                  rays
+     * @param threshold largest difference between the components of the colors of
+     *                  four samples that are averaged without sampling again
+     */
+    public AdaptiveSampler(Camera camera, RayTraceBase rayTracer, int levels, double threshold) {
+        if (camera == null || rayTracer == null)
+            throw new IllegalArgumentException("Camera and ray tracer must not be null");
+        if (levels < 1)
+            throw new IllegalArgumentException("Sampler must have at least one level");
+        if (threshold < 0)
+            throw new IllegalArgumentException("Threshold must not be negative");
+        this.camera = camera;
+        this.rayTracer = rayTracer;
+        this.levels = levels;
+        this.threshold = threshold;
+        samples = new ColorAccumulator[levels][4];
+        for (ColorAccumulator[] level : samples)
+            for (int q = 0; q < 4; ++q)
+                level[q] = new ColorAccumulator();
+    }
+
+    /**
+     * @return amount of rays traced by the sampler so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Samples a pixel and adds its color to an accumulator
+     *
+     * @param nX  amount of columns in the image
+     * @param nY  amount of rows in the image
+     * @param x   column of the pixel
+     * @param y   row of the pixel
+     * @param out accumulator the color is added to
+     * @return out
+     */
+    public ColorAccumulator sample(int nX, int nY, int x, int y, ColorAccumulator out) {
+        sample(nX, nY, x, y, x, y, 1, 0, 0, 1, -1, null, out);
+        return out;
+    }
+
+    /**
+     * Samples a square of a pixel, recursively
+     *
+     * @param nX     amount of columns in the image
+     * @param nY     amount of rows in the image
+     * @param px     column of the pixel
+     * @param py     row of the pixel
+     * @param x0     left edge of the square, in pixels
+     * @param y0     top edge of the square, in pixels
+     * @param size   width and height of the square, in pixels
+     * @param level  level of the square, 0 for the whole pixel
+     * @param node   index of the square in the tree of squares of the pixel, so
+     *               every sample of the pixel has an index of its own
+     * @param weight weight of the square in the pixel
+     * @param reused quarter of the square which holds the sample of the square
+     *               taken by the level above, -1 if there's none
+     * @param parent color of that sample
+     * @param out    accumulator the color is added to
+     */
+    private void sample(int nX, int nY, int px, int py, double x0, double y0, double size, int level, int node,
+            double weight, int reused, ColorAccumulator parent, ColorAccumulator out) {
+        ColorAccumulator[] colors = samples[level];
+        double half = size / 2;
+        for (int q = 0; q < 4; ++q) {
+            if (q == reused) {
+                colors[q].clear().add(parent);
+                continue;
+            }
+            int k = 4 * node + q;
+            double x = x0 + (q & 1) * half + half * Render.jitter(px, py, k, 0);
+            double y = y0 + (q >> 1) * half + half * Render.jitter(px, py, k, 1);
+            rayTracer.traceRay(camera.constructRayThroughPoint(nX, nY, x, y), 1, colors[q].clear());
+            ++count;
+        }
+
+        if (level + 1 < levels && contrast(colors) > threshold)
+            for (int q = 0; q < 4; ++q) { // the quarters of the children are the next 4 indices of the tree
+                int k = 4 * node + q;
+                int inner = (Render.jitter(px, py, k, 0) < .5 ? 0 : 1) | (Render.jitter(px, py, k, 1) < .5 ? 0 : 2);
+                sample(nX, nY, px, py, x0 + (q & 1) * half, y0 + (q >> 1) * half, half, level + 1, k + 1,
+                        weight / 4, inner, colors[q], out);
+            }
+        else
+            for (int q = 0; q < 4; ++q)
+                out.add(colors[q], weight / 4);
+    }
+
+    /**
+     * Calculates the largest difference between the components of four colors
+     *
+     * @param colors the colors
+     * @return the largest difference of the red, green or blue components
+     */
+    private static double contrast(ColorAccumulator[] colors) {
+        double minR = colors[0].r, maxR = minR, minG = colors[0].g, maxG = minG, minB = colors[0].b, maxB = minB;
+        for (int q = 1; q < 4; ++q) {
+            minR = Math.min(minR, colors[q].r);
+            maxR = Math.max(maxR, colors[q].r);
+            minG = Math.min(minG, colors[q].g);
+            maxG = Math.max(maxG, colors[q].g);
+            minB = Math.min(minB, colors[q].b);
+            maxB = Math.max(maxB, colors[q].b);
+        }
+        return Math.max(maxR - minR, Math.max(maxG - minG, maxB - minB));
+    }
+}
@@ -1,11 +1,11 @@
 package renderer;
 
-import java.util.LinkedList;
 import java.util.List;
 
-import elements.LightSource;
+import geometries.HitRecord;
 import geometries.Intersectable.GeoPoint;
 import primitives.Color;
+import primitives.ColorAccumulator;
 import primitives.Material;
 import primitives.Ray;
 import primitives.Vector;
@@ -51,6 +51,22 @@ public class BasicRayTracer extends RayTraceBase {
         this.DISTRIBUTION = dist;
     }
 
+    /**
+     * Hit record of every rendering thread, reused for all of its rays
+     */
+    private final ThreadLocal<HitRecord> hits = ThreadLocal.withInitial(HitRecord::new);
+
+    /**
+     * Shading context of every rendering thread for every level of the
+     * recursion, reused for all of its hits
+     */
+    private final ThreadLocal<ShadingContext[]> contexts = ThreadLocal.withInitial(() -> {
+        ShadingContext[] levels = new ShadingContext[MAX_CALC_COLOR_LEVEL + 1];
+        for (int i = 0; i < levels.length; ++i)
+            levels[i] = new ShadingContext();
+        return levels;
+    });
+
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double INITIAL_K = 1;
     private static final double MIN_CALC_COLOR_K = 0.001;
@@ -58,30 +74,57 @@ public class BasicRayTracer extends RayTraceBase {
 
     @Override
     public Color traceRay(Ray r) {
+        return traceRay(r, 1, new ColorAccumulator()).toColor();
+    }
+
+    /**
+     * Traces a ray without allocating any {@link Color}s, the colors of the lights,
+     * reflections and refractions are all summed into the accumulator
+     */
+    @Override
+    public ColorAccumulator traceRay(Ray r, double weight, ColorAccumulator out) {
         GeoPoint closest = findClosestIntersection(r);
-        return closest == null ? scene.background : calcColor(closest, r.getDir());
+        return closest == null ? out.add(scene.background, weight) : calcColor(closest, r.getDir(), weight, out);
+    }
+
+    /**
+     * Traces a packet of rays through the scene's geometries together
+     */
+    @Override
+    public Color[] traceRays(Ray[] rays) {
+        GeoPoint[] closest = scene.geometries.findClosestGeoIntersections(rays);
+        Color[] colors = new Color[rays.length];
+        ColorAccumulator color = new ColorAccumulator();
+        for (int i = 0; i < rays.length; ++i)
+            colors[i] = closest[i] == null ? scene.background
+                    : calcColor(closest[i], rays[i].getDir(), 1, color.clear()).toColor();
+        return colors;
     }
 
     /**
-     * Helper function to get list of intersections and return the closest one
+     * Helper function to find the closest intersection of a ray with the scene
      * @param r
      * @return
      */
     private GeoPoint findClosestIntersection(Ray r) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(r);
-        if (intersections == null) return null;
-        return r.findClosestGeoPoint(intersections);
+        HitRecord hit = hits.get().reset(Double.POSITIVE_INFINITY);
+        return scene.geometries.findClosestHit(r, hit) ? hit.toGeoPoint(r) : null;
     }
 
     /**
-     * Calculates the color of a given point
+     * Calculates the color of a given point and adds it to an accumulator
      * 
      * @param point
-     * @return The {@link Color} of the point
+     * @param weight scale of the color of the point
+     * @param out accumulator the color is added to
+     * @return out
      */
-    private Color calcColor(GeoPoint point, Vector incident, int rLevel, double k) {
-        Color color = point.geometry.getEmission().add(calcLocalEffects(point, incident, k));
-        return rLevel == 1 ? color : color.add(calcGlobalEffects(point, incident, rLevel, k));
+    private ColorAccumulator calcColor(GeoPoint point, Vector incident, int rLevel, double k, double weight,
+            ColorAccumulator out) {
+        ShadingContext context = contexts.get()[rLevel].reset(point, incident, scene.lights);
+        out.add(point.geometry.getEmission(), weight);
+        calcLocalEffects(context, k, weight, out);
+        return rLevel == 1 ? out : calcGlobalEffects(context, rLevel, k, weight, out);
     }
     /**
      * Base case of recursion. Adds ambient light to the point
@@ -89,80 +132,67 @@ public class BasicRayTracer extends RayTraceBase {
      * @param r
      * @return
      */
-    private Color calcColor(GeoPoint gp, Vector incident) {
-        return calcColor(gp, incident, MAX_CALC_COLOR_LEVEL, INITIAL_K)
-            .add(scene.ambientLight.getIntensity());
+    private ColorAccumulator calcColor(GeoPoint gp, Vector incident, double weight, ColorAccumulator out) {
+        return calcColor(gp, incident, MAX_CALC_COLOR_LEVEL, INITIAL_K, weight, out)
+            .add(scene.ambientLight.getIntensity(), weight);
     }
 
     /**
      * Calculates effects based on light sources and material
      * 
-     * @param intersection
-     * @param incident
+     * @param context the hit
      * @param k Scale of lighting
-     * @return {@link Color}
+     * @param weight scale of the color of the point
+     * @param out accumulator the color is added to
      */
-    private Color calcLocalEffects(GeoPoint intersection, Vector incident, double k) {
-        Vector n = intersection.geometry.getNormal(intersection.point);
-        double nv = alignZero(n.dotProduct(incident));
+    private void calcLocalEffects(ShadingContext context, double k, double weight, ColorAccumulator out) {
+        double nv = context.nv;
         if (nv == 0) { // ray is perpendicular to geometry (probably should never happen)
-            return Color.BLACK;
+            return;
         }
 
         // declares some variables to make code cleaner
-        int nShininess = intersection.geometry.getMaterial().nShininess;
-        double kd = intersection.geometry.getMaterial().kD;
-        double ks = intersection.geometry.getMaterial().kS;
+        Vector n = context.normal;
+        Material material = context.material;
 
-        Color color = Color.BLACK;
-        for (LightSource light : scene.lights) {
-            Vector l = light.getL(intersection.point);
+        for (int i = 0; i < context.lightCount(); ++i) {
+            Vector l = context.l(i);
             double nl = alignZero(n.dotProduct(l));
             if (nl * nv > 0) { // camera and light are on same side of geometry
-                double ktr = transparency(light, l, intersection);
+                double ktr = transparency(context, i, k);
                 if (ktr * k > MIN_CALC_COLOR_K) {
-                    Color intensity = light.getIntensity(intersection.point).scale(ktr);
-                    color = color.add(calcDiffusion(kd, l, n, intensity),
-                            calcSpecular(ks, l, n, incident, nShininess, intensity));
+                    double factor = calcDiffusion(material.kD, nl)
+                            + calcSpecular(material.kS, l, n, context.incident, material.nShininess);
+                    out.add(context.intensity(i), weight * ktr * factor);
                 }
             }
         }
-        return color;
     }
 
     /**
      * Method which determines an intersection points level of shade
      * 
-     * @param l            Vector from light source
-     * @param intersection the intersection point to be checked
-     */
-    private double transparency(LightSource source, Vector l, GeoPoint gp) {
-        Vector toLight = l.scale(-1);
-        Ray newToLight = Ray.constructRefractionRay(gp, toLight);
-
-        double lightDistance = source.getDistance(gp.point);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(newToLight, lightDistance);
-        if (intersections == null) return 1;
-        
-        double ktr = 1; //default scaling of shadow
-        for (GeoPoint p : intersections) {
-            ktr *= p.geometry.getMaterial().kT;
-            if (ktr < MIN_CALC_COLOR_K) return 0;
-        }
-        return ktr;
+     * @param context the hit
+     * @param i       index of the light
+     * @param k       Scale of lighting, shadows under MIN_CALC_COLOR_K / k are
+     *                considered fully blocked
+     */
+    private double transparency(ShadingContext context, int i, double k) {
+        Vector toLight = context.l(i).scale(-1);
+        Ray newToLight = Ray.constructRefractionRay(context.gp, toLight, context.normal);
+
+        return scene.geometries.findTransparency(newToLight, context.distance(i), MIN_CALC_COLOR_K / k);
     }
 
     /**
      * Calculates amount of diffusive light
      * 
      * @param kD
-     * @param fromLight
-     * @param normal
-     * @param lightIntensity
-     * @return {@link Color} of diffusive light
+     * @param nl normal . vector from the light
+     * @return scale of the light's intensity which is diffused
      */
-    private Color calcDiffusion(double kD, Vector fromLight, Vector normal, Color lightIntensity) {
-        return lightIntensity.scale(Math.abs(normal.dotProduct(fromLight) * kD));
+    private double calcDiffusion(double kD, double nl) {
+        return Math.abs(nl * kD);
     }
 
     /**
@@ -173,44 +203,38 @@ public class BasicRayTracer extends RayTraceBase {
      * @param normal
      * @param fromCamera
      * @param shininess
-     * @param lightIntensity
-     * @return {@link Color} of specular light
-     */
-    private Color calcSpecular(double kS, Vector fromLight, Vector normal, Vector fromCamera, int shininess,
-            Color lightIntensity) {
-        Vector reflection;
-        try {
-            reflection = fromLight.subtract(normal.scale(2 * normal.dotProduct(fromLight))).normalized();
-        } catch (IllegalArgumentException e) {
-            return Color.BLACK;
-        }
-        double vr = alignZero(reflection.dotProduct(fromCamera.scale(-1)));
+     * @return scale of the light's intensity which is reflected to the camera
+     */
+    private double calcSpecular(double kS, Vector fromLight, Vector normal, Vector fromCamera, int shininess) {
+        // both vectors are normalized, so the reflection is too
+        double vr = alignZero(-fromLight.reflect(normal).dotProduct(fromCamera));
         if (vr <= 0) {
-            return Color.BLACK;
+            return 0;
         }
-        return lightIntensity.scale(Math.pow(vr, shininess) * kS);
+        return Math.pow(vr, shininess) * kS;
     }
 
     /**
      * Calculates reflection and refraction lighting of intersection point
-     * @param gp
-     * @param incident
+     * @param context the hit
      * @param rLevel Maximum levels of recursion left
      * @param k Scale effect of current calculations on the pixel color
-     * @return
+     * @param weight scale of the color of the point
+     * @param out accumulator the color is added to
+     * @return out
      */
-    private Color calcGlobalEffects(GeoPoint gp, Vector incident, int rLevel, double k) {
-        Color color = Color.BLACK;
-        Material material = gp.geometry.getMaterial();
+    private ColorAccumulator calcGlobalEffects(ShadingContext context, int rLevel, double k, double weight,
+            ColorAccumulator out) {
+        Material material = context.material;
         double kkR = k * material.kR;
         if (kkR > MIN_CALC_COLOR_K) {
-            color = calcGlobalEffect(Ray.constructReflectionRays(gp, incident, material.glossiness, DISTRIBUTION, N), rLevel, material.kR, kkR);
+            calcGlobalEffect(Ray.constructReflectionRays(context.gp, context.incident, context.normal, material.glossiness, DISTRIBUTION, N), rLevel, material.kR, kkR, weight, out);
         }
         double kkT = k * material.kT;
         if (kkT > MIN_CALC_COLOR_K) {
-            color = color.add(calcGlobalEffect(Ray.constructRefractionRays(gp, incident, material.glossiness, DISTRIBUTION, N), rLevel, material.kT, kkT));
+            calcGlobalEffect(Ray.constructRefractionRays(context.gp, context.incident, context.normal, material.glossiness, DISTRIBUTION, N), rLevel, material.kT, kkT, weight, out);
         }
-        return color;
+        return out;
     }
 
     /**
@@ -219,32 +243,34 @@ public class BasicRayTracer extends RayTraceBase {
      * @param rLevel Maximum levels of recursion left
      * @param kX Scale effect of calculation
      * @param kkX Total scale effect on final pixel color
-     * @return
+     * @param weight scale of the color of the point the ray leaves
+     * @param out accumulator the color is added to
      */
-    private Color calcGlobalEffect(Ray r, int rLevel, double kX, double kkX) {
+    private void calcGlobalEffect(Ray r, int rLevel, double kX, double kkX, double weight, ColorAccumulator out) {
         GeoPoint gp = findClosestIntersection(r);
-        return gp == null ? scene.background : calcColor(gp, r.getDir(), rLevel - 1, kkX).scale(kX);
+        if (gp == null)
+            out.add(scene.background, kX * weight);
+        else
+            calcColor(gp, r.getDir(), rLevel - 1, kkX, kX * weight, out);
     }
 
-    private Color calcGlobalEffect(List<Ray> rays, int rLevel, double kX, double kkX) {
-        List<Color> colors = new LinkedList<>();
-        Ray previousRay = rays.get(0);
-        Color previousColor = calcGlobalEffect(previousRay, rLevel, kX, kkX);
+    /**
+     * Calculates the average Color of a beam of reflection/refraction rays, a run
+     * of equal rays is traced once with the weight of all of them
+     */
+    private void calcGlobalEffect(List<Ray> rays, int rLevel, double kX, double kkX, double weight,
+            ColorAccumulator out) {
+        double rayWeight = weight / rays.size();
+        Ray previousRay = null;
+        int count = 0;
         for (Ray r : rays) {
-            if (!r.equals(previousRay)) {
-                previousRay = r;
-                previousColor = calcGlobalEffect(r, rLevel, kX, kkX);
+            if (count > 0 && !r.equals(previousRay)) {
+                calcGlobalEffect(previousRay, rLevel, kX, kkX, rayWeight * count, out);
+                count = 0;
             }
-            colors.add(previousColor);
-        }
-        return mixColors(colors);
-    }
-
-    private Color mixColors(List<Color> colors) {
-        Color all = Color.BLACK;
-        for (Color c : colors) {
-            all = all.add(c);
+            previousRay = r;
+            ++count;
         }
-        return all.reduce(colors.size());
+        calcGlobalEffect(previousRay, rLevel, kX, kkX, rayWeight * count, out);
     }
 }
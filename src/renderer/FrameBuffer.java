@@ -0,0 +1,135 @@
+package renderer;
+
+import java.util.Arrays;
+
+import primitives.Color;
+import primitives.ColorAccumulator;
+
+/**
+ * FrameBuffer holds the high dynamic range colors of a render, three floats per
+ * pixel without an upper limit, until they are written to an
+ * {@link ImageWriter} and cut to 8 bits. Samples are added to the pixels
+ * directly, so several samples of a pixel need no objects of their own.<br>
+ * The buffer isn't synchronized: the threads of a render must add to different
+ * pixels at the same time, as they do when every pixel (or block of pixels) is
+ * handed out to a single thread
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class FrameBuffer {
+
+    private final int nX;
+    private final int nY;
+
+    /**
+     * RGB of every pixel, row by row
+     */
+    private final float[] pixels;
+
+    /**
+     * Constructor for a black frame buffer
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     */
+    public FrameBuffer(int nX, int nY) {
+        if (nX < 1 || nY < 1)
+            throw new IllegalArgumentException("Frame buffer must have at least one pixel");
+        this.nX = nX;
+        this.nY = nY;
+        pixels = new float[nX * nY * 3];
+    }
+
+    /**
+     * @return the amount of horizontal pixels
+     */
+    public int getNx() {
+        return nX;
+    }
+
+    /**
+     * @return the amount of vertical pixels
+     */
+    public int getNy() {
+        return nY;
+    }
+
+    /**
+     * Sets the color of a pixel
+     *
+     * @param x     X axis index of the pixel
+     * @param y     Y axis index of the pixel
+     * @param color color of the pixel
+     */
+    public void set(int x, int y, ColorAccumulator color) {
+        int i = 3 * (y * nX + x);
+        pixels[i] = (float) color.r;
+        pixels[i + 1] = (float) color.g;
+        pixels[i + 2] = (float) color.b;
+    }
+
+    /**
+     * Sets the color of a pixel
+     *
+     * @param x     X axis index of the pixel
+     * @param y     Y axis index of the pixel
+     * @param color color of the pixel
+     */
+    public void set(int x, int y, Color color) {
+        int i = 3 * (y * nX + x);
+        pixels[i] = (float) color.getR();
+        pixels[i + 1] = (float) color.getG();
+        pixels[i + 2] = (float) color.getB();
+    }
+
+    /**
+     * Adds a weighted sample to a pixel, e.g. one of several rays through it
+     *
+     * @param x      X axis index of the pixel
+     * @param y      Y axis index of the pixel
+     * @param color  color of the sample
+     * @param weight weight of the sample
+     */
+    public void add(int x, int y, ColorAccumulator color, double weight) {
+        int i = 3 * (y * nX + x);
+        pixels[i] += (float) (color.r * weight);
+        pixels[i + 1] += (float) (color.g * weight);
+        pixels[i + 2] += (float) (color.b * weight);
+    }
+
+    /**
+     * Reads the color of a pixel
+     *
+     * @param x   X axis index of the pixel
+     * @param y   Y axis index of the pixel
+     * @param out accumulator to write the color to
+     * @return out
+     */
+    public ColorAccumulator get(int x, int y, ColorAccumulator out) {
+        int i = 3 * (y * nX + x);
+        return out.set(pixels[i], pixels[i + 1], pixels[i + 2]);
+    }
+
+    /**
+     * Resets all the pixels to black
+     */
+    public void clear() {
+        Arrays.fill(pixels, 0);
+    }
+
+    /**
+     * Writes all the pixels to an image, cutting every component to 8 bits
+     *
+     * @param imageWriter image of the same size as the buffer
+     * @param scale       scale of the colors, e.g. 1 / amount of samples added to
+     *                    every pixel
+     */
+    public void writeTo(ImageWriter imageWriter, double scale) {
+        if (imageWriter.getNx() != nX || imageWriter.getNy() != nY)
+            throw new IllegalArgumentException("Image size doesn't match the frame buffer");
+        for (int y = 0, i = 0; y < nY; ++y)
+            for (int x = 0; x < nX; ++x, i += 3)
+                imageWriter.writePixel(x, y, pixels[i] * scale, pixels[i + 1] * scale, pixels[i + 2] * scale);
+    }
+}
@@ -97,6 +97,23 @@ public class ImageWriter {
 		image.setRGB(xIndex, yIndex, color.getColor().getRGB());
 	}
 
+	/**
+	 * The function writePixel writes a color of a specific pixel into pixel color
+	 * matrix, any component bigger than 255 is set to 255
+	 * 
+	 * @param xIndex X axis index of the pixel
+	 * @param yIndex Y axis index of the pixel
+	 * @param r      red component of the pixel
+	 * @param g      green component of the pixel
+	 * @param b      blue component of the pixel
+	 */
+	public void writePixel(int xIndex, int yIndex, double r, double g, double b) {
+		int ir = Math.min((int) r, 255);
+		int ig = Math.min((int) g, 255);
+		int ib = Math.min((int) b, 255);
+		image.setRGB(xIndex, yIndex, (ir << 16) | (ig << 8) | ib);
+	}
+
 	/**
 	 * Default printGrid prints black grid
 	 * @param interval
@@ -1,6 +1,7 @@
 package renderer;
 
 import primitives.Color;
+import primitives.ColorAccumulator;
 import primitives.Ray;
 import scene.Scene;
 
@@ -29,4 +30,30 @@ public abstract class RayTraceBase {
      * @param r the Ray being used to get the color of the objects in the scene
      */
     public abstract Color traceRay(Ray r);
+
+    /**
+     * Traces a ray and adds its color to an accumulator, e.g. one of several
+     * samples of a pixel
+     * 
+     * @param r      the Ray being traced
+     * @param weight scale of the color of the ray
+     * @param out    accumulator the color is added to
+     * @return out
+     */
+    public ColorAccumulator traceRay(Ray r, double weight, ColorAccumulator out) {
+        return out.add(traceRay(r), weight);
+    }
+
+    /**
+     * Traces a packet of rays, e.g. the rays of neighbouring pixels
+     * 
+     * @param rays the Rays being traced
+     * @return the color of every ray
+     */
+    public Color[] traceRays(Ray[] rays) {
+        Color[] colors = new Color[rays.length];
+        for (int i = 0; i < rays.length; ++i)
+            colors[i] = traceRay(rays[i]);
+        return colors;
+    }
 }
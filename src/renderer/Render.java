@@ -1,9 +1,16 @@
 package renderer;
 
 import java.util.MissingResourceException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import elements.Camera;
 import primitives.Color;
+import primitives.ColorAccumulator;
 import primitives.Ray;
 import scene.Scene;
 
@@ -19,149 +26,416 @@ public class Render {
 
 	RayTraceBase rayTracer;
 
+	/**
+	 * HDR colors of the last render, written to the image writer when it's done
+	 */
+	private FrameBuffer frameBuffer;
+
 	private int _threads = 1;
 	private final int SPARE_THREADS = 2;
 	private boolean _print = false;
+	private int _packetSize = 1;
+	private int _tileSize = 16;
+	private TileOrder _tileOrder = TileOrder.HILBERT;
+	private ExecutorService _executor = null;
+	private Executor _ioExecutor = null;
+	private int _progressiveStep = 8;
+	private int _progressiveSamples = 1;
+	private int _samplingLevels = 0;
+	private double _samplingThreshold = 0;
 
 	/**
-	 * Pixel is an internal helper class whose objects are associated with a Render
-	 * object that they are generated in scope of. It is used for multithreading in
-	 * the Renderer and for follow up its progress.<br/>
-	 * There is a main follow up object and several secondary objects - one in each
-	 * thread.
-	 * 
-	 * @author Dan
-	 *
+	 * Listener which is called after every pass of a progressive render
 	 */
-	private class Pixel {
-		private long _maxRows = 0;
-		private long _maxCols = 0;
-		private long _pixels = 0;
-		public volatile int row = 0;
-		public volatile int col = -1;
-		private long _counter = 0;
-		private int _percents = 0;
-		private long _nextCounter = 0;
-
+	@FunctionalInterface
+	public interface PassListener {
 		/**
-		 * The constructor for initializing the main follow up Pixel object
-		 * 
-		 * @param maxRows the amount of pixel rows
-		 * @param maxCols the amount of pixel columns
+		 * @param pass    number of the pass, from 1
+		 * @param step    width and height in pixels of the blocks that share a
+		 *                sample, 1 once every pixel is traced
+		 * @param samples amount of samples of every traced pixel
+		 * @param frame   the frame so far; the next pass changes it, so it must be
+		 *                copied (or written to an image) before returning
 		 */
-		public Pixel(int maxRows, int maxCols) {
-			_maxRows = maxRows;
-			_maxCols = maxCols;
-			_pixels = maxRows * maxCols;
-			_nextCounter = _pixels / 100;
-			if (Render.this._print)
-				System.out.printf("\r %02d%%", _percents);
-		}
+		void passDone(int pass, int step, int samples, FrameBuffer frame);
+	}
 
-		/**
-		 * Default constructor for secondary Pixel objects
-		 */
-		public Pixel() {
-		}
+	/**
+	 * Progress is an internal helper class which counts the rendered pixels of a
+	 * frame and prints the percentage when it changes, if debug printing is on
+	 */
+	private class Progress {
+		private final long _pixels;
+		private final AtomicLong _done = new AtomicLong();
+		private final AtomicInteger _percents = new AtomicInteger();
 
 		/**
-		 * Internal function for thread-safe manipulating of main follow up Pixel object
-		 * - this function is critical section for all the threads, and main Pixel
-		 * object data is the shared data of this critical section.<br/>
-		 * The function provides next pixel number each call.
-		 * 
-		 * @param target target secondary Pixel object to copy the row/column of the
-		 *               next pixel
-		 * @return the progress percentage for follow up: if it is 0 - nothing to print,
-		 *         if it is -1 - the task is finished, any other value - the progress
-		 *         percentage (only when it changes)
+		 * @param pixels amount of pixels in the frame
 		 */
-		private synchronized int nextP(Pixel target) {
-			++col;
-			++_counter;
-			if (col < _maxCols) {
-				target.row = this.row;
-				target.col = this.col;
-				if (_counter == _nextCounter) {
-					++_percents;
-					_nextCounter = _pixels * (_percents + 1) / 100;
-					return _percents;
-				}
-				return 0;
-			}
-			++row;
-			if (row < _maxRows) {
-				col = 0;
-				if (_counter == _nextCounter) {
-					++_percents;
-					_nextCounter = _pixels * (_percents + 1) / 100;
-					return _percents;
-				}
-				return 0;
-			}
-			return -1;
+		Progress(long pixels) {
+			_pixels = pixels;
+			if (_print)
+				System.out.printf("\r %02d%%", 0);
 		}
 
 		/**
-		 * Public function for getting next pixel number into secondary Pixel object.
-		 * The function prints also progress percentage in the console window.
+		 * Counts rendered pixels
 		 * 
-		 * @param target target secondary Pixel object to copy the row/column of the
-		 *               next pixel
-		 * @return true if the work still in progress, -1 if it's done
+		 * @param pixels amount of pixels that were rendered
 		 */
-		public boolean nextPixel(Pixel target) {
-			int percents = nextP(target);
-			if (percents > 0)
-				if (Render.this._print)
-					System.out.printf("\r %02d%%", percents);
-			if (percents >= 0)
-				return true;
-			// if (Render.this._print) System.out.printf("\r %02d%%", 100);
-			return false;
+		void add(long pixels) {
+			if (!_print)
+				return;
+			int percents = (int) (_done.addAndGet(pixels) * 100 / _pixels);
+			int last = _percents.get();
+			if (percents > last && _percents.compareAndSet(last, percents))
+				System.out.printf("\r %02d%%", percents);
 		}
 	}
 
 	/**
 	 * This function renders image's pixel color map from the scene included with
-	 * the Renderer object
+	 * the Renderer object, and waits until it's done
 	 */
 	public void renderImage() {
+		TileScheduler.join(renderImageAsync());
+	}
+
+	/**
+	 * This function starts rendering image's pixel color map from the scene
+	 * included with the Renderer object, on the executor of the Render or, if it
+	 * has none, on threads of its own. The Render must not be changed until the
+	 * render is done
+	 * 
+	 * @return future which completes with the {@link FrameBuffer} of the render
+	 *         once it's written to the image writer, or with the exception that
+	 *         stopped the render
+	 */
+	public CompletableFuture<FrameBuffer> renderImageAsync() {
 		if (imageWriter == null || camera == null || rayTracer == null)
 			throw new MissingResourceException("One of the Rendering components is null", null, null);
 
-		long startTime = System.nanoTime();
+		final long startTime = System.nanoTime();
 
 		final int nX = imageWriter.getNx();
 		final int nY = imageWriter.getNy();
 
-		final Pixel thePixel = new Pixel(nY, nX);
+		// in packet mode the tiles are split into blocks of pixels, so they're aligned to the blocks
+		final int size = _packetSize;
+		final TileScheduler scheduler = new TileScheduler(nX, nY, _tileSize, size, _tileOrder);
+		final Progress progress = new Progress((long) nX * nY);
+		final FrameBuffer buffer = frameBuffer = new FrameBuffer(nX, nY);
+		final ImageWriter writer = imageWriter;
 
-		// Generate threads
-		Thread[] threads = new Thread[_threads];
-		for (int i = _threads - 1; i >= 0; --i) {
-			threads[i] = new Thread(() -> {
-				Pixel pixel = new Pixel();
-				while (thePixel.nextPixel(pixel)) {
-					Ray r = camera.constructRayThroughPixel(nX, nY, pixel.col, pixel.row);
-					imageWriter.writePixel(pixel.col, pixel.row, rayTracer.traceRay(r));
-				}
-			});
+		final int levels = _samplingLevels;
+		final double threshold = _samplingThreshold;
+
+		final ExecutorService executor = _executor != null ? _executor : new ForkJoinPool(_threads);
+		CompletableFuture<Void> tiles = scheduler.render(executor, _threads, (x0, y0, x1, y1) -> {
+			if (levels > 0) {
+				AdaptiveSampler sampler = new AdaptiveSampler(camera, rayTracer, levels, threshold);
+				ColorAccumulator color = new ColorAccumulator();
+				for (int row = y0; row < y1; ++row)
+					for (int col = x0; col < x1; ++col)
+						buffer.set(col, row, sampler.sample(nX, nY, col, row, color.clear()));
+			} else if (size == 1) {
+				ColorAccumulator color = new ColorAccumulator();
+				for (int row = y0; row < y1; ++row)
+					for (int col = x0; col < x1; ++col) {
+						Ray r = camera.constructRayThroughPixel(nX, nY, col, row);
+						buffer.set(col, row, rayTracer.traceRay(r, 1, color.clear()));
+					}
+			} else
+				for (int row = y0; row < y1; row += size)
+					for (int col = x0; col < x1; col += size)
+						renderPacket(buffer, nX, nY, col, row);
+			progress.add((long) (x1 - x0) * (y1 - y0));
+		});
+		if (_executor == null)
+			tiles = tiles.whenComplete((v, e) -> executor.shutdown());
+
+		return tiles.thenApply(v -> {
+			buffer.writeTo(writer, 1);
+			if (_print)
+				System.out.printf("\r finished " + writer.getImageName() + ".png ("
+						+ ((System.nanoTime() - startTime) / 1000000000.0) + " seconds)\n");// ("\r100%%\n");
+			return buffer;
+		});
+	}
+
+	/**
+	 * This function renders image's pixel color map progressively, and waits
+	 * until it's done
+	 * 
+	 * @param listener called after every pass, may be null
+	 * @see #renderProgressiveAsync(PassListener)
+	 */
+	public void renderProgressive(PassListener listener) {
+		TileScheduler.join(renderProgressiveAsync(listener));
+	}
+
+	/**
+	 * This function starts rendering image's pixel color map progressively: the
+	 * first pass traces one pixel of every block of step x step pixels (see
+	 * {@link #setProgressive(int, int)}) and fills the block with its color, and
+	 * every following pass halves the blocks, tracing only the pixels that weren't
+	 * traced yet. Once every pixel is traced, every pass doubles the amount of
+	 * samples of every pixel at jittered points within it, up to the amount of
+	 * samples. The listener gets the frame after every pass, e.g. to show a
+	 * preview.<br>
+	 * Packets aren't used in progressive mode. The Render must not be changed
+	 * until the render is done
+	 * 
+	 * @param listener called after every pass, may be null
+	 * @return future which completes with the {@link FrameBuffer} of the render
+	 *         once it's written to the image writer, or with the exception that
+	 *         stopped the render
+	 */
+	public CompletableFuture<FrameBuffer> renderProgressiveAsync(PassListener listener) {
+		if (imageWriter == null || camera == null || rayTracer == null)
+			throw new MissingResourceException("One of the Rendering components is null", null, null);
+
+		final long startTime = System.nanoTime();
+
+		final int nX = imageWriter.getNx();
+		final int nY = imageWriter.getNy();
+
+		// the tiles are aligned to the first blocks, so every block is in a single tile
+		final int firstStep = _progressiveStep;
+		final int samples = _progressiveSamples;
+		final TileScheduler scheduler = new TileScheduler(nX, nY, _tileSize, firstStep, _tileOrder);
+		final FrameBuffer sum = new FrameBuffer(nX, nY); // sum of the samples of every traced pixel
+		final FrameBuffer frame = frameBuffer = new FrameBuffer(nX, nY);
+		final ImageWriter writer = imageWriter;
+
+		final ExecutorService executor = _executor != null ? _executor : new ForkJoinPool(_threads);
+		CompletableFuture<Void> passes = CompletableFuture.completedFuture(null);
+		int pass = 0;
+		for (int step = firstStep; step >= 1; step /= 2) {
+			final int s = step, p = ++pass;
+			passes = passes.thenCompose(v -> scheduler.render(executor, _threads,
+					(x0, y0, x1, y1) -> traceBlocks(sum, frame, nX, nY, x0, y0, x1, y1, s, s < firstStep)));
+			if (listener != null)
+				passes = passes.thenRun(() -> listener.passDone(p, s, 1, frame));
 		}
+		for (int count = 1; count < samples;) {
+			final int first = count, p = ++pass;
+			count += Math.min(count, samples - count);
+			final int total = count;
+			passes = passes.thenCompose(v -> scheduler.render(executor, _threads,
+					(x0, y0, x1, y1) -> traceSamples(sum, frame, nX, nY, x0, y0, x1, y1, first, total)));
+			if (listener != null)
+				passes = passes.thenRun(() -> listener.passDone(p, 1, total, frame));
+		}
+		if (_executor == null)
+			passes = passes.whenComplete((v, e) -> executor.shutdown());
 
-		// Start threads
-		for (Thread thread : threads)
-			thread.start();
+		return passes.thenApply(v -> {
+			frame.writeTo(writer, 1);
+			if (_print)
+				System.out.printf("\r finished " + writer.getImageName() + ".png ("
+						+ ((System.nanoTime() - startTime) / 1000000000.0) + " seconds)\n");
+			return frame;
+		});
+	}
 
-		// Wait for all threads to finish
-		for (Thread thread : threads)
-			try {
-				thread.join();
-			} catch (Exception e) {
+	/**
+	 * Traces the top left pixel of every block of step x step pixels of a
+	 * rectangle of the image, and fills the blocks with their colors
+	 * 
+	 * @param sum   sums of the samples of the traced pixels
+	 * @param frame the frame
+	 * @param nX    amount of columns in the image
+	 * @param nY    amount of rows in the image
+	 * @param x0    first column, a multiple of step
+	 * @param y0    first row, a multiple of step
+	 * @param x1    column after the last one
+	 * @param y1    row after the last one
+	 * @param step  width and height of the blocks
+	 * @param skip  whether to skip the pixels of the blocks twice as big, which
+	 *              were traced by the pass before
+	 */
+	private void traceBlocks(FrameBuffer sum, FrameBuffer frame, int nX, int nY, int x0, int y0, int x1, int y1,
+			int step, boolean skip) {
+		ColorAccumulator color = new ColorAccumulator();
+		for (int y = y0; y < y1; y += step)
+			for (int x = x0; x < x1; x += step) {
+				if (skip && x % (2 * step) == 0 && y % (2 * step) == 0)
+					continue;
+				rayTracer.traceRay(camera.constructRayThroughPixel(nX, nY, x, y), 1, color.clear());
+				sum.set(x, y, color);
+				for (int by = y; by < Math.min(y + step, y1); ++by)
+					for (int bx = x; bx < Math.min(x + step, x1); ++bx)
+						frame.set(bx, by, color);
+			}
+	}
+
+	/**
+	 * Adds samples at jittered points to every pixel of a rectangle of the image,
+	 * and sets the pixels of the frame to the averages of their samples
+	 * 
+	 * @param sum   sums of the samples of the pixels
+	 * @param frame the frame
+	 * @param nX    amount of columns in the image
+	 * @param nY    amount of rows in the image
+	 * @param x0    first column
+	 * @param y0    first row
+	 * @param x1    column after the last one
+	 * @param y1    row after the last one
+	 * @param first index of the first sample to add (the amount of samples so
+	 *              far)
+	 * @param total amount of samples after the pass
+	 */
+	private void traceSamples(FrameBuffer sum, FrameBuffer frame, int nX, int nY, int x0, int y0, int x1, int y1,
+			int first, int total) {
+		ColorAccumulator color = new ColorAccumulator();
+		for (int y = y0; y < y1; ++y)
+			for (int x = x0; x < x1; ++x) {
+				for (int k = first; k < total; ++k) {
+					Ray r = camera.constructRayThroughPoint(nX, nY, x + jitter(x, y, k, 0), y + jitter(x, y, k, 1));
+					sum.add(x, y, rayTracer.traceRay(r, 1, color.clear()), 1);
+				}
+				frame.set(x, y, sum.get(x, y, color).scale(1d / total));
 			}
-		if (_print)
-			System.out.printf("\r finished " + imageWriter.getImageName() + ".png ("
-					+ ((System.nanoTime() - startTime) / 1000000000.0) + " seconds)\n");// ("\r100%%\n");
+	}
+
+	/**
+	 * Calculates a pseudo random offset within a pixel, which depends only on the
+	 * pixel and the sample (not on the thread that traces it), so progressive
+	 * renders are repeatable
+	 * 
+	 * @param x    column of the pixel
+	 * @param y    row of the pixel
+	 * @param k    index of the sample
+	 * @param axis 0 for the horizontal offset, 1 for the vertical
+	 * @return offset between 0 (inclusive) and 1 (exclusive)
+	 */
+	static double jitter(int x, int y, int k, int axis) {
+		// SplitMix64 finalizer over the pixel, the sample and the axis
+		long z = ((long) y * 0x632BE59BD9B4E019L + x) * 0x9E3779B97F4A7C15L + 2L * k + axis;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return ((z ^ (z >>> 31)) >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * Traces the block of pixels starting at the given pixel as a single packet of
+	 * rays
+	 * 
+	 * @param buffer frame buffer of the render
+	 * @param nX     amount of columns in the image
+	 * @param nY     amount of rows in the image
+	 * @param col    column of the top left pixel of the block
+	 * @param row    row of the top left pixel of the block
+	 */
+	private void renderPacket(FrameBuffer buffer, int nX, int nY, int col, int row) {
+		int cols = Math.min(_packetSize, nX - col);
+		int rows = Math.min(_packetSize, nY - row);
+		Ray[] rays = new Ray[cols * rows];
+		for (int i = 0; i < rows; ++i)
+			for (int j = 0; j < cols; ++j)
+				rays[i * cols + j] = camera.constructRayThroughPixel(nX, nY, col + j, row + i);
+		Color[] colors = rayTracer.traceRays(rays);
+		for (int i = 0; i < rows; ++i)
+			for (int j = 0; j < cols; ++j)
+				buffer.set(col + j, row + i, colors[i * cols + j]);
+	}
+
+	/**
+	 * Getter for the HDR colors of the last render, before they were cut to 8
+	 * bits
+	 * 
+	 * @return the {@link FrameBuffer} of the last render, null before the first
+	 */
+	public FrameBuffer getFrameBuffer() {
+		return frameBuffer;
+	}
+
+	/**
+	 * Set packet tracing - neighbouring primary rays are traced together in
+	 * square blocks of pixels<br>
+	 * - 1 traces every ray on its own
+	 * 
+	 * @param size width and height of the blocks in pixels (up to 8, so a block
+	 *             is at most 64 rays)
+	 * @return the Render object itself
+	 */
+	public Render setPacketSize(int size) {
+		if (size < 1 || size > 8)
+			throw new IllegalArgumentException("Packet size must be between 1 and 8");
+		_packetSize = size;
+		return this;
+	}
+
+	/**
+	 * Set the size of the tiles the image is split into - every thread renders a
+	 * tile at a time
+	 * 
+	 * @param size width and height of the tiles in pixels, rounded up to a
+	 *             multiple of the packet size
+	 * @return the Render object itself
+	 */
+	public Render setTileSize(int size) {
+		if (size < 1)
+			throw new IllegalArgumentException("Tile size must be positive");
+		_tileSize = size;
+		return this;
+	}
+
+	/**
+	 * Set the order in which the tiles are rendered
+	 * 
+	 * @param order the order, {@link TileOrder#HILBERT} by default
+	 * @return the Render object itself
+	 */
+	public Render setTileOrder(TileOrder order) {
+		if (order == null)
+			throw new IllegalArgumentException("Tile order must not be null");
+		_tileOrder = order;
+		return this;
+	}
+
+	/**
+	 * Set adaptive supersampling (anti-aliasing) - every pixel is sampled by four
+	 * rays through jittered points of its quarters, and quarters whose rays differ
+	 * by more than the threshold are sampled again the same way (see
+	 * {@link AdaptiveSampler})<br>
+	 * - 0 levels traces a single ray through the center of every pixel<br>
+	 * - packets aren't used while it's on
+	 * 
+	 * @param levels    maximal amount of levels, so a pixel gets up to 4^levels
+	 *                  rays
+	 * @param threshold largest difference between the components of the colors
+	 *                  of four rays that are averaged without sampling again
+	 * @return the Render object itself
+	 */
+	public Render setAdaptiveSampling(int levels, double threshold) {
+		if (levels < 0)
+			throw new IllegalArgumentException("Sampling levels must be 0 or higher");
+		if (threshold < 0)
+			throw new IllegalArgumentException("Sampling threshold must not be negative");
+		_samplingLevels = levels;
+		_samplingThreshold = threshold;
+		return this;
+	}
+
+	/**
+	 * Set the passes of a progressive render
+	 * 
+	 * @param step    width and height in pixels of the blocks of the first pass,
+	 *                a power of two
+	 * @param samples amount of samples of every pixel after the last pass
+	 * @return the Render object itself
+	 * @see #renderProgressiveAsync(PassListener)
+	 */
+	public Render setProgressive(int step, int samples) {
+		if (step < 1 || Integer.bitCount(step) != 1)
+			throw new IllegalArgumentException("Progressive step must be a power of two");
+		if (samples < 1)
+			throw new IllegalArgumentException("Progressive samples must be positive");
+		_progressiveStep = step;
+		_progressiveSamples = samples;
+		return this;
 	}
 
 	/**
@@ -186,6 +460,33 @@ public class Render {
 		return this;
 	}
 
+	/**
+	 * Set an executor to render on, e.g. a pool shared by several renders, instead
+	 * of threads created for every render<br>
+	 * - on a {@link ForkJoinPool} the threads steal tiles from each other, on any
+	 * other executor the amount of threads set by
+	 * {@link #setMultithreading(int)} take the tiles one by one
+	 * 
+	 * @param executor the executor, or null to create threads for every render
+	 * @return the Render object itself
+	 */
+	public Render setExecutor(ExecutorService executor) {
+		_executor = executor;
+		return this;
+	}
+
+	/**
+	 * Set an executor for writing images in {@link #writeToImageAsync()}, e.g. a
+	 * pool of threads for blocking I/O
+	 * 
+	 * @param executor the executor, or null for the common pool
+	 * @return the Render object itself
+	 */
+	public Render setIoExecutor(Executor executor) {
+		_ioExecutor = executor;
+		return this;
+	}
+
 	/**
 	 * Set debug printing on
 	 * 
@@ -261,4 +562,18 @@ public class Render {
 		} else
 			throw new MissingResourceException("imageWriter has a null value", null, null);
 	}
+
+	/**
+	 * Method calls {@link ImageWriter} method of writeToImage() on the I/O
+	 * executor, assuming that it is not a null value
+	 * 
+	 * @return future which completes when the image is written
+	 */
+	public CompletableFuture<Void> writeToImageAsync() {
+		if (imageWriter == null)
+			throw new MissingResourceException("imageWriter has a null value", null, null);
+		ImageWriter writer = imageWriter;
+		return _ioExecutor == null ? CompletableFuture.runAsync(writer::writeToImage)
+				: CompletableFuture.runAsync(writer::writeToImage, _ioExecutor);
+	}
 }
@@ -0,0 +1,130 @@
+package renderer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import elements.LightSource;
+import geometries.Intersectable.GeoPoint;
+import primitives.Color;
+import primitives.Material;
+import primitives.Vector;
+
+import static primitives.Util.alignZero;
+
+/**
+ * ShadingContext holds everything about a single hit that the shading of the
+ * hit needs more than once: the normal (which some geometries, e.g. a
+ * {@link geometries.Tube}, calculate at a cost), the side of the surface the ray
+ * comes from, the material and, for every light, the vector from the light, the
+ * distance to it and its intensity at the point. It's passed through the local
+ * and global effects, and the light values are only calculated for the lights
+ * which need them.<br>
+ * A context is reset for every hit, so every thread keeps one for every level
+ * of the recursion, like a {@link geometries.HitRecord}
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+final class ShadingContext {
+
+    /**
+     * The hit
+     */
+    GeoPoint gp;
+
+    /**
+     * Direction of the ray that hit the point
+     */
+    Vector incident;
+
+    /**
+     * Normal of the geometry at the point
+     */
+    Vector normal;
+
+    /**
+     * normal . incident, aligned to zero: its sign is the side of the surface the
+     * ray comes from, and it's zero if the ray only grazes the surface
+     */
+    double nv;
+
+    /**
+     * Material of the geometry
+     */
+    Material material;
+
+    private LightSource[] lights = new LightSource[0];
+    private Vector[] l = new Vector[0];
+    private double[] distances = new double[0];
+    private Color[] intensities = new Color[0];
+
+    /**
+     * Sets the context to a hit and calculates its normal. The lights are read
+     * for every hit, so lights changed between renders (or a scene replaced in
+     * the ray tracer) are used, and the arrays only grow when the amount of
+     * lights changes
+     *
+     * @param gp       the hit
+     * @param incident direction of the ray that hit the point
+     * @param lights   the lights of the scene
+     * @return the context itself
+     */
+    ShadingContext reset(GeoPoint gp, Vector incident, List<LightSource> lights) {
+        int n = lights.size();
+        if (n != this.lights.length) {
+            this.lights = new LightSource[n];
+            l = new Vector[n];
+            distances = new double[n];
+            intensities = new Color[n];
+        }
+        int i = 0;
+        for (LightSource light : lights)
+            this.lights[i++] = light;
+        this.gp = gp;
+        this.incident = incident;
+        normal = gp.geometry.getNormal(gp.point);
+        nv = alignZero(normal.dotProduct(incident));
+        material = gp.geometry.getMaterial();
+        Arrays.fill(l, null);
+        Arrays.fill(distances, 0);
+        Arrays.fill(intensities, null);
+        return this;
+    }
+
+    /**
+     * @return amount of lights
+     */
+    int lightCount() {
+        return lights.length;
+    }
+
+    /**
+     * @param i index of the light
+     * @return vector from the light to the point
+     */
+    Vector l(int i) {
+        if (l[i] == null)
+            l[i] = lights[i].getL(gp.point);
+        return l[i];
+    }
+
+    /**
+     * @param i index of the light
+     * @return distance from the point to the light
+     */
+    double distance(int i) {
+        if (distances[i] == 0)
+            distances[i] = lights[i].getDistance(gp.point);
+        return distances[i];
+    }
+
+    /**
+     * @param i index of the light
+     * @return intensity of the light at the point
+     */
+    Color intensity(int i) {
+        if (intensities[i] == null)
+            intensities[i] = lights[i].getIntensity(gp.point, l(i), distance(i));
+        return intensities[i];
+    }
+}
@@ -0,0 +1,28 @@
+package renderer;
+
+/**
+ * Order in which the {@link TileScheduler} hands out the tiles of an image.
+ * Neighbouring tiles see mostly the same geometries, so an order which keeps
+ * consecutive tiles close to each other keeps more of the scene in the caches
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public enum TileOrder {
+    /**
+     * Row by row, left to right
+     */
+    SCANLINE,
+
+    /**
+     * Along a Z-order (Morton) curve: every 2x2 block of tiles is done before the
+     * next one, recursively
+     */
+    Z_ORDER,
+
+    /**
+     * Along a Hilbert curve, like {@link #Z_ORDER} but every tile is a neighbour
+     * of the one before it
+     */
+    HILBERT
+}
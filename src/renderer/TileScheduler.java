@@ -0,0 +1,344 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TileScheduler splits an image into square tiles and renders them on a
+ * {@link ForkJoinPool}, its own or a shared one. The tiles are ordered along a
+ * {@link TileOrder} curve and handed out by halving the range of tiles
+ * recursively, so every thread works through a run of neighbouring tiles and
+ * idle threads steal the biggest halves left, without a shared counter.
+ * Near the end of a frame, when threads run out of tiles, a tile which is
+ * still waiting is split into quarters so the last (slow) tiles are shared
+ * too.<br>
+ * Tiles and their quarters are aligned to a given amount of pixels, e.g. the
+ * size of the ray packets
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public final class TileScheduler {
+
+    /**
+     * Renders a rectangle of pixels, from (x0, y0) inclusive to (x1, y1) exclusive
+     */
+    @FunctionalInterface
+    public interface TileRenderer {
+        /**
+         * @param x0 first column
+         * @param y0 first row
+         * @param x1 column after the last one
+         * @param y1 row after the last one
+         */
+        void render(int x0, int y0, int x1, int y1);
+    }
+
+    private final int nX;
+    private final int nY;
+    private final int tileSize;
+    private final int align;
+
+    /**
+     * Column and row of the top left pixel of every tile, in the order they're
+     * handed out
+     */
+    private final int[] tiles;
+
+    /**
+     * Constructor which orders the tiles of an image
+     *
+     * @param nX       amount of columns in the image
+     * @param nY       amount of rows in the image
+     * @param tileSize width and height of the tiles in pixels, rounded up to a
+     *                 multiple of align
+     * @param align    tiles are only split at multiples of this amount of pixels
+     * @param order    order of the tiles
+     */
+    public TileScheduler(int nX, int nY, int tileSize, int align, TileOrder order) {
+        if (nX < 1 || nY < 1)
+            throw new IllegalArgumentException("Image must have at least one pixel");
+        if (tileSize < 1 || align < 1)
+            throw new IllegalArgumentException("Tile size and alignment must be positive");
+        if (order == null)
+            throw new IllegalArgumentException("Tile order must not be null");
+        this.nX = nX;
+        this.nY = nY;
+        this.align = align;
+        this.tileSize = (tileSize + align - 1) / align * align;
+
+        int cols = (nX + this.tileSize - 1) / this.tileSize;
+        int rows = (nY + this.tileSize - 1) / this.tileSize;
+        int side = Integer.highestOneBit(Math.max(cols, rows) - 1) << 1; // power of two covering the tiles
+        long[] keys = new long[cols * rows];
+        for (int ty = 0, i = 0; ty < rows; ++ty)
+            for (int tx = 0; tx < cols; ++tx, ++i)
+                keys[i] = key(order, tx, ty, cols, Math.max(side, 1)) << 32 | i;
+        Arrays.sort(keys);
+        tiles = new int[2 * keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            int tile = (int) keys[i];
+            tiles[2 * i] = tile % cols * this.tileSize;
+            tiles[2 * i + 1] = tile / cols * this.tileSize;
+        }
+    }
+
+    /**
+     * @return amount of tiles
+     */
+    public int getTileCount() {
+        return tiles.length / 2;
+    }
+
+    /**
+     * @return width and height of the tiles in pixels (the tiles at the right
+     *         and bottom edges may be smaller)
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @param i index of a tile in the order they're handed out
+     * @return column of the top left pixel of the tile
+     */
+    public int getTileX(int i) {
+        return tiles[2 * i];
+    }
+
+    /**
+     * @param i index of a tile in the order they're handed out
+     * @return row of the top left pixel of the tile
+     */
+    public int getTileY(int i) {
+        return tiles[2 * i + 1];
+    }
+
+    /**
+     * Renders all the tiles, every pixel exactly once, on a pool of its own and
+     * waits until they're done. An exception thrown by the renderer is thrown
+     * from here
+     *
+     * @param threads  amount of threads
+     * @param renderer renders the tiles (and parts of tiles), called by all the
+     *                 threads at the same time
+     */
+    public void render(int threads, TileRenderer renderer) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            join(render(pool, threads, renderer));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Starts rendering all the tiles, every pixel exactly once, on an executor.
+     * On a {@link ForkJoinPool} the threads steal tiles from each other and split
+     * the last ones; on any other executor the given amount of workers take the
+     * tiles one by one, in order
+     *
+     * @param executor    runs the rendering, e.g. a pool shared by several renders
+     * @param parallelism amount of workers to start on an executor which isn't a
+     *                    {@link ForkJoinPool}
+     * @param renderer    renders the tiles (and parts of tiles), called by all the
+     *                    threads at the same time
+     * @return future which completes when all the tiles are rendered, or with the
+     *         first exception thrown by the renderer
+     */
+    public CompletableFuture<Void> render(Executor executor, int parallelism, TileRenderer renderer) {
+        if (executor == null)
+            throw new IllegalArgumentException("Executor must not be null");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive");
+        if (executor instanceof ForkJoinPool)
+            return CompletableFuture.runAsync(() -> new TileRange(0, getTileCount(), renderer).invoke(), executor);
+
+        AtomicInteger next = new AtomicInteger();
+        int count = getTileCount();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, count)];
+        for (int w = 0; w < workers.length; ++w)
+            workers[w] = CompletableFuture.runAsync(() -> {
+                try {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        int x = tiles[2 * i], y = tiles[2 * i + 1];
+                        renderer.render(x, y, Math.min(x + tileSize, nX), Math.min(y + tileSize, nY));
+                    }
+                } catch (RuntimeException | Error e) {
+                    next.set(count); // stop the other workers
+                    throw e;
+                }
+            }, executor);
+        return CompletableFuture.allOf(workers);
+    }
+
+    /**
+     * Waits for a future and throws the exception it completed with as is,
+     * instead of wrapped in a {@link CompletionException}
+     *
+     * @param <T>    type of the result
+     * @param future the future
+     * @return the result of the future
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Calculates the position of a tile along the curve of the order
+     *
+     * @param order the order
+     * @param tx    column of the tile
+     * @param ty    row of the tile
+     * @param cols  amount of columns of tiles
+     * @param side  power of two which is at least the amount of columns and rows
+     * @return key which sorts the tiles in the order
+     */
+    private static long key(TileOrder order, int tx, int ty, int cols, int side) {
+        switch (order) {
+        case Z_ORDER:
+            return expandBits(tx) | expandBits(ty) << 1;
+        case HILBERT:
+            return hilbert(tx, ty, side);
+        default:
+            return (long) ty * cols + tx;
+        }
+    }
+
+    /**
+     * Spreads the 16 lower bits of a value so there's a zero between every two
+     * bits
+     */
+    private static long expandBits(int v) {
+        long x = v & 0xFFFF;
+        x = (x | x << 8) & 0x00FF00FFL;
+        x = (x | x << 4) & 0x0F0F0F0FL;
+        x = (x | x << 2) & 0x33333333L;
+        return (x | x << 1) & 0x55555555L;
+    }
+
+    /**
+     * Calculates the distance of a cell along the Hilbert curve which fills a
+     * square grid
+     *
+     * @param x    column of the cell
+     * @param y    row of the cell
+     * @param side width of the grid, a power of two
+     * @return distance along the curve
+     */
+    private static long hilbert(int x, int y, int side) {
+        long d = 0;
+        for (int s = side / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) { // rotate the quadrant so the curve continues from the one before it
+                if (rx == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Task which renders a range of the tiles, halving it until a single tile is
+     * left
+     */
+    @SuppressWarnings("serial")
+    private class TileRange extends RecursiveAction {
+        private final int first;
+        private final int end;
+        private final TileRenderer renderer;
+
+        TileRange(int first, int end, TileRenderer renderer) {
+            this.first = first;
+            this.end = end;
+            this.renderer = renderer;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - first > 1) {
+                int mid = (first + end) >>> 1;
+                invokeAll(new TileRange(first, mid, renderer), new TileRange(mid, end, renderer));
+                return;
+            }
+            int x = tiles[2 * first], y = tiles[2 * first + 1];
+            new Region(x, y, Math.min(x + tileSize, nX), Math.min(y + tileSize, nY), renderer).compute();
+        }
+    }
+
+    /**
+     * Task which renders a rectangle of a tile, splitting it into quarters if
+     * other threads are idle
+     */
+    @SuppressWarnings("serial")
+    private class Region extends RecursiveAction {
+        private final int x0, y0, x1, y1;
+        private final TileRenderer renderer;
+
+        Region(int x0, int y0, int x1, int y1, TileRenderer renderer) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.renderer = renderer;
+        }
+
+        @Override
+        protected void compute() {
+            if ((x1 - x0 > align || y1 - y0 > align) && idleThreads()) {
+                int xm = split(x0, x1), ym = split(y0, y1);
+                List<Region> quarters = new ArrayList<>(4);
+                quarters.add(new Region(x0, y0, xm, ym, renderer));
+                if (xm < x1)
+                    quarters.add(new Region(xm, y0, x1, ym, renderer));
+                if (ym < y1)
+                    quarters.add(new Region(x0, ym, xm, y1, renderer));
+                if (xm < x1 && ym < y1)
+                    quarters.add(new Region(xm, ym, x1, y1, renderer));
+                invokeAll(quarters);
+            } else
+                renderer.render(x0, y0, x1, y1);
+        }
+
+        /**
+         * @return whether this thread has no other work waiting and some threads
+         *         of the pool are idle, i.e. it's the end of the frame
+         */
+        private boolean idleThreads() {
+            ForkJoinPool pool = getPool();
+            return getSurplusQueuedTaskCount() <= 0 && pool.getActiveThreadCount() < pool.getParallelism();
+        }
+
+        /**
+         * @return an aligned column (or row) between a and b which splits them about
+         *         in half, or b if they're too close to split
+         */
+        private int split(int a, int b) {
+            if (b - a <= align)
+                return b;
+            return a + Math.max(align, (b - a) / 2 / align * align);
+        }
+    }
+}
@@ -6,6 +6,9 @@ import java.util.List;
 import elements.AmbientLight;
 import elements.LightSource;
 import geometries.Geometries;
+import geometries.HierarchyBuilder;
+import geometries.HierarchyCache;
+import geometries.SAHBuilder;
 import primitives.Color;
 
 public class Scene {
@@ -51,4 +54,58 @@ public class Scene {
         return this;
     }
 
+    public Scene createHierarchy(HierarchyBuilder builder) {
+        setGeometries(geometries.createHierarchy(builder));
+        return this;
+    }
+
+    public Scene createFlatHierarchy() {
+        setGeometries(geometries.createFlatHierarchy());
+        return this;
+    }
+
+    public Scene createFlatHierarchy(HierarchyBuilder builder) {
+        setGeometries(geometries.createFlatHierarchy(builder));
+        return this;
+    }
+
+    public Scene createFlatHierarchy(HierarchyCache cache) {
+        return createFlatHierarchy(cache, new SAHBuilder());
+    }
+
+    public Scene createFlatHierarchy(HierarchyCache cache, HierarchyBuilder builder) {
+        setGeometries(cache.getFlatHierarchy(geometries, builder));
+        return this;
+    }
+
+    public Scene createQuantizedHierarchy() {
+        setGeometries(geometries.createQuantizedHierarchy());
+        return this;
+    }
+
+    public Scene createQuantizedHierarchy(HierarchyBuilder builder) {
+        setGeometries(geometries.createQuantizedHierarchy(builder));
+        return this;
+    }
+
+    public Scene createWideHierarchy() {
+        setGeometries(geometries.createWideHierarchy());
+        return this;
+    }
+
+    public Scene createWideHierarchy(HierarchyBuilder builder) {
+        setGeometries(geometries.createWideHierarchy(builder));
+        return this;
+    }
+
+    public Scene createDynamicHierarchy() {
+        setGeometries(geometries.createDynamicHierarchy());
+        return this;
+    }
+
+    public Scene createDynamicHierarchy(HierarchyBuilder builder) {
+        setGeometries(geometries.createDynamicHierarchy(builder));
+        return this;
+    }
+
 }
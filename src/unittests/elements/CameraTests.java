@@ -55,6 +55,32 @@ public class CameraTests {
 
 	}
 
+	/**
+	 * Test method for
+	 * {@link elements.Camera#constructRayThroughPoint(int, int, double, double)}.
+	 */
+	@Test
+	public void testConstructRayThroughPoint() {
+		Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0)).setDistance(10)
+				.setViewPlaneSize(8, 8);
+
+		// ============ Equivalence Partitions Tests ==============
+		// TC01: 4X4 point inside pixel (1,0)
+		assertEquals("Bad ray", new Ray(Point3D.ZERO, new Vector(-1.5, -3.5, 10)),
+				camera.constructRayThroughPoint(4, 4, 1.25, .25));
+
+		// =============== Boundary Values Tests ==================
+		// TC11: the centers of the pixels are the rays through the pixels
+		for (int i = 0; i < 3; ++i)
+			for (int j = 0; j < 3; ++j)
+				assertEquals("Bad ray through the center of a pixel", camera.constructRayThroughPixel(3, 3, j, i),
+						camera.constructRayThroughPoint(3, 3, j + .5, i + .5));
+
+		// TC12: corner of the view plane
+		assertEquals("Bad ray", new Ray(Point3D.ZERO, new Vector(-4, -4, 10)),
+				camera.constructRayThroughPoint(4, 4, 0, 0));
+	}
+
 	/**
 	 * Unit tests for {@link Camera} rotations
 	 */
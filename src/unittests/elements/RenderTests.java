@@ -1,6 +1,15 @@
 package unittests.elements;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
@@ -102,4 +111,144 @@ public class RenderTests {
 		render.printGrid(100, new Color(java.awt.Color.WHITE));
 		render.writeToImage();
 	}
+
+	/**
+	 * Test rendering on executors shared by several renders, which must give the
+	 * same image as a render on threads of its own
+	 */
+	@Test
+	public void renderOnExecutor() {
+		Scene scene = new Scene("Test scene")//
+				.setAmbientLight(new AmbientLight(new Color(255, 191, 191), 1)) //
+				.setBackground(new Color(75, 127, 90));
+		scene.geometries.add(new Sphere(new Point3D(0, 0, -100), 50),
+				new Triangle(new Point3D(-100, 0, -100), new Point3D(0, 100, -100), new Point3D(-100, 100, -100)));
+
+		Render render = new Render() //
+				.setImageWriter(new ImageWriter("executor render test", 100, 100)) //
+				.setCamera(camera) //
+				.setRayTracer(new BasicRayTracer(scene)) //
+				.setTileSize(8);
+		render.renderImage();
+		FrameBuffer expected = render.getFrameBuffer();
+
+		ExecutorService fixed = Executors.newFixedThreadPool(3);
+		ForkJoinPool shared = new ForkJoinPool(2);
+		try {
+			// TC01: executor which isn't a fork join pool, shared by two renders at the
+			// same time
+			Render other = new Render() //
+					.setImageWriter(new ImageWriter("executor render test 2", 100, 100)) //
+					.setCamera(camera) //
+					.setRayTracer(new BasicRayTracer(scene)) //
+					.setTileSize(8);
+			render.setExecutor(fixed).setMultithreading(3);
+			other.setExecutor(fixed).setMultithreading(3);
+			CompletableFuture<FrameBuffer> first = render.renderImageAsync();
+			CompletableFuture<FrameBuffer> second = other.renderImageAsync();
+			assertFrameBuffer(expected, first.join());
+			assertFrameBuffer(expected, second.join());
+
+			// TC02: shared fork join pool, in packets
+			render.setExecutor(shared).setPacketSize(4);
+			assertFrameBuffer(expected, render.renderImageAsync().join());
+		} finally {
+			fixed.shutdown();
+			shared.shutdown();
+		}
+	}
+
+	/**
+	 * Test progressive rendering: the passes, the frame once every pixel is traced
+	 * and the repeatability of the jittered samples
+	 */
+	@Test
+	public void renderProgressive() {
+		Scene scene = new Scene("Test scene")//
+				.setAmbientLight(new AmbientLight(new Color(255, 191, 191), 1)) //
+				.setBackground(new Color(75, 127, 90));
+		scene.geometries.add(new Sphere(new Point3D(0, 0, -100), 50),
+				new Triangle(new Point3D(-100, 0, -100), new Point3D(0, 100, -100), new Point3D(-100, 100, -100)));
+
+		Render render = new Render() //
+				.setImageWriter(new ImageWriter("progressive render test", 50, 50)) //
+				.setCamera(camera) //
+				.setRayTracer(new BasicRayTracer(scene));
+		render.renderImage();
+		FrameBuffer expected = render.getFrameBuffer();
+
+		// TC01: the passes halve the blocks, then double the samples
+		List<String> passes = new ArrayList<>();
+		render.setProgressive(8, 4).renderProgressive((pass, step, samples, frame) -> {
+			passes.add(pass + ":" + step + ":" + samples);
+			if (step == 1 && samples == 1) // every pixel is traced once, at its center
+				assertFrameBuffer(expected, frame);
+		});
+		assertEquals("wrong passes", List.of("1:8:1", "2:4:1", "3:2:1", "4:1:1", "5:1:2", "6:1:4"), passes);
+
+		// TC02: the same samples on more threads
+		FrameBuffer first = render.getFrameBuffer();
+		render.setMultithreading(3).renderProgressive(null);
+		assertFrameBuffer(first, render.getFrameBuffer());
+
+		// TC03: the first step must be a power of two
+		try {
+			render.setProgressive(6, 1);
+			fail("setProgressive() should throw for a step which isn't a power of two");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Test rendering with adaptive supersampling, which must keep the colors of
+	 * flat pixels
+	 */
+	@Test
+	public void renderAdaptiveSampling() {
+		Scene scene = new Scene("Test scene")//
+				.setAmbientLight(new AmbientLight(new Color(255, 191, 191), 1)) //
+				.setBackground(new Color(75, 127, 90));
+		scene.geometries.add(new Sphere(new Point3D(0, 0, -100), 50));
+
+		Render render = new Render() //
+				.setImageWriter(new ImageWriter("adaptive sampling render test", 50, 50)) //
+				.setCamera(camera) //
+				.setRayTracer(new BasicRayTracer(scene));
+		render.renderImage();
+		FrameBuffer plain = render.getFrameBuffer();
+		render.setAdaptiveSampling(3, 10).renderImage();
+		FrameBuffer sampled = render.getFrameBuffer();
+
+		// TC01: pixels of the background and of the middle of the sphere are flat
+		ColorAccumulator e = new ColorAccumulator(), a = new ColorAccumulator();
+		for (int[] p : new int[][] { { 0, 0 }, { 25, 25 } }) {
+			plain.get(p[0], p[1], e);
+			sampled.get(p[0], p[1], a);
+			assertEquals("wrong red of a flat pixel", e.r, a.r, 1e-4);
+			assertEquals("wrong green of a flat pixel", e.g, a.g, 1e-4);
+			assertEquals("wrong blue of a flat pixel", e.b, a.b, 1e-4);
+		}
+
+		// TC02: levels must not be negative
+		try {
+			render.setAdaptiveSampling(-1, 10);
+			fail("setAdaptiveSampling() should throw for negative levels");
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	/**
+	 * Asserts that two frame buffers have the same colors
+	 */
+	private static void assertFrameBuffer(FrameBuffer expected, FrameBuffer actual) {
+		ColorAccumulator e = new ColorAccumulator(), a = new ColorAccumulator();
+		for (int y = 0; y < expected.getNy(); ++y)
+			for (int x = 0; x < expected.getNx(); ++x) {
+				expected.get(x, y, e);
+				actual.get(x, y, a);
+				assertEquals("wrong red at " + x + "," + y, e.r, a.r, 1e-4);
+				assertEquals("wrong green at " + x + "," + y, e.g, a.g, 1e-4);
+				assertEquals("wrong blue at " + x + "," + y, e.b, a.b, 1e-4);
+			}
+	}
 }
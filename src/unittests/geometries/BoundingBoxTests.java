@@ -13,6 +13,7 @@ import elements.SpotLight;
 import geometries.BoundingBox;
 import geometries.Cylinder;
 import geometries.Geometries;
+import geometries.Intersectable.GeoPoint;
 import geometries.Plane;
 import geometries.Polygon;
 import geometries.Sphere;
@@ -91,6 +92,38 @@ public class BoundingBoxTests {
 
         }
 
+        /**
+         * unit test for the closest hit of boxes with two children and with more,
+         * nested in each other
+         */
+        @Test
+        public void closestHitTest() {
+                Sphere[] spheres = new Sphere[6];
+                for (int i = 0; i < spheres.length; ++i)
+                        spheres[i] = new Sphere(new Point3D(i * 3 - 8, i % 2 * 2, -i * 4), 1.5);
+                Geometries flat = new Geometries(spheres);
+                // binary boxes holding the farther child first, and boxes of three children
+                // nested in each other
+                BoundingBox box = new BoundingBox(new BoundingBox(new BoundingBox(spheres[5]), new BoundingBox(spheres[0])),
+                                new BoundingBox(new BoundingBox(spheres[1]), new BoundingBox(spheres[2]),
+                                                new BoundingBox(spheres[3], spheres[4])),
+                                new BoundingBox(spheres[4]));
+
+                for (int i = -12; i <= 12; ++i)
+                        for (int j = -4; j <= 4; ++j) {
+                                Ray ray = new Ray(new Point3D(0, 0, 20), new Vector(i, j, -20));
+                                GeoPoint expected = flat.findClosestGeoIntersection(ray);
+                                GeoPoint actual = box.findClosestGeoIntersection(ray);
+                                assertEquals("Wrong closest point for ray " + ray, expected == null ? null : expected.point,
+                                                actual == null ? null : actual.point);
+                        }
+
+                // ray from the far side, which reverses the order of the children
+                Ray ray = new Ray(new Point3D(-8, 0, -30), new Vector(0, 0, 1));
+                assertEquals("Wrong closest point from the far side", new Point3D(-8, 0, -1.5),
+                                box.findClosestGeoIntersection(ray).point);
+        }
+
         @Test
         public void performanceTestManyObjects() {
 
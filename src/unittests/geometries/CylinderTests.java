@@ -77,4 +77,20 @@ public class CylinderTests {
                 assertEquals("ray hits cap and edge", List.of(new Point3D(0, 3, -4), new Point3D(0, 0, -1)),
                                 c.findIntersections(new Ray(new Point3D(0, -1, 0), new Vector(0, 1, -1))));
         }
+
+        /**
+         * Unit test for the bounds of a {@link Cylinder}
+         */
+        @Test
+        public void testBounds() {
+                // TC01: Cylinder along the y axis
+                Cylinder c = new Cylinder(5, new Ray(new Point3D(0, 0, 5), new Vector(0, 7, 0)), 30);
+                assertEquals("getMinPoint() returned a wrong point", new Point3D(-5, 0, 0), c.getMinPoint());
+                assertEquals("getMaxPoint() returned a wrong point", new Point3D(5, 30, 10), c.getMaxPoint());
+
+                // TC02: Cylinder pointing down the z axis
+                c = new Cylinder(3, new Ray(new Point3D(0, 0, -1), new Vector(0, 0, -1)), 10);
+                assertEquals("getMinPoint() returned a wrong point", new Point3D(-3, -3, -11), c.getMinPoint());
+                assertEquals("getMaxPoint() returned a wrong point", new Point3D(3, 3, -1), c.getMaxPoint());
+        }
 }
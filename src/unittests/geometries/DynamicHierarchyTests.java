@@ -0,0 +1,158 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import geometries.*;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link DynamicHierarchy} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class DynamicHierarchyTests {
+
+    private static final Vector DOWN = new Vector(0, 0, -1);
+
+    /**
+     * Creates a row of ten small spheres along the x axis and a plane under them
+     */
+    private Geometries row() {
+        Geometries geometries = new Geometries(new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -100)));
+        for (int i = 0; i < 10; ++i)
+            geometries.add(new Sphere(new Point3D(10 * i, 0, 0), 1));
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link geometries.DynamicHierarchy#add(Intersectable...)}
+     */
+    @Test
+    public void testAdd() {
+        DynamicHierarchy dynamic = row().createDynamicHierarchy();
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: inserted sphere next to the row
+        dynamic.add(new Sphere(new Point3D(45, 0, 0), 1));
+        assertEquals("Wrong closest point of inserted sphere", new Point3D(45, 0, 1),
+                dynamic.findClosestGeoIntersection(new Ray(new Point3D(45, 0, 10), DOWN)).point);
+
+        // TC02: inserted sphere far outside the root box
+        dynamic.add(new Sphere(new Point3D(0, 500, 0), 1));
+        assertEquals("Wrong closest point of sphere outside the root", new Point3D(0, 500, 1),
+                dynamic.findClosestGeoIntersection(new Ray(new Point3D(0, 500, 10), DOWN)).point);
+
+        // TC03: the original spheres are still found
+        assertEquals("Wrong amount of intersections with original sphere", 3,
+                dynamic.findIntersections(new Ray(new Point3D(70, 0, 10), DOWN)).size());
+
+        // =============== Boundary Values Tests ==================
+        // TC04: inserting into an empty hierarchy
+        dynamic = new Geometries().createDynamicHierarchy();
+        dynamic.add(new Sphere(Point3D.ZERO, 1), new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -10)));
+        assertEquals("Wrong amount of intersections in filled hierarchy", 3,
+                dynamic.findIntersections(new Ray(new Point3D(0, 0, 10), DOWN)).size());
+    }
+
+    /**
+     * Test method for {@link geometries.DynamicHierarchy#remove(Intersectable)}
+     */
+    @Test
+    public void testRemove() {
+        Sphere sphere = new Sphere(new Point3D(200, 0, 0), 1);
+        Plane plane = new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -10));
+        DynamicHierarchy dynamic = new Geometries(sphere, plane).createDynamicHierarchy();
+        Ray ray = new Ray(new Point3D(200, 0, 10), DOWN);
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: removed sphere isn't intersected anymore
+        assertTrue("Sphere wasn't removed", dynamic.remove(sphere));
+        assertEquals("Removed sphere is still intersected", List.of(new Point3D(200, 0, -10)),
+                dynamic.findIntersections(ray));
+
+        // TC02: removed unbounded geometry
+        assertTrue("Plane wasn't removed", dynamic.remove(plane));
+        assertNull("Removed plane is still intersected", dynamic.findIntersections(ray));
+
+        // =============== Boundary Values Tests ==================
+        // TC03: geometry that isn't in the hierarchy
+        assertFalse("Removed a geometry that isn't in the hierarchy", dynamic.remove(sphere));
+
+        // TC04: moving a geometry by removing and inserting it again
+        dynamic = row().createDynamicHierarchy();
+        Sphere moved = new Sphere(new Point3D(0, 0, 0), 1);
+        dynamic.add(moved);
+        dynamic.remove(moved);
+        dynamic.add(new Sphere(new Point3D(0, 50, 0), 1));
+        assertEquals("Wrong closest point of moved sphere", new Point3D(0, 50, 1),
+                dynamic.findClosestGeoIntersection(new Ray(new Point3D(0, 50, 10), DOWN)).point);
+    }
+
+    /**
+     * Test method for {@link geometries.DynamicHierarchy#refit()}
+     */
+    @Test
+    public void testRefit() {
+        Geometries object = new Geometries(new Sphere(Point3D.ZERO, 1));
+        DynamicHierarchy dynamic = new Geometries().createDynamicHierarchy();
+        dynamic.add(object, new Sphere(new Point3D(10, 0, 0), 1));
+        object.add(new Sphere(new Point3D(0, 30, 0), 1));
+        Ray ray = new Ray(new Point3D(0, 30, 10), DOWN);
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: the changed object is outside of its old bounds until refit
+        assertNull("Box shouldn't contain the object before refit", dynamic.findGeoIntersections(ray));
+        dynamic.refit();
+        assertEquals("Wrong closest point after refit", new Point3D(0, 30, 1),
+                dynamic.findClosestGeoIntersection(ray).point);
+    }
+
+    /**
+     * Test method for {@link geometries.DynamicHierarchy#getCost()}
+     */
+    @Test
+    public void testGetCost() {
+        Geometries single = new Geometries(new Sphere(Point3D.ZERO, 1));
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: a single leaf costs its box and its geometry
+        assertEquals("Wrong cost of a single leaf", 2, single.createDynamicHierarchy().getCost(), 0.00001);
+
+        // TC02: the cost ratio of the builder weighs the box
+        assertEquals("Cost should use the cost ratio of the builder", 4,
+                single.createDynamicHierarchy(new SAHBuilder().setCostRatio(3)).getCost(), 0.00001);
+    }
+
+    /**
+     * Test method for {@link geometries.DynamicHierarchy#update()}
+     */
+    @Test
+    public void testUpdate() {
+        Geometries[] objects = new Geometries[50];
+        DynamicHierarchy dynamic = new Geometries().createDynamicHierarchy();
+        for (int i = 0; i < 50; ++i)
+            dynamic.add(objects[i] = new Geometries(new Sphere(new Point3D(i * 3, 0, 0), 1)));
+        dynamic.rebuild();
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: unchanged hierarchy isn't rebuilt
+        assertEquals("Built hierarchy should not be degraded", 1, dynamic.getDegradation(), 0.00001);
+        assertFalse("Unchanged hierarchy shouldn't be rebuilt", dynamic.update());
+
+        // TC02: objects stretching across the scene degrade the refit tree until it's rebuilt
+        for (int i = 0; i < 50; ++i)
+            objects[i].add(new Sphere(new Point3D((i * 37) % 150, 0, 0), 1));
+        assertTrue("Degraded hierarchy should be rebuilt", dynamic.update());
+        assertEquals("Rebuilt hierarchy should not be degraded", 1, dynamic.getDegradation(), 0.00001);
+        assertEquals("Wrong closest point after rebuild", new Point3D(37, 0, 1),
+                dynamic.findClosestGeoIntersection(new Ray(new Point3D(37, 0, 10), DOWN)).point);
+    }
+}
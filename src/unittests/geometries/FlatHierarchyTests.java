@@ -0,0 +1,267 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link FlatHierarchy} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class FlatHierarchyTests {
+
+    /**
+     * @return a plane, a sphere, a triangle and nested geometries holding a
+     *         sphere behind a polygon, the scene shared by the tests of every
+     *         compiled hierarchy
+     */
+    static Geometries scene() {
+        return new Geometries(new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -100)),
+                new Sphere(new Point3D(0, 0, -10), 5),
+                new Triangle(new Point3D(-50, -50, 0), new Point3D(-40, -50, 0), new Point3D(-50, -40, 0)),
+                new Geometries(new Sphere(new Point3D(30, 30, -10), 5),
+                        new Polygon(new Point3D(20, 20, 20), new Point3D(40, 20, 20), new Point3D(40, 40, 20),
+                                new Point3D(20, 40, 20))));
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.FlatHierarchy#findGeoIntersections(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindIntersections() {
+        FlatHierarchy flat = scene().createFlatHierarchy();
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: ray through the nested sphere, the polygon and the plane
+        Ray ray = new Ray(new Point3D(30, 30, 50), new Vector(0, 0, -1));
+        assertEquals("Wrong amount of intersections", 4, flat.findIntersections(ray).size());
+
+        // TC02: limit cuts off the sphere and the plane
+        assertEquals("Wrong intersections within limit", List.of(new Point3D(30, 30, 20)),
+                flat.findIntersections(ray, 35));
+
+        // TC03: ray that misses every finite geometry and the plane
+        ray = new Ray(new Point3D(100, 100, 50), new Vector(0, 0, 1));
+        assertNull("Ray shouldn't intersect", flat.findIntersections(ray));
+
+        // TC04: diagonal ray which only hits the first sphere
+        ray = new Ray(new Point3D(10, 10, 0), new Vector(-1, -1, -1));
+        assertEquals("Wrong intersections of diagonal ray", scene().findIntersections(ray, 50).size(),
+                flat.findIntersections(ray, 50).size());
+
+        // =============== Boundary Values Tests ==================
+        // TC05: only unbounded geometries
+        flat = new Geometries(new Plane(new Vector(0, 0, 1), Point3D.ZERO)).createFlatHierarchy();
+        assertEquals("Wrong intersection with unbounded geometry", List.of(Point3D.ZERO),
+                flat.findIntersections(new Ray(new Point3D(0, 0, 1), new Vector(0, 0, -1))));
+
+        // TC06: empty geometries
+        assertNull("Empty hierarchy shouldn't intersect",
+                new Geometries().createFlatHierarchy().findIntersections(ray));
+
+        // TC07: hierarchy compiled from the midpoint builder
+        flat = scene().createFlatHierarchy(HierarchyBuilder.MIDPOINT);
+        ray = new Ray(new Point3D(30, 30, 50), new Vector(0, 0, -1));
+        assertEquals("Wrong amount of intersections with midpoint hierarchy", 4, flat.findIntersections(ray).size());
+    }
+
+    /**
+     * Test method for {@link geometries.FlatHierarchy#add(Intersectable...)}
+     */
+    @Test
+    public void testAdd() {
+        try {
+            scene().createFlatHierarchy().add(new Sphere(Point3D.ZERO, 1));
+            fail("Adding to a compiled hierarchy should throw an exception");
+        } catch (UnsupportedOperationException e) {}
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.FlatHierarchy#findClosestGeoIntersection(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        Geometries scene = scene();
+        FlatHierarchy flat = scene.createFlatHierarchy();
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: polygon in front of the nested sphere
+        Ray ray = new Ray(new Point3D(30, 30, 50), new Vector(0, 0, -1));
+        assertEquals("Wrong closest point", new Point3D(30, 30, 20), flat.findClosestGeoIntersection(ray).point);
+
+        // TC02: same ray from below, sphere in front of the polygon
+        ray = new Ray(new Point3D(30, 30, -50), new Vector(0, 0, 1));
+        assertEquals("Wrong closest point from below", new Point3D(30, 30, -15),
+                flat.findClosestGeoIntersection(ray).point);
+
+        // TC03: rays in many directions agree with the unorganized geometries
+        for (int i = -5; i <= 5; ++i)
+            for (int j = -5; j <= 5; ++j) {
+                ray = new Ray(new Point3D(0, 0, 60), new Vector(i * 10, j * 10, -60));
+                GeoPoint expected = scene.findClosestGeoIntersection(ray);
+                GeoPoint actual = flat.findClosestGeoIntersection(ray);
+                assertEquals("Wrong closest point for ray " + ray, expected == null ? null : expected.point,
+                        actual == null ? null : actual.point);
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC04: unbounded geometry is closer than the bounded ones
+        ray = new Ray(new Point3D(0, 0, -90), new Vector(0, 0, -1));
+        assertEquals("Wrong closest point on plane", new Point3D(0, 0, -100),
+                flat.findClosestGeoIntersection(ray).point);
+
+        // TC05: limit ends before any geometry
+        ray = new Ray(new Point3D(30, 30, 50), new Vector(0, 0, -1));
+        assertNull("Limit should cut off every geometry", flat.findClosestGeoIntersection(ray, 10));
+
+        // TC06: leaves mixing triangles, mesh triangles and other geometries, whose
+        // triangles are tested together
+        Geometries mixed = new Geometries(new TriangleMesh(
+                new double[] { 0, 0, 0, 4, 0, 0, 4, 4, 0, 0, 4, 0, 0, 0, 2, 4, 0, 2, 4, 4, 2, 0, 4, 2 },
+                new int[] { 0, 1, 2, 0, 2, 3, 4, 5, 6, 4, 6, 7 }));
+        for (int i = 0; i < 4; ++i)
+            mixed.add(new Triangle(new Point3D(i, 0, 1), new Point3D(i + 1, 0, 1), new Point3D(i, 4, 1.5)),
+                    new Sphere(new Point3D(i + 0.5, 3, 1), 0.3));
+        flat = mixed.createFlatHierarchy(new MortonBuilder().setLeafSize(8));
+        for (int i = 0; i <= 8; ++i)
+            for (int j = 0; j <= 8; ++j) {
+                ray = new Ray(new Point3D(i * 0.5, j * 0.5, 5), new Vector(0.1, 0.05, -1));
+                GeoPoint expected = mixed.findClosestGeoIntersection(ray);
+                GeoPoint actual = flat.findClosestGeoIntersection(ray);
+                assertEquals("Wrong closest point for ray " + ray, expected == null ? null : expected.point,
+                        actual == null ? null : actual.point);
+                assertEquals("Wrong closest geometry for ray " + ray, expected == null ? null : expected.geometry,
+                        actual == null ? null : actual.geometry);
+            }
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.FlatHierarchy#findClosestGeoIntersections(primitives.Ray[])}
+     */
+    @Test
+    public void testFindClosestGeoIntersections() {
+        FlatHierarchy flat = scene().createFlatHierarchy();
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: coherent packet of parallel rays over both spheres and the polygon
+        Ray[] rays = new Ray[100];
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                rays[10 * i + j] = new Ray(new Point3D(i * 4 - 5, j * 4 - 5, 50), new Vector(0.01 * i, 0.01 * j, -1));
+        GeoPoint[] closest = flat.findClosestGeoIntersections(rays);
+        for (int i = 0; i < rays.length; ++i)
+            assertEquals("Wrong closest point in coherent packet", flat.findClosestGeoIntersection(rays[i]),
+                    closest[i]);
+
+        // TC02: packet of rays in diverging directions
+        rays = new Ray[] { new Ray(Point3D.ZERO, new Vector(0, 0, -1)), new Ray(Point3D.ZERO, new Vector(1, 1, 0.6)),
+                new Ray(Point3D.ZERO, new Vector(-1, -1, 0)), new Ray(Point3D.ZERO, new Vector(0, 1, 1)) };
+        closest = flat.findClosestGeoIntersections(rays);
+        for (int i = 0; i < rays.length; ++i)
+            assertEquals("Wrong closest point in diverging packet", flat.findClosestGeoIntersection(rays[i]),
+                    closest[i]);
+
+        // =============== Boundary Values Tests ==================
+        // TC03: empty packet
+        assertEquals("Empty packet should have no results", 0, flat.findClosestGeoIntersections(new Ray[0]).length);
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.FlatHierarchy#findTransparency(primitives.Ray, double, double)}
+     */
+    @Test
+    public void testFindTransparency() {
+        Geometries geoms = new Geometries(new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -100)));
+        for (int i = 1; i <= 5; ++i)
+            geoms.add(new Polygon(new Point3D(-5, -5, 10 * i), new Point3D(5, -5, 10 * i),
+                    new Point3D(5, 5, 10 * i), new Point3D(-5, 5, 10 * i)).setMaterial(new Material().setKt(0.5)));
+        geoms.add(new Sphere(new Point3D(20, 0, 30), 5));
+        FlatHierarchy flat = geoms.createFlatHierarchy();
+        Ray ray = new Ray(Point3D.ZERO, new Vector(0, 0, 1));
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: light behind three transparent polygons
+        assertEquals("Wrong transparency through polygons", 0.125, flat.findTransparency(ray, 35, 0.001), 0.00001);
+
+        // TC02: opaque plane blocks the light
+        ray = new Ray(Point3D.ZERO, new Vector(0, 0, -1));
+        assertEquals("Opaque plane should block the light", 0, flat.findTransparency(ray, 200, 0.001), 0);
+
+        // TC03: opaque sphere blocks the light
+        ray = new Ray(new Point3D(20, 0, 0), new Vector(0, 0, 1));
+        assertEquals("Opaque sphere should block the light", 0, flat.findTransparency(ray, 200, 0.001), 0);
+
+        // =========== Boundary Tests =================
+        // TC04: transparency drops under the minimum
+        ray = new Ray(Point3D.ZERO, new Vector(0, 0, 1));
+        assertEquals("Transparency under the minimum should block the light", 0,
+                flat.findTransparency(ray, 100, 0.05), 0);
+    }
+
+    /**
+     * Helper function that checks the queries every compiled hierarchy shares on
+     * the shared {@link #scene()}: the intersections within a limit, the closest
+     * hits of rays in many directions compared to the unorganized geometries, and
+     * the transparency through a stack of polygons
+     *
+     * @param compile compiles geometries into the tested form of hierarchy
+     */
+    static void assertCompiledQueries(Function<Geometries, ? extends Geometries> compile) {
+        Geometries scene = scene();
+        Geometries compiled = compile.apply(scene);
+
+        // intersections of a ray through the nested sphere, the polygon and the plane
+        Ray ray = new Ray(new Point3D(30, 30, 50), new Vector(0, 0, -1));
+        assertEquals("Wrong amount of intersections", 4, compiled.findIntersections(ray).size());
+        assertEquals("Wrong intersections within limit", List.of(new Point3D(30, 30, 20)),
+                compiled.findIntersections(ray, 35));
+
+        // ray that misses every geometry, also of an empty hierarchy
+        ray = new Ray(new Point3D(100, 100, 50), new Vector(0, 0, 1));
+        assertNull("Ray shouldn't intersect", compiled.findIntersections(ray));
+        assertNull("Empty hierarchy shouldn't intersect", compile.apply(new Geometries()).findIntersections(ray));
+
+        // a compiled hierarchy can't be modified
+        try {
+            compiled.add(new Sphere(Point3D.ZERO, 1));
+            fail("Adding to a compiled hierarchy should throw an exception");
+        } catch (UnsupportedOperationException e) {}
+
+        // closest hits agree with the unorganized geometries
+        for (int i = -5; i <= 5; ++i)
+            for (int j = -5; j <= 5; ++j) {
+                ray = new Ray(new Point3D(0, 0, 60), new Vector(i * 10, j * 10, -60));
+                GeoPoint expected = scene.findClosestGeoIntersection(ray);
+                GeoPoint actual = compiled.findClosestGeoIntersection(ray);
+                assertEquals("Wrong closest point for ray " + ray, expected == null ? null : expected.point,
+                        actual == null ? null : actual.point);
+            }
+
+        // transparency through three transparent polygons, and an opaque plane
+        Geometries geoms = new Geometries(new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -100)));
+        for (int i = 1; i <= 5; ++i)
+            geoms.add(new Polygon(new Point3D(-5, -5, 10 * i), new Point3D(5, -5, 10 * i),
+                    new Point3D(5, 5, 10 * i), new Point3D(-5, 5, 10 * i)).setMaterial(new Material().setKt(0.5)));
+        compiled = compile.apply(geoms);
+        ray = new Ray(Point3D.ZERO, new Vector(0, 0, 1));
+        assertEquals("Wrong transparency through polygons", 0.125, compiled.findTransparency(ray, 35, 0.001),
+                0.00001);
+        ray = new Ray(Point3D.ZERO, new Vector(0, 0, -1));
+        assertEquals("Opaque plane should block the light", 0, compiled.findTransparency(ray, 200, 0.001), 0);
+    }
+}
@@ -1,12 +1,14 @@
 package unittests.geometries;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
 import org.junit.Test;
 import geometries.*;
+import geometries.Intersectable.GeoPoint;
 import primitives.*;
 
 /**
@@ -103,4 +105,66 @@ public class GeometriesTests {
                         new Point3D(0, 33, 10)),
                 geoms1.findIntersections(new Ray(new Point3D(0, 0, 10), new Vector(0, 1, 0)), 35));
     }
+
+    /**
+     * Test method for
+     * {@link geometries.Geometries#findClosestGeoIntersection(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        Sphere sphere = new Sphere(new Point3D(0, 10, 10), 3);
+        Polygon polygon = new Polygon(new Point3D(0, 20, 0), new Point3D(5, 20, 5), new Point3D(5, 20, 10),
+                new Point3D(0, 20, 20), new Point3D(-5, 20, 5));
+        Geometries geoms = new Geometries(polygon, new Geometries(sphere));
+        Ray ray = new Ray(new Point3D(0, 0, 10), new Vector(0, 1, 0));
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: closest hit is in a nested Geometries
+        GeoPoint closest = geoms.findClosestGeoIntersection(ray);
+        assertEquals("Wrong closest point", new Point3D(0, 7, 10), closest.point);
+        assertEquals("Wrong closest geometry", sphere, closest.geometry);
+
+        // TC02: ray starts inside the sphere
+        ray = new Ray(new Point3D(0, 10, 10), new Vector(0, 1, 0));
+        assertEquals("Wrong closest point from inside", new Point3D(0, 13, 10),
+                geoms.findClosestGeoIntersection(ray).point);
+
+        // =========== Boundary Tests =================
+        // TC03: limit is before the polygon
+        assertNull("Limit should cut off the polygon", geoms.findClosestGeoIntersection(
+                new Ray(new Point3D(0, 15, 10), new Vector(0, 1, 0)), 4));
+
+        // TC04: empty collection
+        assertNull("empty collection", new Geometries().findClosestGeoIntersection(ray));
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.Geometries#findTransparency(primitives.Ray, double, double)}
+     */
+    @Test
+    public void testFindTransparency() {
+        Geometries geoms = new Geometries(
+                new Sphere(new Point3D(0, 10, 0), 2).setMaterial(new Material().setKt(0.5)),
+                new Geometries(new Polygon(new Point3D(-5, 20, -5), new Point3D(5, 20, -5), new Point3D(5, 20, 5),
+                        new Point3D(-5, 20, 5)).setMaterial(new Material().setKt(0.5))),
+                new Sphere(new Point3D(0, 30, 0), 2));
+        Ray ray = new Ray(Point3D.ZERO, new Vector(0, 1, 0));
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: light before the opaque sphere passes through both sphere sides and the polygon
+        assertEquals("Wrong transparency through transparent geometries", 0.125,
+                geoms.findTransparency(ray, 25, 0.001), 0.00001);
+
+        // TC02: opaque sphere blocks the light
+        assertEquals("Opaque geometry should block the light", 0, geoms.findTransparency(ray, 100, 0.001), 0);
+
+        // =========== Boundary Tests =================
+        // TC03: transparency drops under the minimum
+        assertEquals("Transparency under the minimum should block the light", 0,
+                geoms.findTransparency(ray, 25, 0.2), 0);
+
+        // TC04: nothing between the point and the light
+        assertEquals("Nothing should block the light", 1, geoms.findTransparency(ray, 5, 0.001), 0);
+    }
 }
@@ -0,0 +1,125 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link HierarchyCache} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class HierarchyCacheTests {
+
+    /**
+     * Creates a grid of spheres and triangles above a plane
+     */
+    private Geometries scene() {
+        Geometries geometries = new Geometries(new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -100)));
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                geometries.add((i + j) % 2 == 0 ? new Sphere(new Point3D(i * 10, j * 10, 0), 3)
+                        : new Triangle(new Point3D(i * 10, j * 10, 0), new Point3D(i * 10 + 4, j * 10, 0),
+                                new Point3D(i * 10, j * 10 + 4, 0)));
+        return geometries;
+    }
+
+    /**
+     * Helper function that checks two hierarchies find the same closest points
+     */
+    private void assertSameHits(String message, Intersectable expected, Intersectable actual) {
+        for (int i = 0; i < 100; i += 3)
+            for (int j = 0; j < 100; j += 3) {
+                Ray ray = new Ray(new Point3D(i + 0.5, j + 0.5, 50), new Vector(0, 0, -1));
+                GeoPoint e = expected.findClosestGeoIntersection(ray);
+                GeoPoint a = actual.findClosestGeoIntersection(ray);
+                assertEquals(message, e == null ? null : e.point, a == null ? null : a.point);
+            }
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.HierarchyCache#getFlatHierarchy(Geometries, HierarchyBuilder)}
+     */
+    @Test
+    public void testGetFlatHierarchy() throws IOException {
+        Path directory = Files.createTempDirectory("bvh");
+        try {
+            HierarchyCache cache = new HierarchyCache(directory.toString());
+            Geometries scene = scene();
+            SAHBuilder builder = new SAHBuilder();
+
+            // ============== Equivalence Partitions Tests ==============
+            // TC01: hierarchy is built and stored on the first call
+            assertFalse("Empty cache shouldn't contain the scene", cache.contains(scene, builder));
+            FlatHierarchy built = cache.getFlatHierarchy(scene, builder);
+            assertTrue("Hierarchy wasn't stored", cache.contains(scene, builder));
+            assertSameHits("Wrong hit of stored hierarchy", scene, built);
+
+            // TC02: the same scene parsed again loads the stored hierarchy
+            Geometries again = scene();
+            assertTrue("Equal scene should be found in the cache", cache.contains(again, builder));
+            assertSameHits("Wrong hit of loaded hierarchy", again, cache.getFlatHierarchy(again, builder));
+
+            // TC03: a changed scene isn't found in the cache
+            Geometries changed = scene();
+            changed.add(new Sphere(new Point3D(55, 55, 10), 1));
+            assertFalse("Changed scene shouldn't be found in the cache", cache.contains(changed, builder));
+            assertFalse("Other builder shouldn't be found in the cache",
+                    cache.contains(scene, HierarchyBuilder.MIDPOINT));
+
+            // =============== Boundary Values Tests ==================
+            // TC04: corrupted file is rebuilt
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.collect(Collectors.toList());
+            }
+            assertEquals("Wrong amount of cache files", 1, files.size());
+            Files.write(files.get(0), new byte[] { 0x42, 0x56, 0x48, 0x31, 0, 0 });
+            assertSameHits("Wrong hit of rebuilt hierarchy", scene, cache.getFlatHierarchy(scene(), builder));
+            assertSameHits("Wrong hit of reloaded hierarchy", scene, cache.getFlatHierarchy(scene(), builder));
+
+            // TC05: file with a depth too small for its nodes is rebuilt
+            try (FileChannel channel = FileChannel.open(files.get(0), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 0), 4 * Integer.BYTES);
+            }
+            assertSameHits("Wrong hit of hierarchy with a wrong depth", scene, cache.getFlatHierarchy(scene(), builder));
+
+            // TC06: configurations of the same builder class are stored in different files
+            SAHBuilder leaves = new SAHBuilder().setCostRatio(4).setLeafSize(16);
+            assertFalse("Other configuration shouldn't be found in the cache", cache.contains(scene, leaves));
+            FlatHierarchy cached = cache.getFlatHierarchy(scene(), leaves);
+            assertTrue("Other configuration wasn't stored", cache.contains(scene, leaves));
+            assertEquals("Wrong hierarchy of other configuration",
+                    new FlatHierarchy(scene(), leaves).getNodeCount(), cached.getNodeCount());
+            assertFalse("Configurations should build different hierarchies",
+                    cached.getNodeCount() == cache.getFlatHierarchy(scene(), builder).getNodeCount());
+            cache.getFlatHierarchy(scene(), new MortonBuilder());
+            assertFalse("Other Morton configuration shouldn't be found in the cache",
+                    cache.contains(scene, new MortonBuilder().setLeafSize(8)));
+        } finally {
+            try (Stream<Path> list = Files.list(directory)) {
+                for (Path p : list.collect(Collectors.toList()))
+                    Files.delete(p);
+            }
+            Files.delete(directory);
+        }
+    }
+}
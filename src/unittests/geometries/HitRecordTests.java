@@ -0,0 +1,83 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit testing class for {@link HitRecord} and the
+ * {@link Intersectable#findClosestHit(Ray, HitRecord)} kernels.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class HitRecordTests {
+
+    final double ACCURACY = .0000001;
+
+    /**
+     * Test method for {@link Geometries#findClosestHit(Ray, HitRecord)}
+     */
+    @Test
+    public void testFindClosestHit() {
+        Sphere sphere = new Sphere(new Point3D(0, 0, -10), 2);
+        Triangle triangle = new Triangle(new Point3D(-1, -1, -5), new Point3D(1, -1, -5), new Point3D(0, 1, -5));
+        Plane plane = new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -20));
+        Geometries geometries = new Geometries(sphere, plane, triangle);
+        Ray ray = new Ray(Point3D.ZERO, new Vector(0, 0, -1));
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the closest of several geometries is recorded, with the same point as a GeoPoint
+        assertTrue("Ray should hit the geometries", geometries.findClosestHit(ray, hit));
+        assertSame("Wrong geometry hit", triangle, hit.geometry);
+        assertEquals("Wrong distance", 5, hit.t, ACCURACY);
+        GeoPoint gp = geometries.findClosestGeoIntersection(ray);
+        assertEquals("Wrong hit point", gp.point, hit.getPoint(ray));
+        assertEquals("Wrong normal", triangle.getNormal(gp.point), hit.getNormal(ray));
+
+        // TC02: a ray starting inside a sphere records its far side
+        Ray inside = new Ray(new Point3D(0, 0, -10), new Vector(0, 0, -1));
+        assertTrue("Ray should hit the sphere", sphere.findClosestHit(inside, hit.reset(Double.POSITIVE_INFINITY)));
+        assertEquals("Wrong distance inside the sphere", 2, hit.t, ACCURACY);
+
+        // =============== Boundary Values Tests ==================
+        // TC03: hits beyond the closest one so far are ignored and the record is kept
+        hit.reset(4);
+        assertFalse("Hit beyond the limit was recorded", geometries.findClosestHit(ray, hit));
+        assertFalse("Record should stay empty", hit.found());
+        assertNull("Empty record has no GeoPoint", hit.toGeoPoint(ray));
+        assertEquals("Limit was changed", 4, hit.t, ACCURACY);
+    }
+
+    /**
+     * Test method for the hit records of a {@link FlatHierarchy}
+     */
+    @Test
+    public void testHierarchyHit() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 20; ++i)
+            geometries.add(new Triangle(new Point3D(i, 0, -1), new Point3D(i + 1, 0, -1), new Point3D(i, 1, -1)));
+        FlatHierarchy hierarchy = geometries.createFlatHierarchy();
+        Ray ray = new Ray(new Point3D(7.25, .5, 0), new Vector(0, 0, -1));
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a triangle in a leaf records its barycentric coordinates and index
+        assertTrue("Ray should hit the hierarchy", hierarchy.findClosestHit(ray, hit));
+        assertTrue("Hit should have an index", hit.index >= 0);
+        assertEquals("Wrong u", .25, hit.u, ACCURACY);
+        assertEquals("Wrong v", .5, hit.v, ACCURACY);
+        assertEquals("Wrong hit point", new Point3D(7.25, .5, -1), hit.getPoint(ray));
+        assertEquals("Hierarchy and geometries disagree", geometries.findClosestGeoIntersection(ray),
+                hierarchy.findClosestGeoIntersection(ray));
+    }
+}
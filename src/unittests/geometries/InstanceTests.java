@@ -0,0 +1,149 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link Instance} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class InstanceTests {
+
+    private static final Vector DOWN = new Vector(0, 0, -1);
+
+    /**
+     * Test method for
+     * {@link geometries.Instance#findClosestGeoIntersection(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        Sphere sphere = new Sphere(Point3D.ZERO, 1);
+        sphere.setEmission(new Color(10, 20, 30));
+        Instance instance = new Instance(sphere, new Transform().scale(2).translate(new Vector(10, 0, 0)));
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: ray through a scaled and moved sphere
+        Ray ray = new Ray(new Point3D(10, 0, 10), DOWN);
+        GeoPoint gp = instance.findClosestGeoIntersection(ray);
+        assertEquals("Wrong intersection with instance", new Point3D(10, 0, 2), gp.point);
+        assertEquals("Wrong normal of instance", new Vector(0, 0, 1), gp.geometry.getNormal(gp.point));
+        assertEquals("Instance should share the emission", sphere.getEmission(), gp.geometry.getEmission());
+
+        // TC02: ray which misses the instance but hits the original sphere
+        assertNull("Ray shouldn't intersect the instance",
+                instance.findClosestGeoIntersection(new Ray(new Point3D(0, 0, 10), DOWN)));
+
+        // TC03: sphere stretched along z has a normal along x on its side
+        instance = new Instance(sphere, new Transform().scale(1, 1, 3));
+        gp = instance.findClosestGeoIntersection(new Ray(new Point3D(5, 0, 0), new Vector(-1, 0, 0)));
+        assertEquals("Wrong normal of stretched instance", new Vector(1, 0, 0), gp.geometry.getNormal(gp.point));
+
+        // =============== Boundary Values Tests ==================
+        // TC04: limit ends before the scaled sphere
+        instance = new Instance(sphere, new Transform().scale(2).translate(new Vector(10, 0, 0)));
+        assertNull("Limit should cut off the instance", instance.findClosestGeoIntersection(ray, 7.9));
+        assertEquals("Limit should include the instance", 2, instance.findGeoIntersections(ray, 12.1).size());
+
+        // TC05: hits of the same geometry have equal geometries
+        GeoPoint first = instance.findClosestGeoIntersection(ray);
+        GeoPoint second = instance.findClosestGeoIntersection(new Ray(new Point3D(11, 0, 10), DOWN));
+        assertEquals("Hits of the same geometry should be equal", first.geometry, second.geometry);
+        assertEquals("Hits of the same geometry should hash alike", first.geometry.hashCode(),
+                second.geometry.hashCode());
+
+        // TC06: hits of the same geometry by another instance aren't equal
+        GeoPoint other = new Instance(sphere, new Transform().scale(2).translate(new Vector(10, 0, 0)))
+                .findClosestGeoIntersection(ray);
+        assertNotEquals("Hits of another instance shouldn't be equal", first.geometry, other.geometry);
+    }
+
+    /**
+     * Test method for {@link geometries.Geometry#setEmission(primitives.Color)}
+     * and {@link geometries.Geometry#setMaterial(primitives.Material)} of the
+     * geometry of a hit
+     */
+    @Test
+    public void testSetters() {
+        Sphere sphere = new Sphere(Point3D.ZERO, 1);
+        Geometry hit = new Instance(sphere, new Transform().scale(2))
+                .findClosestGeoIntersection(new Ray(new Point3D(0, 0, 10), DOWN)).geometry;
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: the geometry of a hit can't change the emission
+        try {
+            hit.setEmission(new Color(1, 2, 3));
+            fail("Setting the emission of an instanced geometry should throw an exception");
+        } catch (UnsupportedOperationException e) {}
+
+        // TC02: the geometry of a hit can't change the material
+        try {
+            hit.setMaterial(new Material());
+            fail("Setting the material of an instanced geometry should throw an exception");
+        } catch (UnsupportedOperationException e) {}
+
+        // TC03: the original geometry is changed instead
+        sphere.setEmission(new Color(1, 2, 3));
+        assertEquals("Hit geometry should share the emission", new Color(1, 2, 3).getColor(),
+                hit.getEmission().getColor());
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#getMinPoint()} and
+     * {@link geometries.Instance#getMaxPoint()}
+     */
+    @Test
+    public void testBounds() {
+        Triangle triangle = new Triangle(Point3D.ZERO, new Point3D(2, 0, 0), new Point3D(0, 1, 0));
+        Instance instance = new Instance(triangle, new Transform().rotate(new Vector(0, 0, 1), 90));
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: rotated triangle
+        assertEquals("Wrong min point", new Point3D(-1, 0, 0), instance.getMinPoint());
+        assertEquals("Wrong max point", new Point3D(0, 2, 0), instance.getMaxPoint());
+
+        // TC02: the geometry of a hit has the bounds of the instance
+        Geometry hit = instance.findClosestGeoIntersection(new Ray(new Point3D(-.5, .5, 1), DOWN)).geometry;
+        assertEquals("Wrong min point of hit geometry", new Point3D(-1, 0, 0), hit.getMinPoint());
+        assertEquals("Wrong max point of hit geometry", new Point3D(0, 2, 0), hit.getMaxPoint());
+    }
+
+    /**
+     * Test method for a two level hierarchy of instances sharing one
+     * {@link FlatHierarchy}
+     */
+    @Test
+    public void testTwoLevelHierarchy() {
+        Geometries mesh = new Geometries();
+        for (int i = 0; i < 5; ++i)
+            mesh.add(new Triangle(new Point3D(i, 0, 0), new Point3D(i + 1, 0, 0), new Point3D(i, 1, 0)));
+        FlatHierarchy shared = mesh.createFlatHierarchy();
+
+        Geometries instances = new Geometries();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                instances.add(new Instance(shared, new Transform().translate(new Vector(i * 10, j * 10, i + j + 1))));
+        FlatHierarchy scene = instances.createFlatHierarchy();
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: a ray through every instance
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Ray ray = new Ray(new Point3D(i * 10 + 2.2, j * 10 + 0.3, 50), DOWN);
+                assertEquals("Wrong intersection with instance", new Point3D(i * 10 + 2.2, j * 10 + 0.3, i + j + 1),
+                        scene.findClosestGeoIntersection(ray).point);
+            }
+
+        // TC02: ray between the instances
+        assertNull("Ray shouldn't intersect", scene.findClosestGeoIntersection(new Ray(new Point3D(7, 7, 50), DOWN)));
+    }
+}
@@ -0,0 +1,108 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link MortonBuilder} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class MortonBuilderTests {
+
+    /**
+     * Test method for {@link geometries.MortonBuilder#build(BoundingBox)}
+     */
+    @Test
+    public void testBuild() {
+        Geometries flat = new Geometries(new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -100)));
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 20; ++j) {
+                double x = i < 10 ? i : 90 + i;
+                flat.add(new Triangle(new Point3D(x, j, 0), new Point3D(x + 1, j, 0), new Point3D(x, j + 1, 0)));
+            }
+        Geometries lbvh = flat.createHierarchy(new MortonBuilder());
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: ray through a triangle of the first cluster and the plane
+        Ray ray = new Ray(new Point3D(2.2, 3.2, 10), new Vector(0, 0, -1));
+        assertEquals("Wrong intersection with first cluster", List.of(new Point3D(2.2, 3.2, 0)),
+                lbvh.findIntersections(ray, 50));
+
+        // TC02: ray through the gap between the clusters only hits the plane
+        ray = new Ray(new Point3D(50, 5, 10), new Vector(0, 0, -1));
+        assertEquals("Wrong intersection between clusters", List.of(new Point3D(50, 5, -100)),
+                lbvh.findIntersections(ray));
+
+        // TC03: rays in many directions agree with the unorganized geometries
+        for (int i = -5; i <= 5; ++i)
+            for (int j = -5; j <= 5; ++j) {
+                ray = new Ray(new Point3D(50, 10, 60), new Vector(i * 20, j * 4, -60));
+                GeoPoint expected = flat.findClosestGeoIntersection(ray);
+                GeoPoint actual = lbvh.findClosestGeoIntersection(ray);
+                assertEquals("Wrong closest point for ray " + ray, expected == null ? null : expected.point,
+                        actual == null ? null : actual.point);
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC04: geometries with the same centroid
+        Geometries stacked = new Geometries();
+        for (int i = 1; i <= 10; ++i)
+            stacked.add(new Sphere(Point3D.ZERO, i));
+        ray = new Ray(new Point3D(0, 0, 20), new Vector(0, 0, -1));
+        assertEquals("Wrong amount of intersections with stacked spheres", 20,
+                stacked.createHierarchy(new MortonBuilder()).findIntersections(ray).size());
+    }
+
+    /**
+     * Test method for {@link geometries.MortonBuilder#setPool(ForkJoinPool)}
+     */
+    @Test
+    public void testParallelBuild() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MortonBuilder parallel = new MortonBuilder().setPool(pool);
+
+            // ============== Equivalence Partitions Tests ==============
+            // TC01: both hierarchies give the same closest point for every ray
+            SAHBuilderTests.assertSameBuilds(new MortonBuilder().setPool(null), parallel);
+
+            // TC02: build time is reported
+            assertTrue("Build time wasn't reported", parallel.getBuildTime() > 0);
+
+            // =============== Boundary Values Tests ==================
+            // TC03: enough geometries with the same Morton code to sort them in
+            // several chunks
+            Geometries stacked = new Geometries();
+            for (int i = 1; i <= 1500; ++i)
+                stacked.add(new Sphere(Point3D.ZERO, i));
+            Ray ray = new Ray(new Point3D(0, 0, 2000), new Vector(0, 0, -1));
+            assertEquals("Wrong amount of intersections with stacked spheres", 3000,
+                    stacked.createHierarchy(parallel).findIntersections(ray).size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.MortonBuilder#setLeafSize(int)}
+     */
+    @Test
+    public void testSetLeafSize() {
+        try {
+            new MortonBuilder().setLeafSize(0);
+            fail("Leaf size of 0 should throw an exception");
+        } catch (IllegalArgumentException e) {}
+    }
+}
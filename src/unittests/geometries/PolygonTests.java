@@ -1,5 +1,6 @@
 package unittests.geometries;
 
+import geometries.HitRecord;
 import geometries.Polygon;
 import org.junit.Test;
 import primitives.Point3D;
@@ -9,6 +10,8 @@ import primitives.Vector;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
 
 import java.util.List;
 
@@ -138,4 +141,41 @@ public class PolygonTests {
         assertNull("findIntersections() did not return the correct value for TC08", p1.findIntersections(r8));
     }
 
+    /**
+     * Test method for {@link geometries.Polygon#findClosestHit(primitives.Ray, geometries.HitRecord)}
+     */
+    @Test
+    public void testFindClosestHit() {
+        Polygon p = new Polygon(new Point3D(0, 0, 0), new Point3D(1, 0, 0), new Point3D(1, 1, 0),
+                new Point3D(0, 1, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+
+        // TC01: Hit inside the polygon
+        HitRecord hit = new HitRecord();
+        assertTrue("findClosestHit() missed the polygon", p.findClosestHit(new Ray(new Point3D(.5, .5, 2), new Vector(0, 0, -1)), hit));
+        assertEquals("findClosestHit() recorded a wrong distance", 2, hit.t, 1e-10);
+        assertEquals("findClosestHit() recorded a wrong geometry", p, hit.geometry);
+
+        // TC02: Hit beyond the closest hit so far
+        assertFalse("findClosestHit() replaced a closer hit",
+                p.findClosestHit(new Ray(new Point3D(.5, .5, 3), new Vector(0, 0, -1)), hit));
+        assertEquals("findClosestHit() changed the distance", 2, hit.t, 1e-10);
+
+        // TC03: Miss outside the polygon
+        assertFalse("findClosestHit() hit outside the polygon",
+                p.findClosestHit(new Ray(new Point3D(2, .5, 1), new Vector(0, 0, -1)), hit.reset(Double.POSITIVE_INFINITY)));
+    }
+
+    /**
+     * Test method for {@link geometries.Polygon#getMinPoint()} and {@link geometries.Polygon#getMaxPoint()}
+     */
+    @Test
+    public void testBounds() {
+        Polygon p = new Polygon(new Point3D(0, -1, 2), new Point3D(3, -1, 2), new Point3D(3, 4, 5),
+                new Point3D(0, 4, 5));
+        assertEquals("getMinPoint() returned a wrong point", new Point3D(0, -1, 2), p.getMinPoint());
+        assertEquals("getMaxPoint() returned a wrong point", new Point3D(3, 4, 5), p.getMaxPoint());
+    }
+
 }
@@ -0,0 +1,88 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import geometries.*;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link QuantizedHierarchy} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class QuantizedHierarchyTests {
+
+    /**
+     * Test method for the queries shared by every compiled hierarchy
+     */
+    @Test
+    public void testCompiledQueries() {
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: intersections, closest hits and transparency of the shared scene
+        FlatHierarchyTests.assertCompiledQueries(Geometries::createQuantizedHierarchy);
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.QuantizedHierarchy#findClosestGeoIntersection(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        // =============== Boundary Values Tests ==================
+        // TC01: tiny geometries far apart lose no hits to rounding
+        Geometries far = new Geometries();
+        for (int i = 0; i < 100; ++i)
+            far.add(new Triangle(new Point3D(i * 1000, 0, 0), new Point3D(i * 1000 + 0.01, 0, 0),
+                    new Point3D(i * 1000, 0.01, 0)));
+        QuantizedHierarchy quantized = far.createQuantizedHierarchy();
+        for (int i = 0; i < 100; ++i) {
+            Ray ray = new Ray(new Point3D(i * 1000 + 0.002, 0.002, 10), new Vector(0, 0, -1));
+            assertEquals("Rounding lost a tiny triangle", new Point3D(i * 1000 + 0.002, 0.002, 0),
+                    quantized.findClosestGeoIntersection(ray).point);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.QuantizedHierarchy#getMinPoint(int)} and
+     * {@link geometries.QuantizedHierarchy#getMaxPoint(int)}
+     */
+    @Test
+    public void testDecodedBounds() {
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: every decoded box contains the box of the same node of the flat
+        // hierarchy, in a scene of huge, tiny and thin geometries
+        Geometries scene = new Geometries(
+                new Triangle(new Point3D(-1e6, -1e6, -5), new Point3D(1e6, -1e6, -5), new Point3D(0, 1e6, -5)),
+                new Triangle(new Point3D(0, 0, 1e5), new Point3D(0.001, 0, 1e5), new Point3D(0, 0, -1e5)));
+        for (int i = 0; i < 20; ++i)
+            scene.add(new Triangle(new Point3D(i * 0.01, 0.3, 0), new Point3D(i * 0.01 + 0.001, 0.3, 0),
+                    new Point3D(i * 0.01, 0.301, 0.0005)), new Sphere(new Point3D(7e5 - i * 3e4, 2e5, i), 1e-3));
+        FlatHierarchy flat = scene.createFlatHierarchy();
+        QuantizedHierarchy quantized = scene.createQuantizedHierarchy();
+        assertEquals("Quantized hierarchy should keep the nodes", flat.getNodeCount(), quantized.getNodeCount());
+        for (int node = 0; node < flat.getNodeCount(); ++node) {
+            Point3D min = quantized.getMinPoint(node), max = quantized.getMaxPoint(node);
+            Point3D flatMin = flat.getMinPoint(node), flatMax = flat.getMaxPoint(node);
+            assertTrue("Decoded box of node " + node + " doesn't contain the flat box",
+                    min.getX() <= flatMin.getX() && min.getY() <= flatMin.getY() && min.getZ() <= flatMin.getZ()
+                            && max.getX() >= flatMax.getX() && max.getY() >= flatMax.getY()
+                            && max.getZ() >= flatMax.getZ());
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC02: the root is stored in full precision
+        assertEquals("Wrong min point of the root", flat.getMinPoint(0), quantized.getMinPoint(0));
+        assertEquals("Wrong max point of the root", flat.getMaxPoint(0), quantized.getMaxPoint(0));
+
+        // TC03: node beyond the hierarchy
+        try {
+            quantized.getMinPoint(quantized.getNodeCount());
+            fail("Decoding a missing node should throw an exception");
+        } catch (IllegalArgumentException e) {}
+    }
+}
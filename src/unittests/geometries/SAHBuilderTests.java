@@ -0,0 +1,143 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import geometries.*;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link SAHBuilder} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class SAHBuilderTests {
+
+    /**
+     * Creates a scene of small triangles gathered in two dense clusters, with an
+     * infinite plane behind them
+     */
+    private Geometries clusteredScene() {
+        Geometries geometries = new Geometries(new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -100)));
+        for (int i = 0; i < 20; ++i) {
+            for (int j = 0; j < 20; ++j) {
+                double x = i < 10 ? i : 90 + i;
+                double y = j;
+                geometries.add(new Triangle(new Point3D(x, y, 0), new Point3D(x + 1, y, 0), new Point3D(x, y + 1, 0)));
+            }
+        }
+        return geometries;
+    }
+
+    /**
+     * Test method for {@link geometries.SAHBuilder#build(BoundingBox)}
+     */
+    @Test
+    public void testBuild() {
+        Geometries flat = clusteredScene();
+        Geometries sah = flat.createHierarchy(new SAHBuilder());
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: ray through a triangle of the first cluster and the plane
+        Ray ray = new Ray(new Point3D(2.2, 3.2, 10), new Vector(0, 0, -1));
+        assertEquals("Wrong intersection with first cluster", List.of(new Point3D(2.2, 3.2, 0)),
+                sah.findIntersections(ray, 50));
+        assertEquals("Wrong amount of intersections with first cluster", flat.findIntersections(ray).size(),
+                sah.findIntersections(ray).size());
+
+        // TC02: ray through a triangle of the second cluster
+        ray = new Ray(new Point3D(105.2, 7.2, 10), new Vector(0, 0, -1));
+        assertEquals("Wrong intersection with second cluster", List.of(new Point3D(105.2, 7.2, 0)),
+                sah.findIntersections(ray, 50));
+
+        // TC03: ray through the gap between the clusters only hits the plane
+        ray = new Ray(new Point3D(50, 5, 10), new Vector(0, 0, -1));
+        assertEquals("Wrong intersection between clusters", List.of(new Point3D(50, 5, -100)),
+                sah.findIntersections(ray));
+
+        // =============== Boundary Values Tests ==================
+        // TC04: a single leaf holding every geometry
+        Geometries oneLeaf = flat.createHierarchy(new SAHBuilder().setLeafSize(1000));
+        ray = new Ray(new Point3D(2.2, 3.2, 10), new Vector(0, 0, -1));
+        assertEquals("Wrong intersection with single leaf", List.of(new Point3D(2.2, 3.2, 0)),
+                oneLeaf.findIntersections(ray, 50));
+
+        // TC05: geometries with the same centroid
+        Geometries stacked = new Geometries();
+        for (int i = 1; i <= 10; ++i)
+            stacked.add(new Sphere(Point3D.ZERO, i));
+        ray = new Ray(new Point3D(0, 0, 20), new Vector(0, 0, -1));
+        assertEquals("Wrong amount of intersections with stacked spheres", 20,
+                stacked.createHierarchy(new SAHBuilder().setLeafSize(1)).findIntersections(ray).size());
+    }
+
+    /**
+     * Test method for {@link geometries.SAHBuilder#setPool(ForkJoinPool)}
+     */
+    @Test
+    public void testParallelBuild() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SAHBuilder parallel = new SAHBuilder().setPool(pool);
+
+            // ============== Equivalence Partitions Tests ==============
+            // TC01: both hierarchies give the same closest point for every ray
+            assertSameBuilds(new SAHBuilder().setPool(null), parallel);
+
+            // TC02: build time is reported
+            assertTrue("Build time wasn't reported", parallel.getBuildTime() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Builds hierarchies of a grid of triangles with two builders and checks that
+     * both give the same closest point for every ray, e.g. a sequential and a
+     * parallel build
+     *
+     * @param sequential the first builder
+     * @param parallel   the second builder
+     */
+    static void assertSameBuilds(HierarchyBuilder sequential, HierarchyBuilder parallel) {
+        Geometries flat = new Geometries();
+        for (int i = 0; i < 60; ++i)
+            for (int j = 0; j < 60; ++j)
+                flat.add(new Triangle(new Point3D(i, j, (i * j) % 7), new Point3D(i + 1, j, 0),
+                        new Point3D(i, j + 1, 0)));
+        Geometries first = flat.createHierarchy(sequential);
+        Geometries second = flat.createHierarchy(parallel);
+        for (int i = 0; i < 60; i += 3)
+            for (int j = 0; j < 60; j += 3) {
+                Ray ray = new Ray(new Point3D(i + 0.2, j + 0.3, 20), new Vector(0, 0, -1));
+                assertEquals("Parallel build differs from sequential build",
+                        first.findClosestGeoIntersection(ray).point, second.findClosestGeoIntersection(ray).point);
+            }
+    }
+
+    /**
+     * Test method for the setters of {@link geometries.SAHBuilder}
+     */
+    @Test
+    public void testSetters() {
+        try {
+            new SAHBuilder().setLeafSize(0);
+            fail("Leaf size of 0 should throw an exception");
+        } catch (IllegalArgumentException e) {}
+        try {
+            new SAHBuilder().setCostRatio(0);
+            fail("Cost ratio of 0 should throw an exception");
+        } catch (IllegalArgumentException e) {}
+        try {
+            new SAHBuilder().setBinCount(1);
+            fail("A single bin should throw an exception");
+        } catch (IllegalArgumentException e) {}
+    }
+}
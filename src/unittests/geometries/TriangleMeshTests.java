@@ -0,0 +1,151 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link TriangleMesh} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class TriangleMeshTests {
+
+    /**
+     * Vertices of a cube from (0, 0, 0) to (1, 1, 1)
+     */
+    private final Point3D[] corners = { new Point3D(0, 0, 0), new Point3D(1, 0, 0), new Point3D(1, 1, 0),
+            new Point3D(0, 1, 0), new Point3D(0, 0, 1), new Point3D(1, 0, 1), new Point3D(1, 1, 1),
+            new Point3D(0, 1, 1) };
+
+    /**
+     * The 12 triangles of the cube
+     */
+    private final int[] faces = { 0, 2, 1, 0, 3, 2, 4, 5, 6, 4, 6, 7, 0, 1, 5, 0, 5, 4, 2, 3, 7, 2, 7, 6, 1, 2, 6,
+            1, 6, 5, 0, 4, 7, 0, 7, 3 };
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[])}
+     */
+    @Test
+    public void testConstructor() {
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: correct mesh
+        assertEquals("Wrong amount of triangles", 12, new TriangleMesh(corners, faces).getTriangleCount());
+
+        // =============== Boundary Values Tests ==================
+        // TC02: partial vertex
+        try {
+            new TriangleMesh(new double[] { 0, 0, 0, 1, 0 }, new int[0]);
+            fail("Partial vertex should throw an exception");
+        } catch (IllegalArgumentException e) {}
+
+        // TC03: partial triangle
+        try {
+            new TriangleMesh(corners, new int[] { 0, 1 });
+            fail("Partial triangle should throw an exception");
+        } catch (IllegalArgumentException e) {}
+
+        // TC04: index out of the vertices
+        try {
+            new TriangleMesh(corners, new int[] { 0, 1, 8 });
+            fail("Index out of the vertices should throw an exception");
+        } catch (IllegalArgumentException e) {}
+
+        // TC05: adding to a mesh
+        try {
+            new TriangleMesh(corners, faces).add(new Sphere(Point3D.ZERO, 1));
+            fail("Adding to a mesh should throw an exception");
+        } catch (UnsupportedOperationException e) {}
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.TriangleMesh#findGeoIntersections(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindIntersections() {
+        TriangleMesh cube = new TriangleMesh(corners, faces);
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: ray through the cube
+        Ray ray = new Ray(new Point3D(0.2, 0.3, 5), new Vector(0, 0, -1));
+        assertEquals("Wrong amount of intersections", 2, cube.findIntersections(ray).size());
+        assertEquals("Wrong closest point", new Point3D(0.2, 0.3, 1), cube.findClosestGeoIntersection(ray).point);
+
+        // TC02: limit cuts off the far side
+        assertEquals("Wrong intersections within limit", List.of(new Point3D(0.2, 0.3, 1)),
+                cube.findIntersections(ray, 4.5));
+
+        // TC03: ray which misses the cube
+        ray = new Ray(new Point3D(2, 0.3, 5), new Vector(0, 0, -1));
+        assertNull("Ray shouldn't intersect", cube.findIntersections(ray));
+
+        // TC04: hierarchies are built over the single triangles
+        Geometries scene = new Geometries(new TriangleMesh(corners, faces),
+                new Plane(new Vector(0, 0, 1), new Point3D(0, 0, -10)));
+        FlatHierarchy flat = scene.createFlatHierarchy();
+        assertEquals("Wrong amount of intersections with the hierarchy", 3,
+                flat.findIntersections(new Ray(new Point3D(0.2, 0.3, 5), new Vector(0, 0, -1))).size());
+        for (int i = -4; i <= 4; ++i)
+            for (int j = -4; j <= 4; ++j) {
+                ray = new Ray(new Point3D(0.5, 0.5, 5), new Vector(i * 0.1, j * 0.1, -1));
+                GeoPoint expected = scene.findClosestGeoIntersection(ray);
+                assertEquals("Wrong closest point for ray " + ray, expected.point,
+                        flat.findClosestGeoIntersection(ray).point);
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC05: ray through the diagonal edge of a face isn't lost between its triangles
+        ray = new Ray(new Point3D(0.5, 0.5, 5), new Vector(0, 0, -1));
+        assertEquals("Ray through a shared edge should hit", new Point3D(0.5, 0.5, 1),
+                cube.findClosestGeoIntersection(ray).point);
+
+        // TC06: ray parallel to a face
+        ray = new Ray(new Point3D(-1, 0.5, 1), new Vector(1, 0, 0));
+        assertNull("Ray in the plane of the top face shouldn't hit it",
+                new TriangleMesh(corners, new int[] { 4, 5, 6 }).findIntersections(ray));
+    }
+
+    /**
+     * Test method for {@link geometries.Geometry#getNormal(primitives.Point3D)}
+     * of the triangles of a mesh
+     */
+    @Test
+    public void testGetNormal() {
+        TriangleMesh mesh = new TriangleMesh(corners, new int[] { 4, 5, 6 })
+                .setMaterial(new Material().setKt(0.5)).setEmission(new Color(10, 20, 30));
+        Ray ray = new Ray(new Point3D(0.8, 0.3, 5), new Vector(0, 0, -1));
+        GeoPoint gp = mesh.findClosestGeoIntersection(ray);
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: same normal as a Triangle with the same vertices
+        assertEquals("Wrong normal", new Triangle(corners[4], corners[5], corners[6]).getNormal(gp.point),
+                gp.geometry.getNormal(gp.point));
+
+        // TC02: triangles share the material and emission of the mesh
+        assertEquals("Triangle should have the mesh material", 0.5, gp.geometry.getMaterial().kT, 0);
+        assertEquals("Triangle should have the mesh emission", new Color(10, 20, 30).getColor(),
+                gp.geometry.getEmission().getColor());
+        assertEquals("Wrong transparency", 0.5, mesh.findTransparency(ray, 10, 0.001), 0);
+
+        // TC03: the material and emission of a single triangle can't be set
+        try {
+            gp.geometry.setMaterial(new Material());
+            fail("Setting the material of a triangle of a mesh should throw an exception");
+        } catch (UnsupportedOperationException e) {}
+        try {
+            gp.geometry.setEmission(new Color(1, 2, 3));
+            fail("Setting the emission of a triangle of a mesh should throw an exception");
+        } catch (UnsupportedOperationException e) {}
+    }
+}
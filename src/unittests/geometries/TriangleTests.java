@@ -1,11 +1,16 @@
 package unittests.geometries;
 
+import geometries.Polygon;
 import geometries.Triangle;
 import org.junit.Test;
 import primitives.Point3D;
+import primitives.Ray;
 import primitives.Vector;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
 
 /**
  * Unit testing class for {@link Triangle} class methods
@@ -32,4 +37,59 @@ public class TriangleTests {
 
     }
 
+    /**
+     * Tests {@link Triangle#findIntersections(Ray, double)}
+     */
+    @Test
+    public void testFindIntersections() {
+        Triangle t = new Triangle(new Point3D(0, 0, 1), new Point3D(2, 0, 1), new Point3D(0, 2, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: ray through the inside of the triangle
+        Ray ray = new Ray(new Point3D(0.5, 0.5, 3), new Vector(0, 0, -1));
+        assertEquals("Ray should hit the triangle", List.of(new Point3D(0.5, 0.5, 1)), t.findIntersections(ray));
+
+        // TC02: ray outside against an edge
+        ray = new Ray(new Point3D(1.5, 1.5, 3), new Vector(0, 0, -1));
+        assertNull("Ray outside against an edge shouldn't hit", t.findIntersections(ray));
+
+        // TC03: ray outside against a vertex
+        ray = new Ray(new Point3D(-1, -1, 3), new Vector(0, 0, -1));
+        assertNull("Ray outside against a vertex shouldn't hit", t.findIntersections(ray));
+
+        // TC04: ray pointing away from the triangle
+        ray = new Ray(new Point3D(0.5, 0.5, 3), new Vector(0, 0, 1));
+        assertNull("Ray pointing away shouldn't hit", t.findIntersections(ray));
+
+        // TC05: triangle further than the limit
+        ray = new Ray(new Point3D(0.5, 0.5, 3), new Vector(0, 0, -1));
+        assertNull("Triangle beyond the limit shouldn't be hit", t.findIntersections(ray, 1.5));
+
+        // =============== Boundary Values Tests ==================
+        // TC06: ray through an edge
+        ray = new Ray(new Point3D(1, 0, 3), new Vector(0, 0, -1));
+        assertNull("Ray through an edge shouldn't hit", t.findIntersections(ray));
+
+        // TC07: ray through a vertex
+        ray = new Ray(new Point3D(2, 0, 3), new Vector(0, 0, -1));
+        assertNull("Ray through a vertex shouldn't hit", t.findIntersections(ray));
+
+        // TC08: ray on the continuation of an edge
+        ray = new Ray(new Point3D(3, 0, 3), new Vector(0, 0, -1));
+        assertNull("Ray on the continuation of an edge shouldn't hit", t.findIntersections(ray));
+
+        // TC09: ray parallel to the triangle
+        ray = new Ray(new Point3D(0.5, 0.5, 2), new Vector(1, 0, 0));
+        assertNull("Parallel ray shouldn't hit", t.findIntersections(ray));
+
+        // TC10: same result as the general polygon algorithm for oblique rays
+        Polygon p = new Polygon(new Point3D(0, 0, 1), new Point3D(2, 0, 1), new Point3D(0, 2, 1));
+        for (int i = -5; i <= 5; ++i)
+            for (int j = -5; j <= 5; ++j) {
+                ray = new Ray(new Point3D(1, 1, 4), new Vector(i * 0.3, j * 0.3, -1));
+                List<Point3D> expected = p.findIntersections(ray);
+                assertEquals("Wrong intersection for ray " + ray, expected, t.findIntersections(ray));
+            }
+    }
+
 }
@@ -82,6 +82,8 @@ public class TubeTests {
         // TC14: Ray starts at tube and goes inside (1 points)
         // TC15: Ray starts inside (1 points)
         // TC16: Ray starts at the center (1 points)
+        assertEquals("Ray starts at the center", List.of(new Point3D(1, 0, 1)),
+                tube.findIntersections(new Ray(new Point3D(1, 0, 0), new Vector(0, 0, 1))));
         // TC17: Ray starts at tube and goes outside (0 points)
         // TC18: Ray starts after tube (0 points)
 
@@ -0,0 +1,163 @@
+package unittests.geometries;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import primitives.*;
+
+/**
+ * Unit testing class for the {@link WideHierarchy} class.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class WideHierarchyTests {
+
+    /**
+     * Sphere which counts the closest hit tests made against it
+     */
+    private static class CountedSphere extends Sphere {
+        int tests = 0;
+
+        CountedSphere(Point3D center, double radius) {
+            super(center, radius);
+        }
+
+        @Override
+        public boolean findClosestHit(Ray r, HitRecord hit) {
+            ++tests;
+            return super.findClosestHit(r, hit);
+        }
+    }
+
+    /**
+     * Test method for the queries shared by every compiled hierarchy
+     */
+    @Test
+    public void testCompiledQueries() {
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: intersections, closest hits and transparency of the shared scene
+        FlatHierarchyTests.assertCompiledQueries(Geometries::createWideHierarchy);
+    }
+
+    /**
+     * Test method for
+     * {@link geometries.WideHierarchy#findClosestGeoIntersection(primitives.Ray, double)}
+     */
+    @Test
+    public void testFindClosestGeoIntersection() {
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: a deep hierarchy agrees with the binary one it was collapsed from
+        Geometries grid = grid();
+        FlatHierarchy flat = grid.createFlatHierarchy();
+        WideHierarchy wide = grid.createWideHierarchy();
+        for (int i = -6; i <= 6; ++i)
+            for (int j = -6; j <= 6; ++j) {
+                Ray ray = new Ray(new Point3D(15, 15, 40), new Vector(i * 3, j * 3, -40));
+                GeoPoint expected = flat.findClosestGeoIntersection(ray);
+                GeoPoint actual = wide.findClosestGeoIntersection(ray);
+                assertEquals("Wrong closest point for ray " + ray, expected == null ? null : expected.point,
+                        actual == null ? null : actual.point);
+                List<Point3D> all = flat.findIntersections(ray);
+                List<Point3D> found = wide.findIntersections(ray);
+                assertEquals("Wrong amount of intersections for ray " + ray, all == null ? 0 : all.size(),
+                        found == null ? 0 : found.size());
+            }
+
+        // TC02: children are visited front to back, so the spheres behind the
+        // nearest one aren't tested, from either side
+        CountedSphere[] spheres = new CountedSphere[4];
+        Geometries row = new Geometries();
+        for (int i = 0; i < spheres.length; ++i)
+            row.add(spheres[i] = new CountedSphere(new Point3D(0, 0, -10 * i), 1));
+        wide = row.createWideHierarchy();
+        assertEquals("Wrong closest point from above", new Point3D(0, 0, 1),
+                wide.findClosestGeoIntersection(new Ray(new Point3D(0, 0, 10), new Vector(0, 0, -1))).point);
+        assertEquals("Wrong closest point from below", new Point3D(0, 0, -31),
+                wide.findClosestGeoIntersection(new Ray(new Point3D(0, 0, -50), new Vector(0, 0, 1))).point);
+        assertEquals("Nearest sphere from above wasn't tested once", 1, spheres[0].tests);
+        assertEquals("Nearest sphere from below wasn't tested once", 1, spheres[3].tests);
+        assertEquals("Sphere behind the closest hit was tested", 0, spheres[1].tests + spheres[2].tests);
+
+        // =============== Boundary Values Tests ==================
+        // TC03: tiny geometries far apart are all found
+        Geometries far = new Geometries();
+        for (int i = 0; i < 100; ++i)
+            far.add(new Triangle(new Point3D(i * 1000, 0, 0), new Point3D(i * 1000 + 0.01, 0, 0),
+                    new Point3D(i * 1000, 0.01, 0)));
+        wide = far.createWideHierarchy();
+        for (int i = 0; i < 100; ++i) {
+            Ray ray = new Ray(new Point3D(i * 1000 + 0.002, 0.002, 10), new Vector(0, 0, -1));
+            assertEquals("Missed a tiny triangle", new Point3D(i * 1000 + 0.002, 0.002, 0),
+                    wide.findClosestGeoIntersection(ray).point);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.WideHierarchy#getDepth()}
+     */
+    @Test
+    public void testGetDepth() {
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: collapsing halves the depth of the binary tree
+        Geometries grid = grid();
+        int binary = grid.createFlatHierarchy().getDepth();
+        int wide = grid.createWideHierarchy().getDepth();
+        assertTrue("Binary tree of the grid should be deep", binary > 6);
+        assertTrue("Wide tree of depth " + wide + " isn't half of " + binary, wide <= (binary + 1) / 2);
+
+        // =============== Boundary Values Tests ==================
+        // TC02: empty geometries
+        assertEquals("Empty hierarchy should have no levels", 0, new Geometries().createWideHierarchy().getDepth());
+    }
+
+    /**
+     * Test method for the unused children of a node of a
+     * {@link geometries.WideHierarchy}
+     */
+    @Test
+    public void testUnusedChildren() {
+        Geometries three = new Geometries(new Sphere(new Point3D(-3, 0, 0), 1), new Sphere(Point3D.ZERO, 1),
+                new Sphere(new Point3D(3, 0, 0), 1));
+        WideHierarchy wide = three.createWideHierarchy();
+        assertEquals("Three leaves should fit a single node", 1, wide.getNodeCount());
+
+        // ============== Equivalence Partitions Tests ==============
+        // TC01: rays in many directions from inside the root enter only the used
+        // children (entering the unused one would visit the spheres again)
+        for (int i = -3; i <= 3; ++i)
+            for (int j = -3; j <= 3; ++j)
+                for (int k = -3; k <= 3; ++k) {
+                    if (i == 0 && j == 0 && k == 0)
+                        continue;
+                    Ray ray = new Ray(new Point3D(1.5, 0, 0), new Vector(i, j, k));
+                    List<Point3D> expected = three.findIntersections(ray);
+                    List<Point3D> actual = wide.findIntersections(ray);
+                    assertEquals("Wrong amount of intersections for ray " + ray,
+                            expected == null ? 0 : expected.size(), actual == null ? 0 : actual.size());
+                }
+
+        // =============== Boundary Values Tests ==================
+        // TC02: ray along the axis through every sphere
+        assertEquals("Wrong amount of intersections along the axis", 6,
+                wide.findIntersections(new Ray(new Point3D(-10, 0, 0), new Vector(1, 0, 0))).size());
+    }
+
+    /**
+     * @return a grid of 900 triangles, deep enough to collapse
+     */
+    private static Geometries grid() {
+        Geometries grid = new Geometries();
+        for (int i = 0; i < 30; ++i)
+            for (int j = 0; j < 30; ++j)
+                grid.add(new Triangle(new Point3D(i, j, (i * j) % 5), new Point3D(i + 1, j, 0),
+                        new Point3D(i, j + 1, 0)));
+        return grid;
+    }
+}
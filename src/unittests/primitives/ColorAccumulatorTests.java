@@ -0,0 +1,53 @@
+package unittests.primitives;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import primitives.Color;
+import primitives.ColorAccumulator;
+
+/**
+ * Unit testing class for {@link ColorAccumulator} methods.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class ColorAccumulatorTests {
+
+    final double ACCURACY = .0000001;
+
+    /**
+     * Unit test for {@link ColorAccumulator#add(Color, double)}
+     */
+    @Test
+    public void testAdd() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: operations change the accumulator itself and agree with Color
+        ColorAccumulator c = new ColorAccumulator();
+        assertSame("add() should return the accumulator itself", c, c.add(new Color(10, 20, 30), .5));
+        c.add(new Color(1, 2, 3)).scale(2);
+        Color expected = new Color(10, 20, 30).scale(.5).add(new Color(1, 2, 3)).scale(2);
+        assertEquals("add() wrong red", expected.getR(), c.r, ACCURACY);
+        assertEquals("add() wrong green", expected.getG(), c.g, ACCURACY);
+        assertEquals("add() wrong blue", expected.getB(), c.b, ACCURACY);
+        assertEquals("toColor() wrong color", expected.getColor(), c.toColor().getColor());
+
+        // TC02: accumulators add to each other
+        ColorAccumulator sum = new ColorAccumulator().add(c, .5).add(c);
+        assertEquals("add() wrong red", 1.5 * c.r, sum.r, ACCURACY);
+
+        // =============== Boundary Values Tests ==================
+        // TC03: clear resets to black
+        assertEquals("clear() didn't reset the color", 0, c.clear().r + c.g + c.b, ACCURACY);
+
+        // TC04: a negative sum can't be turned into a Color
+        try {
+            new ColorAccumulator().set(1, -1, 1).toColor();
+            fail("toColor() should throw for a negative component");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
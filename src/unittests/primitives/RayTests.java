@@ -108,4 +108,27 @@ public class RayTests {
         }
         image.writeToImage();
     }
+
+    /**
+     * Unit test for the reflection and refraction methods in {@link Ray} which
+     * take the normal at the intersection point
+     */
+    @Test
+    public void testConstructWithNormal() {
+        Tube tube = new Tube(1, new Ray(Point3D.ZERO, new Vector(0, 1, 0)));
+        GeoPoint gp = new GeoPoint(tube, new Point3D(1, 2, 0));
+        Vector normal = tube.getNormal(gp.point);
+        Vector incident = new Vector(-1, -1, 0);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a known normal gives the same rays as the one the methods calculate
+        assertEquals("Wrong reflection ray", Ray.constructReflectionRay(gp, incident),
+                Ray.constructReflectionRay(gp, incident, normal));
+        assertEquals("Wrong reflection ray", new Vector(1, -1, 0).normalize(),
+                Ray.constructReflectionRay(gp, incident, normal).getDir());
+        assertEquals("Wrong refraction ray", Ray.constructRefractionRay(gp, incident),
+                Ray.constructRefractionRay(gp, incident, normal));
+        assertEquals("Wrong refraction beam", Ray.constructRefractionRays(gp, incident, 1, 1, 4),
+                Ray.constructRefractionRays(gp, incident, normal, 1, 1, 4));
+    }
 }
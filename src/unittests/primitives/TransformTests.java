@@ -0,0 +1,81 @@
+package unittests.primitives;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Transform;
+import primitives.Vector;
+
+/**
+ * Unit testing class for {@link Transform} methods.
+ * 
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class TransformTests {
+
+    /**
+     * Unit test for {@link Transform#apply(Point3D)}
+     */
+    @Test
+    public void testApply() {
+        // ============= Equivalence Tests ==============
+        // TC01: rotation around the z axis
+        Transform t = new Transform().rotate(new Vector(0, 0, 1), 90);
+        assertEquals("Wrong rotation", new Point3D(0, 1, 0), t.apply(new Point3D(1, 0, 0)));
+
+        // TC02: transforms are applied in the order they were added
+        t = t.scale(2).translate(new Vector(1, 2, 3));
+        assertEquals("Wrong combined transform", new Point3D(1, 4, 3), t.apply(new Point3D(1, 0, 0)));
+
+        // TC03: directions aren't translated
+        assertEquals("Direction shouldn't be translated", new Vector(0, 2, 0), t.apply(new Vector(1, 0, 0)));
+
+        // =============== Boundary Values Tests ==================
+        // TC04: identity
+        assertEquals("Identity should not move points", new Point3D(1, 2, 3),
+                Transform.IDENTITY.apply(new Point3D(1, 2, 3)));
+
+        // TC05: scaling an axis by 0
+        try {
+            new Transform().scale(1, 0, 1);
+            fail("Scaling an axis by 0 should throw an exception");
+        } catch (IllegalArgumentException e) {}
+    }
+
+    /**
+     * Unit test for {@link Transform#applyInverse(Point3D)}
+     */
+    @Test
+    public void testApplyInverse() {
+        Transform t = new Transform().scale(1, 2, 3).rotate(new Vector(1, 1, 0), 30).translate(new Vector(5, -1, 2));
+        Point3D p = new Point3D(3, -2, 7);
+
+        // ============= Equivalence Tests ==============
+        // TC01: inverse undoes the transform
+        assertEquals("Inverse should undo the transform", p, t.applyInverse(t.apply(p)));
+        assertEquals("Inverse transform should undo the transform", p, t.inverse().apply(t.apply(p)));
+
+        // TC02: ray in the space of the transformed object
+        Ray r = t.applyInverse(new Ray(t.apply(p), t.apply(new Vector(0, 0, 1))));
+        assertEquals("Wrong ray in object space", new Ray(p, new Vector(0, 0, 1)), r);
+    }
+
+    /**
+     * Unit test for {@link Transform#applyNormal(Vector)}
+     */
+    @Test
+    public void testApplyNormal() {
+        // ============= Equivalence Tests ==============
+        // TC01: normal of a plane stretched along x stays orthogonal to it
+        Transform t = new Transform().scale(2, 1, 1);
+        Vector n = new Vector(1, 1, 0).normalize();
+        Vector inPlane = t.apply(new Vector(1, -1, 0));
+        assertEquals("Normal isn't orthogonal to the surface", 0, t.applyNormal(n).dotProduct(inPlane), 0.00001);
+        assertEquals("Normal isn't normalized", 1, t.applyNormal(n).length(), 0.00001);
+    }
+}
@@ -0,0 +1,91 @@
+package unittests.primitives;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Ray3;
+import primitives.Vec3;
+import primitives.Vector;
+
+/**
+ * Unit testing class for {@link Vec3} and {@link Ray3} methods.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class Vec3Tests {
+
+    final double ACCURACY = .0000001;
+
+    /**
+     * Unit test for {@link Vec3#add(Vec3, double)}
+     */
+    @Test
+    public void testAdd() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: operations change the Vec3 itself and agree with Point3D
+        Vec3 v = new Vec3(1, 2, 3);
+        assertSame("add() should return the Vec3 itself", v, v.add(new Vec3(1, 1, 1), 2));
+        assertEquals("add() wrong result", new Point3D(3, 4, 5), v.toPoint3D());
+        assertEquals("subtract() wrong result", new Point3D(1, 2, 3),
+                new Point3D(3, 4, 5).subtract(new Point3D(2, 2, 2)).getHead());
+        assertEquals("subtract() wrong result", new Point3D(1, 2, 3), v.subtract(new Vec3(2, 2, 2)).toPoint3D());
+
+        // =============== Boundary Values Tests ==================
+        // TC02: zero vectors are allowed but can't be converted to a Vector
+        v.setSubtract(v, v);
+        assertEquals("Zero vector should have zero length", 0, v.length(), 0);
+        assertEquals("Normalizing the zero vector should leave it", 0, v.normalize().length(), 0);
+        try {
+            v.toVector();
+            fail("toVector() of the zero vector should throw an exception");
+        } catch (IllegalArgumentException e) {}
+    }
+
+    /**
+     * Unit test for {@link Vec3#setCrossProduct(Vec3, Vec3)}
+     */
+    @Test
+    public void testCrossProduct() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: agrees with Vector.crossProduct
+        Vec3 a = new Vec3(1, 2, 3);
+        Vec3 b = new Vec3(0, 3, -2);
+        assertEquals("setCrossProduct() wrong result", new Vector(1, 2, 3).crossProduct(new Vector(0, 3, -2)),
+                new Vec3().setCrossProduct(a, b).toVector());
+        assertEquals("dotProduct() wrong result", 0, new Vec3().setCrossProduct(a, b).dotProduct(a), ACCURACY);
+
+        // =============== Boundary Values Tests ==================
+        // TC02: the result can be one of the operands
+        Vector expected = new Vector(1, 2, 3).crossProduct(new Vector(0, 3, -2));
+        assertEquals("setCrossProduct() into an operand", expected, a.setCrossProduct(a, b).toVector());
+    }
+
+    /**
+     * Unit test for {@link Ray3#set(Ray)}
+     */
+    @Test
+    public void testRay3() {
+        Ray r = new Ray(new Point3D(1, 2, 3), new Vector(0, 3, 4));
+        Ray3 ray = new Ray3(r);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: points along the ray agree with Ray
+        assertEquals("getPoint() wrong result", r.getPoint(5), ray.getPoint(5, new Vec3()).toPoint3D());
+        assertEquals("Wrong inverse direction", 1 / 0.6, ray.invDir.y, ACCURACY);
+
+        // TC02: direction is normalized when set
+        ray.set(new Vec3(0, 0, 0), new Vec3(0, 0, -2));
+        assertEquals("Direction wasn't normalized", new Vector(0, 0, -1), ray.dir.toVector());
+
+        // =============== Boundary Values Tests ==================
+        // TC03: axes the ray is parallel to have an infinite inverse
+        assertEquals("Wrong inverse of a zero direction", Double.POSITIVE_INFINITY, ray.invDir.x, 0);
+        assertEquals("toRay() wrong result", new Ray(Point3D.ZERO, new Vector(0, 0, -1)), ray.toRay());
+    }
+}
@@ -128,4 +128,58 @@ public class VectorTests {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    /**
+     * Unit test for the reflect method for {@link Vector}s
+     */
+    public void testReflect() {
+        Vector n = new Vector(0, 0, 1);
+        // ============Equivalence Partitions Tests ==============
+        // vector towards the normal's plane - flips its normal part
+        assertEquals("reflect() didn't flip the normal part of the vector", new Vector(1, 2, 3).reflect(n),
+                new Vector(1, 2, -3));
+        // ============== Boundary Value Tests ==============
+        // vector orthogonal to the normal - returns itself
+        assertEquals("reflect() didn't return an orthogonal vector as it is", new Vector(1, 2, 0).reflect(n),
+                new Vector(1, 2, 0));
+        // vector parallel to the normal - returns its opposite
+        assertEquals("reflect() didn't return the opposite of a parallel vector", new Vector(0, 0, -2).reflect(n),
+                new Vector(0, 0, 2));
+    }
+
+    @Test
+    /**
+     * Unit test for the rotate method for {@link Vector}s
+     */
+    public void testRotate() {
+        Vector z = new Vector(0, 0, 1);
+        // ============Equivalence Partitions Tests ==============
+        // vector orthogonal to the axis
+        assertEquals("rotate() didn't rotate the vector around the axis", new Vector(1, 0, 0).rotate(z, 90),
+                new Vector(0, 1, 0));
+        // vector diagonal to the axis - its part along the axis stays
+        assertEquals("rotate() didn't keep the part of the vector along the axis", new Vector(1, 0, 1).rotate(z, 180),
+                new Vector(-1, 0, 1));
+        // ============== Boundary Value Tests ==============
+        // vector parallel to the axis - returns itself
+        assertEquals("rotate() didn't return a vector parallel to the axis as it is", new Vector(0, 0, 2).rotate(z, 30),
+                new Vector(0, 0, 2));
+    }
+
+    @Test
+    /**
+     * Unit test for the calcVright method for {@link Vector}s
+     */
+    public void testCalcVright() {
+        // ============Equivalence Partitions Tests ==============
+        Vector v = new Vector(1, 2, 3);
+        Vector right = v.calcVright();
+        assertEquals("calcVright() didn't return an orthogonal vector", 0, v.dotProduct(right), 0.00001);
+        assertEquals("calcVright() didn't return a unit vector", 1, right.length(), 0.00001);
+        // ============== Boundary Value Tests ==============
+        // vector parallel to the z axis
+        assertEquals("calcVright() failed for a vector parallel to the z axis", new Vector(0, 0, 2).calcVright(),
+                new Vector(1, 0, 0));
+    }
+
+}
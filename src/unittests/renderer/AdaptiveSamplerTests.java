@@ -0,0 +1,104 @@
+package unittests.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import elements.Camera;
+import geometries.Polygon;
+import primitives.Color;
+import primitives.ColorAccumulator;
+import primitives.Point3D;
+import primitives.Vector;
+import renderer.AdaptiveSampler;
+import renderer.BasicRayTracer;
+import scene.Scene;
+
+/**
+ * Unit testing class for {@link AdaptiveSampler} methods.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class AdaptiveSamplerTests {
+
+    final double ACCURACY = .0001;
+
+    private final Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+            .setDistance(100).setViewPlaneSize(110, 110);
+
+    /**
+     * @return scene where the left half of the view is red and the right half is
+     *         black, so the edge goes through the middle of the center column of
+     *         an 11x11 image
+     */
+    private BasicRayTracer halfRed() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(new Polygon(new Point3D(-200, -200, -100), new Point3D(0, -200, -100),
+                new Point3D(0, 200, -100), new Point3D(-200, 200, -100)).setEmission(new Color(255, 0, 0)));
+        return new BasicRayTracer(scene);
+    }
+
+    /**
+     * Tests sampling pixels
+     */
+    @Test
+    public void testSample() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: flat pixel gets four rays and its color
+        AdaptiveSampler sampler = new AdaptiveSampler(camera, halfRed(), 3, 1);
+        ColorAccumulator c = sampler.sample(11, 11, 2, 5, new ColorAccumulator());
+        assertEquals("wrong color of a flat pixel", 255, c.r, ACCURACY);
+        assertEquals("flat pixel should get four rays", 4, sampler.getCount());
+
+        // TC02: pixel on the edge is sampled again and gets about half of the red
+        c = sampler.sample(11, 11, 5, 5, new ColorAccumulator());
+        assertTrue("pixel on the edge should be sampled again", sampler.getCount() > 8);
+        assertTrue("pixel on the edge should be between the colors", c.r > 100 && c.r < 155);
+        assertEquals("wrong green of a pixel on the edge", 0, c.g, ACCURACY);
+
+        // TC03: the same pixel gets the same samples
+        ColorAccumulator again = new AdaptiveSampler(camera, halfRed(), 3, 1).sample(11, 11, 5, 5,
+                new ColorAccumulator());
+        assertEquals("samples aren't repeatable", c.r, again.r, ACCURACY);
+
+        // TC04: every square that is sampled again reuses the sample it already
+        // has, so it traces three new rays
+        sampler = new AdaptiveSampler(camera, halfRed(), 2, 1);
+        sampler.sample(11, 11, 5, 5, new ColorAccumulator());
+        assertEquals("quarters should reuse the samples of the pixel", 4 + 4 * 3, sampler.getCount());
+
+        // =============== Boundary Values Tests ==================
+        // TC11: a single level never samples again
+        sampler = new AdaptiveSampler(camera, halfRed(), 1, 1);
+        sampler.sample(11, 11, 5, 5, new ColorAccumulator());
+        assertEquals("a single level should trace four rays", 4, sampler.getCount());
+
+        // TC12: contrast below the threshold isn't sampled again
+        sampler = new AdaptiveSampler(camera, halfRed(), 3, 255);
+        sampler.sample(11, 11, 5, 5, new ColorAccumulator());
+        assertEquals("contrast below the threshold should trace four rays", 4, sampler.getCount());
+    }
+
+    /**
+     * Tests the exceptions of the constructor
+     */
+    @Test
+    public void testConstructor() {
+        // TC01: at least one level
+        try {
+            new AdaptiveSampler(camera, halfRed(), 0, 1);
+            fail("constructor should throw for zero levels");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC02: threshold must not be negative
+        try {
+            new AdaptiveSampler(camera, halfRed(), 2, -1);
+            fail("constructor should throw for a negative threshold");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
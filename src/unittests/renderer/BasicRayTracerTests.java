@@ -0,0 +1,70 @@
+package unittests.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import elements.DirectionalLight;
+import geometries.Sphere;
+import primitives.Color;
+import primitives.ColorAccumulator;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.BasicRayTracer;
+import scene.Scene;
+
+/**
+ * Unit testing class for {@link BasicRayTracer} methods.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class BasicRayTracerTests {
+
+    final double ACCURACY = .0001;
+
+    private final Ray ray = new Ray(new Point3D(0, 0, 100), new Vector(0, 0, -1));
+
+    /**
+     * @return scene of a diffuse sphere without lights
+     */
+    private static Scene dark() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(new Sphere(Point3D.ZERO, 10).setMaterial(new Material().setKd(1)));
+        return scene;
+    }
+
+    /**
+     * Tests that the lights are read from the scene when the rays are traced
+     */
+    @Test
+    public void testTraceRayLights() {
+        Scene scene = dark();
+        BasicRayTracer tracer = new BasicRayTracer(scene);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: no lights
+        assertEquals("sphere without lights should be black", 0,
+                tracer.traceRay(ray, 1, new ColorAccumulator()).r, ACCURACY);
+
+        // TC02: light added after the tracer was created
+        scene.lights.add(new DirectionalLight(new Color(100, 0, 0), new Vector(0, 0, -1)));
+        assertEquals("added light should light the sphere", 100,
+                tracer.traceRay(ray, 1, new ColorAccumulator()).r, ACCURACY);
+
+        // TC03: lights replaced by more lights
+        scene.setLights(new DirectionalLight(new Color(100, 0, 0), new Vector(0, 0, -1)),
+                new DirectionalLight(new Color(0, 50, 0), new Vector(0, 0, -1)));
+        ColorAccumulator c = tracer.traceRay(ray, 1, new ColorAccumulator());
+        assertTrue("both lights should light the sphere", c.r > 99 && c.g > 49);
+
+        // =============== Boundary Values Tests ==================
+        // TC11: all the lights removed
+        scene.setLights();
+        assertEquals("sphere without lights should be black again", 0,
+                tracer.traceRay(ray, 1, new ColorAccumulator()).g, ACCURACY);
+    }
+}
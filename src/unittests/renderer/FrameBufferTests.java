@@ -0,0 +1,61 @@
+package unittests.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import primitives.Color;
+import primitives.ColorAccumulator;
+import renderer.FrameBuffer;
+import renderer.ImageWriter;
+
+/**
+ * Unit testing class for {@link FrameBuffer} methods.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class FrameBufferTests {
+
+    final double ACCURACY = .0001;
+
+    /**
+     * Tests setting and accumulating pixels
+     */
+    @Test
+    public void testAdd() {
+        FrameBuffer buffer = new FrameBuffer(4, 3);
+        ColorAccumulator c = new ColorAccumulator();
+
+        // TC01: colors above 255 are kept
+        buffer.set(3, 2, new Color(300, 20, 1));
+        buffer.get(3, 2, c);
+        assertEquals("set() wrong red", 300, c.r, ACCURACY);
+        assertEquals("set() wrong blue", 1, c.b, ACCURACY);
+
+        // TC02: weighted samples add up and don't touch other pixels
+        c.set(10, 20, 30);
+        for (int i = 0; i < 4; ++i)
+            buffer.add(1, 0, c, .25);
+        assertEquals("add() wrong green", 20, buffer.get(1, 0, c).g, ACCURACY);
+        assertEquals("add() changed another pixel", 0, buffer.get(0, 0, c).r, ACCURACY);
+
+        // TC03: clear resets every pixel
+        buffer.clear();
+        assertEquals("clear() didn't reset the pixels", 0, buffer.get(3, 2, c).r, ACCURACY);
+    }
+
+    /**
+     * Tests writing the buffer to an image
+     */
+    @Test
+    public void testWriteTo() {
+        // TC01: the image has to be of the same size
+        try {
+            new FrameBuffer(4, 3).writeTo(new ImageWriter("frame_buffer", 3, 4), 1);
+            fail("writeTo() should throw for an image of another size");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
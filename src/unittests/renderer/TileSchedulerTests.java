@@ -0,0 +1,131 @@
+package unittests.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+import renderer.TileOrder;
+import renderer.TileScheduler;
+
+/**
+ * Unit testing class for {@link TileScheduler} methods.
+ *
+ * @author Roni Buchine
+ * @author Eliezer Jacobs
+ */
+public class TileSchedulerTests {
+
+    /**
+     * Tests that every pixel is rendered exactly once, with aligned regions
+     */
+    @Test
+    public void testRender() {
+        for (TileOrder order : TileOrder.values())
+            for (int threads : new int[] { 1, 3 }) {
+                // TC01: image size which isn't a multiple of the tiles or the alignment
+                int nX = 53, nY = 37, align = 4;
+                TileScheduler scheduler = new TileScheduler(nX, nY, 10, align, order);
+                assertEquals("tile size isn't aligned", 12, scheduler.getTileSize());
+                AtomicIntegerArray counts = new AtomicIntegerArray(nX * nY);
+                scheduler.render(threads, (x0, y0, x1, y1) -> {
+                    assertTrue("region isn't aligned", x0 % align == 0 && y0 % align == 0);
+                    for (int y = y0; y < y1; ++y)
+                        for (int x = x0; x < x1; ++x)
+                            counts.incrementAndGet(y * nX + x);
+                });
+                for (int i = 0; i < counts.length(); ++i)
+                    assertEquals("pixel " + i + " wasn't rendered once (" + order + ")", 1, counts.get(i));
+            }
+    }
+
+    /**
+     * Tests rendering on an executor which isn't a fork join pool
+     */
+    @Test
+    public void testRenderOnExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // TC01: every pixel is rendered exactly once
+            int nX = 40, nY = 25;
+            AtomicIntegerArray counts = new AtomicIntegerArray(nX * nY);
+            new TileScheduler(nX, nY, 8, 1, TileOrder.HILBERT).render(executor, 3, (x0, y0, x1, y1) -> {
+                for (int y = y0; y < y1; ++y)
+                    for (int x = x0; x < x1; ++x)
+                        counts.incrementAndGet(y * nX + x);
+            }).join();
+            for (int i = 0; i < counts.length(); ++i)
+                assertEquals("pixel " + i + " wasn't rendered once", 1, counts.get(i));
+
+            // TC02: the future completes with the exception of the renderer
+            try {
+                new TileScheduler(nX, nY, 8, 1, TileOrder.HILBERT).render(executor, 3, (x0, y0, x1, y1) -> {
+                    throw new IllegalStateException("failed tile");
+                }).join();
+                fail("render() should complete with the exception of the renderer");
+            } catch (CompletionException e) {
+                assertTrue("wrong exception", e.getCause() instanceof IllegalStateException);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests the order of the tiles
+     */
+    @Test
+    public void testOrder() {
+        // TC01: consecutive tiles along a Hilbert curve are neighbours
+        TileScheduler scheduler = new TileScheduler(64, 64, 8, 1, TileOrder.HILBERT);
+        assertEquals("wrong amount of tiles", 64, scheduler.getTileCount());
+        for (int i = 1; i < scheduler.getTileCount(); ++i)
+            assertEquals("tiles " + (i - 1) + " and " + i + " aren't neighbours", 8,
+                    Math.abs(scheduler.getTileX(i) - scheduler.getTileX(i - 1))
+                            + Math.abs(scheduler.getTileY(i) - scheduler.getTileY(i - 1)));
+
+        // TC02: Z-order does every 2x2 block of tiles before the next one
+        scheduler = new TileScheduler(32, 32, 8, 1, TileOrder.Z_ORDER);
+        int[] xs = { 0, 8, 0, 8, 16, 24, 16, 24 }, ys = { 0, 0, 8, 8, 0, 0, 8, 8 };
+        for (int i = 0; i < xs.length; ++i)
+            assertTrue("wrong tile " + i + " in Z-order",
+                    scheduler.getTileX(i) == xs[i] && scheduler.getTileY(i) == ys[i]);
+
+        // TC03: scanline order
+        scheduler = new TileScheduler(30, 20, 10, 1, TileOrder.SCANLINE);
+        assertTrue("wrong fourth tile in scanline order", scheduler.getTileX(3) == 0 && scheduler.getTileY(3) == 10);
+
+        // =============== Boundary Values Tests ==================
+        // TC04: image smaller than a tile
+        scheduler = new TileScheduler(5, 3, 16, 1, TileOrder.HILBERT);
+        assertEquals("wrong amount of tiles for a small image", 1, scheduler.getTileCount());
+    }
+
+    /**
+     * Tests the exceptions of the constructor and the render
+     */
+    @Test
+    public void testExceptions() {
+        // TC01: tile size must be positive
+        try {
+            new TileScheduler(10, 10, 0, 1, TileOrder.HILBERT);
+            fail("constructor should throw for a zero tile size");
+        } catch (IllegalArgumentException e) {
+        }
+
+        // TC02: exceptions of the renderer are thrown from render
+        try {
+            new TileScheduler(10, 10, 4, 1, TileOrder.HILBERT).render(2, (x0, y0, x1, y1) -> {
+                throw new IllegalStateException("failed tile");
+            });
+            fail("render() should throw the exception of the renderer");
+        } catch (IllegalStateException e) {
+        }
+    }
+}